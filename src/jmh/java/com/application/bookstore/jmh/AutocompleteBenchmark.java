@@ -0,0 +1,63 @@
+package com.application.bookstore.jmh;
+
+import com.application.bookstore.search.AutocompleteTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Suggestion latency against catalogs of 10k and 1M synthetic titles (same skewed word model as
+// BookSearchBenchmark, 50k author surnames). "prefix" is a plain two-word prefix, "typo" the same
+// prefix with one character dropped; latency should not grow with the catalog.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class AutocompleteBenchmark {
+
+    private static final int WORDS = 20_000;
+    private static final int AUTHORS = 50_000;
+
+    @Param({"10000", "1000000"})
+    private int books;
+
+    @Param({"prefix", "typo"})
+    private String queryKind;
+
+    private AutocompleteTrie trie;
+    private String query;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        trie = new AutocompleteTrie();
+        for (int id = 1; id <= books; id++) {
+            final int words = 1 + random.nextInt(5);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                title.append(word(skewed(random, WORDS))).append(' ');
+            }
+            trie.put(id, title.toString(), List.of("surname" + random.nextInt(AUTHORS)));
+        }
+
+        final String prefix = word(2) + " " + word(5).substring(0, 2);
+        query = "prefix".equals(queryKind) ? prefix : prefix.substring(0, 1) + prefix.substring(2);
+    }
+
+    @Benchmark
+    public List<AutocompleteTrie.Match> suggest() {
+        return trie.suggest(query, AutocompleteTrie.MAX_SUGGESTIONS);
+    }
+
+    // rank r is drawn with probability roughly proportional to 1 / r
+    private static int skewed(Random random, int n) {
+        return (int) Math.floor(Math.pow(n + 1, random.nextDouble()));
+    }
+
+    private static String word(int rank) {
+        return "w" + Integer.toString(rank, 36);
+    }
+}
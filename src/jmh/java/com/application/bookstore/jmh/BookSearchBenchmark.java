@@ -0,0 +1,67 @@
+package com.application.bookstore.jmh;
+
+import com.application.bookstore.search.BookTokenIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Ranked search over a synthetic catalog of a million titles: 20k title words with a skewed
+// (Zipf-like) frequency, 30 genres and 50k authors. "common" hits a word in roughly one title
+// in five, "rare" two infrequent words, "mixed" a common word plus an author surname.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BookSearchBenchmark {
+
+    private static final int BOOKS = 1_000_000;
+    private static final int WORDS = 20_000;
+    private static final int GENRES = 30;
+    private static final int AUTHORS = 50_000;
+
+    @Param({"common", "rare", "mixed"})
+    private String queryKind;
+
+    private BookTokenIndex index;
+    private String query;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new BookTokenIndex();
+        for (int id = 1; id <= BOOKS; id++) {
+            final int words = 1 + random.nextInt(5);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                title.append(word(skewed(random, WORDS))).append(' ');
+            }
+            final int author = random.nextInt(AUTHORS);
+            index.put(id, title.toString(), "genre" + random.nextInt(GENRES),
+                    List.of("first" + author % 997 + " last" + author));
+        }
+
+        query = switch (queryKind) {
+            case "common" -> word(1);
+            case "rare" -> word(WORDS / 2) + " " + word(WORDS / 2 + 1);
+            default -> word(3) + " last" + (AUTHORS / 3);
+        };
+    }
+
+    @Benchmark
+    public BookTokenIndex.SearchResult firstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    // rank r is drawn with probability roughly proportional to 1 / r
+    private static int skewed(Random random, int n) {
+        return (int) Math.floor(Math.pow(n + 1, random.nextDouble()));
+    }
+
+    private static String word(int rank) {
+        return "w" + Integer.toString(rank, 36);
+    }
+}
@@ -0,0 +1,103 @@
+package com.application.bookstore.jmh;
+
+import com.application.bookstore.dto.AuthorDto;
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.CustomerDto;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.model.Customer;
+import com.application.bookstore.service.AuthorService;
+import com.application.bookstore.service.BookService;
+import com.application.bookstore.service.CustomerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mapping cost as the number of related rows grows: one book with fanOut authors,
+// one author with fanOut books, and a list of fanOut customers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int fanOut;
+
+    private BookService bookService;
+    private AuthorService authorService;
+    private CustomerService customerService;
+
+    private List<Book> book;
+    private List<Author> author;
+    private List<Customer> customers;
+
+    @Setup
+    public void setUp() {
+        // toDto touches no collaborators
+        bookService = new BookService(null, null, null, null, null);
+        authorService = new AuthorService(null, null, null);
+        customerService = new CustomerService(null);
+
+        Book bookWithAuthors = newBook(0);
+        Author authorWithBooks = newAuthor(0);
+        customers = new ArrayList<>();
+        for (int i = 0; i < fanOut; i++) {
+            bookWithAuthors.getAuthors().add(newAuthor(i));
+            authorWithBooks.getBooks().add(newBook(i));
+            customers.add(newCustomer(i));
+        }
+        book = List.of(bookWithAuthors);
+        author = List.of(authorWithBooks);
+    }
+
+    @Benchmark
+    public List<BookDto> bookToDto() {
+        return bookService.toDto(book);
+    }
+
+    @Benchmark
+    public List<AuthorDto> authorToDto() {
+        return authorService.toDto(author);
+    }
+
+    @Benchmark
+    public List<CustomerDto> customersToDto() {
+        return customerService.toDto(customers);
+    }
+
+    private static Book newBook(int i) {
+        Book book = new Book();
+        book.setId(i + 1);
+        book.setTitle("Book " + i);
+        book.setPrice(9.99);
+        book.setGenre("Fiction");
+        book.setStock(10);
+        return book;
+    }
+
+    private static Author newAuthor(int i) {
+        Author author = new Author();
+        author.setId(i + 1);
+        author.setFirstName("First" + i);
+        author.setLastName("Last" + i);
+        author.setEmail("author" + i + "@example.com");
+        author.setNationality("British");
+        return author;
+    }
+
+    private static Customer newCustomer(int i) {
+        Customer customer = new Customer();
+        customer.setId(i + 1);
+        customer.setFirstName("First" + i);
+        customer.setLastName("Last" + i);
+        customer.setEmail("customer" + i + "@example.com");
+        customer.setPhoneNumber("+1-555-0100");
+        customer.setAddress("1 Main Street");
+        return customer;
+    }
+}
@@ -0,0 +1,35 @@
+package com.application.bookstore.jmh;
+
+import com.application.bookstore.validation.EmailValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// String.matches (compiles the pattern on every call) vs. a precompiled Pattern vs. the
+// hand-written scanner behind EmailValidator.isValid.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidationBenchmark {
+
+    @Param({"george.orwell@example.com", "not-an-email"})
+    private String email;
+
+    @Benchmark
+    public boolean stringMatches() {
+        return email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return EmailValidator.EMAIL_PATTERN.matcher(email).matches();
+    }
+
+    @Benchmark
+    public boolean scanner() {
+        return EmailValidator.isValid(email);
+    }
+}
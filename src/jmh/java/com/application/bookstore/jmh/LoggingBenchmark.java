@@ -0,0 +1,147 @@
+package com.application.bookstore.jmh;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.application.bookstore.logging.LogMarkers;
+import com.application.bookstore.logging.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Logging cost of one GET /books/{id} request: the filter chain's security debug/trace lines plus the
+// service's "Fetching ..." line. Each parameter changes one factor, so compare rows that differ in one:
+//   securityLevel  TRACE (old setup) or WARN (prod profile) for org.springframework.security
+//   appender       sync: every line encoded on the request thread; async: the prod AsyncAppender
+//                  (queue 8192, discards nothing, blocks the caller while the queue is full)
+//   sampling       on: SAMPLED_READ lines kept 1 in 100, as in the prod profile
+// The old setup is TRACE/sync/off, the prod profile WARN/async/on. Async rows also print how many
+// events the appender dropped over the trial (none with the prod settings), since throughput bought
+// by dropping lines is not a win.
+// Lines are encoded into a null stream so only logging is measured.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"TRACE", "WARN"})
+    private String securityLevel;
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    @Param({"off", "on"})
+    private String sampling;
+
+    private LoggerContext context;
+    private AsyncAppender async;
+
+    // events handed to the async appender and events the console wrote
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private org.slf4j.Logger securityLogger;
+    private org.slf4j.Logger serviceLogger;
+
+    @Setup
+    public void setUp() {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                written.increment();
+                super.append(event);
+            }
+        };
+        console.setContext(context);
+        console.setName("CONSOLE");
+        console.setEncoder(encoder);
+        console.setOutputStream(OutputStream.nullOutputStream());
+        console.start();
+
+        if ("on".equals(sampling)) {
+            SamplingTurboFilter filter = new SamplingTurboFilter();
+            filter.setContext(context);
+            filter.setMarker(LogMarkers.SAMPLED_READ.getName());
+            filter.setRate(100);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        Appender<ILoggingEvent> root = console;
+        if ("async".equals(appender)) {
+            async = new AsyncAppender() {
+                @Override
+                protected void append(ILoggingEvent event) {
+                    offered.increment();
+                    super.append(event);
+                }
+            };
+            async.setContext(context);
+            async.setName("ASYNC_CONSOLE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setNeverBlock(false);
+            async.setIncludeCallerData(false);
+            // drain the whole queue on stop, so only real drops are counted
+            async.setMaxFlushTime(0);
+            async.addAppender(console);
+            async.start();
+
+            root = async;
+        }
+
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+        context.getLogger("org.springframework.security").setLevel(Level.toLevel(securityLevel));
+
+        securityLogger = LoggerFactory.getLogger("org.springframework.security.web.FilterChainProxy");
+        serviceLogger = LoggerFactory.getLogger("com.application.bookstore.service.BookService");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+
+        if (async != null) {
+            final long dropped = offered.sum() - written.sum();
+            System.out.printf("%nsecurityLevel=%s sampling=%s: async appender dropped %d of %d events (%.1f%%)%n",
+                    securityLevel, sampling, dropped, offered.sum(), 100.0 * dropped / Math.max(1, offered.sum()));
+        }
+    }
+
+    @Benchmark
+    public void request() {
+        securityLogger.trace("Trying to match request against {} ({}/{})", "DefaultSecurityFilterChain", 1, 1);
+        securityLogger.debug("Securing {}", "GET /api/book-store-service/v1/books/42");
+        securityLogger.trace("Invoking {} ({}/{})", "SecurityContextHolderFilter", 3, 12);
+        securityLogger.trace("Invoking {} ({}/{})", "BasicAuthenticationFilter", 7, 12);
+        securityLogger.debug("Set SecurityContextHolder to {}", "UsernamePasswordAuthenticationToken [Principal=user]");
+        securityLogger.trace("Invoking {} ({}/{})", "AuthorizationFilter", 12, 12);
+        securityLogger.trace("Authorizing {}", "SecurityContextHolderAwareRequestWrapper[GET /books/42]");
+        securityLogger.debug("Secured {}", "GET /api/book-store-service/v1/books/42");
+        serviceLogger.info(LogMarkers.SAMPLED_READ, "Fetching book with ID: {}", 42);
+    }
+}
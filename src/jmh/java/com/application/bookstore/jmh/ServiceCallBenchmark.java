@@ -0,0 +1,109 @@
+package com.application.bookstore.jmh;
+
+import com.application.bookstore.BookstoreApplication;
+import com.application.bookstore.dto.AuthorDto;
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.BookPageDto;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.service.AuthorService;
+import com.application.bookstore.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full service calls against an in-memory H2 catalog. Each call runs in a transaction, standing in
+// for the open-in-view session a web request gets, so lazy author/book collections can load.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceCallBenchmark {
+
+    private static final int AUTHORS = 200;
+    private static final int BOOKS = 2_000;
+    private static final int AUTHORS_PER_BOOK = 2;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private AuthorService authorService;
+    private TransactionTemplate transactionTemplate;
+
+    private int authorId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookstoreApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:jmh_book_store_db;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=SA",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.application.bookstore=WARN");
+
+        bookService = context.getBean(BookService.class);
+        authorService = context.getBean(AuthorService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        seed(context.getBean(AuthorRepository.class), context.getBean(BookRepository.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookPageDto bookPage() {
+        return transactionTemplate.execute(status -> bookService.getPage(0, BookService.MAX_PAGE_LIMIT));
+    }
+
+    @Benchmark
+    public List<BookDto> allBooksWithAuthors() {
+        return transactionTemplate.execute(status -> bookService.getAll());
+    }
+
+    @Benchmark
+    public AuthorDto authorWithBooks() {
+        return transactionTemplate.execute(status -> authorService.getById(authorId));
+    }
+
+    private void seed(AuthorRepository authorRepository, BookRepository bookRepository) {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = new Author();
+            author.setFirstName("First" + i);
+            author.setLastName("Last" + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setNationality("British");
+            authors.add(author);
+        }
+        authors = authorRepository.saveAll(authors);
+        authorId = authors.getFirst().getId();
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setPrice(9.99);
+            book.setGenre("Fiction");
+            book.setStock(10);
+            for (int j = 0; j < AUTHORS_PER_BOOK; j++) {
+                book.getAuthors().add(authors.get((i + j) % AUTHORS));
+            }
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+    }
+}
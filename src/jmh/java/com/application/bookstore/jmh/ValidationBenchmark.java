@@ -0,0 +1,70 @@
+package com.application.bookstore.jmh;
+
+import com.application.bookstore.dto.AuthorRequestDto;
+import com.application.bookstore.dto.BookRequestDto;
+import com.application.bookstore.dto.CustomerRequestDto;
+import com.application.bookstore.service.AuthorService;
+import com.application.bookstore.service.BookService;
+import com.application.bookstore.service.CustomerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Request validation hot paths, measured on valid input (the common case).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private BookService bookService;
+    private AuthorService authorService;
+    private CustomerService customerService;
+
+    private BookRequestDto bookRequest;
+    private AuthorRequestDto authorRequest;
+    private CustomerRequestDto customerRequest;
+
+    @Setup
+    public void setUp() {
+        bookService = new BookService(null, null, null, null, null);
+        authorService = new AuthorService(null, null, null);
+        customerService = new CustomerService(null);
+
+        bookRequest = new BookRequestDto();
+        bookRequest.setTitle("1984");
+        bookRequest.setPrice(12.99);
+        bookRequest.setGenre("Dystopian");
+        bookRequest.setStock(50);
+
+        authorRequest = new AuthorRequestDto();
+        authorRequest.setFirstName("George");
+        authorRequest.setLastName("Orwell");
+        authorRequest.setEmail("george.orwell@example.com");
+        authorRequest.setNationality("British");
+
+        customerRequest = new CustomerRequestDto();
+        customerRequest.setFirstName("John");
+        customerRequest.setLastName("Doe");
+        customerRequest.setEmail("john.doe@example.com");
+        customerRequest.setPhoneNumber("+1-555-0100");
+        customerRequest.setAddress("1 Main Street");
+    }
+
+    @Benchmark
+    public void validateBook() {
+        bookService.validateBookRequestDto(bookRequest);
+    }
+
+    @Benchmark
+    public void validateAuthor() {
+        authorService.validateAuthorRequestDto(authorRequest);
+    }
+
+    @Benchmark
+    public void validateCustomer() {
+        customerService.validateCustomerRequestDto(customerRequest);
+    }
+}
@@ -0,0 +1,48 @@
+package com.application.bookstore.load;
+
+import java.util.Arrays;
+
+// Latencies of one operation, kept exactly (not bucketed) so percentiles are exact. Each client
+// owns its recorders, so recording needs no synchronization; they are merged once at the end.
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i]);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    // nearest-rank percentile in milliseconds; sorts the recorded latencies in place
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        Arrays.sort(latencies, 0, count);
+        final int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return latencies[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,348 @@
+package com.application.bookstore.load;
+
+import com.application.bookstore.BookstoreApplication;
+import com.application.bookstore.dto.AppUserRequestDto;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.model.Customer;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.CustomerRepository;
+import com.application.bookstore.service.AppUserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Starts the app on an in-memory H2 database, seeds a catalog, then replays a weighted mix of
+// catalog reads, purchases and logins from concurrent clients and reports requests/sec and
+// p50/p95/p99 latency per operation. Needs nothing but the JDK and the Maven repository, so it
+// runs offline on a single box:
+//   mvn -Pload test-compile exec:exec -Dload.args="clients=200 duration=PT1M"
+public final class LoadHarness {
+
+    private static final String BASE_PATH = "/api/book-store-service/v1";
+    private static final String USERNAME = "load_user";
+    private static final String PASSWORD = "load_password";
+    private static final int STOCK = 1_000_000;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<Integer> bookIds;
+    private final List<Integer> customerIds;
+    private final Operation[] schedule;
+
+    private volatile boolean aborted;
+
+    private LoadHarness(LoadOptions options, HttpClient client, int port, List<Integer> bookIds, List<Integer> customerIds) {
+        this.options = options;
+        this.client = client;
+        this.baseUrl = "http://localhost:" + port + BASE_PATH;
+        this.bookIds = bookIds;
+        this.customerIds = customerIds;
+        this.schedule = schedule(options.mix());
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadOptions options = LoadOptions.parse(args);
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load_harness;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=SA",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.application.bookstore=WARN"));
+        if (options.virtualThreads()) {
+            appArgs.add("--spring.profiles.active=virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookstoreApplication.class)
+                .run(appArgs.toArray(String[]::new));
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            System.out.printf("Seeding %d books, %d authors, %d customers%n", options.books(), options.authors(), options.customers());
+            final List<Integer> bookIds = seedCatalog(context, options);
+            final List<Integer> customerIds = seedCustomers(context, options);
+            seedUser(context);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(clientThreads)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            LoadHarness harness = new LoadHarness(options, client, port, bookIds, customerIds);
+            final Map<Operation, LatencyRecorder> results = harness.run(clientThreads);
+
+            harness.report(results);
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Drive The Traffic Mix --------------------
+    //--------------------------------------------------------------
+    private Map<Operation, LatencyRecorder> run(ExecutorService clientThreads) throws InterruptedException {
+        final long measureFrom = System.nanoTime() + options.warmup().toNanos();
+        final long measureUntil = measureFrom + options.duration().toNanos();
+
+        System.out.printf("Driving %d clients: %s warmup, %s measured, mix %s%n",
+                options.clients(), options.warmup(), options.duration(), options.mix());
+
+        List<Map<Operation, LatencyRecorder>> perClient = new ArrayList<>();
+        List<Future<?>> clients = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(options.clients());
+
+        for (int i = 0; i < options.clients(); i++) {
+            Map<Operation, LatencyRecorder> recorders = recorders();
+            perClient.add(recorders);
+            clients.add(clientThreads.submit(() -> {
+                try {
+                    runClient(recorders, measureFrom, measureUntil);
+                } catch (RuntimeException e) {
+                    // stops the other clients; the run fails below
+                    aborted = true;
+                    throw e;
+                } finally {
+                    done.countDown();
+                }
+            }));
+        }
+        done.await();
+
+        // a client that died, e.g. on its first login, sent no traffic and recorded no errors,
+        // so its absence would silently flatter the results
+        for (Future<?> client : clients) {
+            try {
+                client.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("load client failed, results discarded", e.getCause());
+            }
+        }
+
+        Map<Operation, LatencyRecorder> merged = recorders();
+        for (Map<Operation, LatencyRecorder> recorders : perClient) {
+            recorders.forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+        }
+        return merged;
+    }
+
+    private void runClient(Map<Operation, LatencyRecorder> recorders, long measureFrom, long measureUntil) {
+        // each client logs in once for its purchases; that login is not measured
+        String token = login();
+
+        long now = System.nanoTime();
+        while (now < measureUntil && !aborted) {
+            final Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+            final long startedAt = now;
+
+            final String response = send(operation, token);
+
+            now = System.nanoTime();
+            if (startedAt >= measureFrom) {
+                if (response != null) {
+                    recorders.get(operation).record(now - startedAt);
+                } else {
+                    recorders.get(operation).recordError();
+                }
+            }
+            if (operation == Operation.LOGIN && response != null) {
+                token = accessToken(response);
+            }
+        }
+    }
+
+    // returns the response body of a 2xx response, null for anything else
+    private String send(Operation operation, String token) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request = switch (operation) {
+            case BOOKS -> get("/books?limit=20&afterId=" + bookIds.get(random.nextInt(bookIds.size())));
+            case BOOK -> get("/books/" + bookIds.get(random.nextInt(bookIds.size())));
+            case PURCHASE -> post("/purchase", "{\"customerId\":" + customerIds.get(random.nextInt(customerIds.size()))
+                    + ",\"bookId\":" + bookIds.get(random.nextInt(bookIds.size())) + "}", token);
+            case LOGIN -> post("/auth/login", loginBody(), null);
+        };
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() / 100 == 2 ? response.body() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String login() {
+        final String response = send(Operation.LOGIN, null);
+        if (response == null) {
+            throw new IllegalStateException("login of the seeded user failed");
+        }
+        return accessToken(response);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static String loginBody() {
+        return "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String accessToken(String loginResponse) {
+        try {
+            return objectMapper.readTree(loginResponse).get("accessToken").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("unexpected login response: " + loginResponse, e);
+        }
+    }
+
+    // operations repeated by weight, so a uniform pick follows the mix
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> schedule = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        return schedule.toArray(Operation[]::new);
+    }
+
+    private static Map<Operation, LatencyRecorder> recorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Report -----------------------------------
+    //--------------------------------------------------------------
+    private void report(Map<Operation, LatencyRecorder> results) throws IOException {
+        final double seconds = options.duration().toNanos() / 1_000_000_000.0;
+
+        LatencyRecorder total = new LatencyRecorder();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Operation operation : options.mix().keySet()) {
+            rows.add(row(operation.getLabel(), results.get(operation), seconds));
+            total.merge(results.get(operation));
+        }
+        rows.add(row("TOTAL", total, seconds));
+
+        System.out.printf("%n%-22s %9s %7s %9s %9s %9s %9s%n", "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", row.get("operation"), row.get("requests"),
+                    row.get("errors"), row.get("requestsPerSecond"), row.get("p50Millis"), row.get("p95Millis"), row.get("p99Millis"));
+        }
+
+        if (!options.result().isBlank()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("options", options);
+            json.put("results", rows);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(options.result()), json);
+            System.out.printf("%nReport written to %s%n", options.result());
+        }
+    }
+
+    private static Map<String, Object> row(String operation, LatencyRecorder recorder, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("operation", operation);
+        row.put("requests", recorder.count());
+        row.put("errors", recorder.errors());
+        row.put("requestsPerSecond", recorder.count() / seconds);
+        row.put("p50Millis", recorder.percentileMillis(50));
+        row.put("p95Millis", recorder.percentileMillis(95));
+        row.put("p99Millis", recorder.percentileMillis(99));
+        return row;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Seed Dataset -----------------------------
+    //--------------------------------------------------------------
+    private static List<Integer> seedCatalog(ConfigurableApplicationContext context, LoadOptions options) {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < options.authors(); i++) {
+            Author author = new Author();
+            author.setFirstName("First" + i);
+            author.setLastName("Last" + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setNationality("British");
+            authors.add(author);
+        }
+        authors = context.getBean(AuthorRepository.class).saveAll(authors);
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < options.books(); i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setPrice(9.99);
+            book.setGenre(i % 2 == 0 ? "Fiction" : "History");
+            book.setStock(STOCK);
+            book.getAuthors().add(authors.get(i % authors.size()));
+            books.add(book);
+        }
+        return context.getBean(BookRepository.class).saveAll(books).stream().map(Book::getId).toList();
+    }
+
+    private static List<Integer> seedCustomers(ConfigurableApplicationContext context, LoadOptions options) {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < options.customers(); i++) {
+            Customer customer = new Customer();
+            customer.setFirstName("First" + i);
+            customer.setLastName("Last" + i);
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setPhoneNumber("0123456789");
+            customer.setAddress("Nugegoda, Colombo");
+            customers.add(customer);
+        }
+        return context.getBean(CustomerRepository.class).saveAll(customers).stream().map(Customer::getId).toList();
+    }
+
+    private static void seedUser(ConfigurableApplicationContext context) {
+        AppUserRequestDto user = new AppUserRequestDto();
+        user.setUsername(USERNAME);
+        user.setPassword(PASSWORD);
+        user.setRoles("USER");
+        context.getBean(AppUserService.class).create(user);
+    }
+}
@@ -0,0 +1,58 @@
+package com.application.bookstore.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line of the harness, name=value each; every option has a default so a bare run works
+record LoadOptions(int clients, Duration warmup, Duration duration, Map<Operation, Integer> mix,
+                   int books, int authors, int customers, boolean virtualThreads, String result) {
+
+    static final String USAGE = """
+            clients=50            concurrent clients, each sending its next request as soon as the last returns
+            warmup=PT10S          traffic sent before measuring (ISO-8601 duration)
+            duration=PT30S        measured traffic
+            mix=books:40,book:40,purchase:15,login:5
+                                  relative weights of GET /books, GET /books/{id}, POST /purchase, POST /auth/login
+            books=2000 authors=200 customers=500
+                                  size of the seeded catalog
+            virtual-threads=false run the app with the virtual-threads profile
+            result=               also write the report as JSON to this file""";
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.contains("=")) {
+                throw new IllegalArgumentException("expected name=value but got '" + arg + "'\n" + USAGE);
+            }
+            values.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        return new LoadOptions(
+                Integer.parseInt(values.getOrDefault("clients", "50")),
+                Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                Duration.parse(values.getOrDefault("duration", "PT30S")),
+                parseMix(values.getOrDefault("mix", "books:40,book:40,purchase:15,login:5")),
+                Integer.parseInt(values.getOrDefault("books", "2000")),
+                Integer.parseInt(values.getOrDefault("authors", "200")),
+                Integer.parseInt(values.getOrDefault("customers", "500")),
+                Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false")),
+                values.getOrDefault("result", ""));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split(":");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("expected operation:weight in mix but got '" + entry + "'");
+            }
+            weights.put(Operation.fromKey(keyAndWeight[0]), Integer.parseInt(keyAndWeight[1]));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,35 @@
+package com.application.bookstore.load;
+
+// One kind of request in the replayed traffic mix, named as it is given in the mix option
+enum Operation {
+
+    BOOKS("books", "GET /books?limit=20"),
+    BOOK("book", "GET /books/{id}"),
+    PURCHASE("purchase", "POST /purchase"),
+    LOGIN("login", "POST /auth/login");
+
+    private final String key;
+    private final String label;
+
+    Operation(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("unknown operation '" + key + "', expected one of books, book, purchase, login");
+    }
+}
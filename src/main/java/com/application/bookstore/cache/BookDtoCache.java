@@ -0,0 +1,77 @@
+package com.application.bookstore.cache;
+
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.CacheStatsDto;
+import com.application.bookstore.event.BookChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+// Bounded read-through cache of built BookDto objects keyed by book id: LRU eviction at
+// max-size, expiry after ttl, and invalidation whenever a BookChangedEvent is published.
+// Each entry keeps the ETag of the book it was loaded at. The event arrives only after the
+// change committed, so until then a reader that already sees the new ETag must not get the
+// cached body; an entry whose ETag differs from the caller's is reloaded instead.
+@Component
+public class BookDtoCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookDtoCache.class);
+
+    public static final String NAME = "books";
+
+    private final BoundedTtlCache<Integer, VersionedBook> cache;
+
+    @Autowired
+    public BookDtoCache(@Value("${bookstore.cache.books.max-size:10000}") int maxSize,
+                        @Value("${bookstore.cache.books.ttl:PT5M}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    BookDtoCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.cache = new BoundedTtlCache<>(NAME, maxSize, ttl, nanoClock);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Or Load BookDto ----------------------
+    //--------------------------------------------------------------
+    // etag is the current version of the book, read before loading, so the loaded body is at
+    // least that new; a body a commit newer only makes the next revalidation miss
+    public BookDto getOrLoad(int bookId, String etag, IntFunction<BookDto> loader) {
+        return cache.getOrLoad(bookId, cached -> cached.etag().equals(etag),
+                id -> new VersionedBook(etag, loader.apply(id))).book();
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Invalidate Changed Book ------------------
+    //--------------------------------------------------------------
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        logger.debug("Invalidating cached book with ID: {}", event.getBookId());
+        invalidate(event.getBookId());
+    }
+
+    public void invalidate(int bookId) {
+        cache.invalidate(bookId);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Cache Statistics -------------------------
+    //--------------------------------------------------------------
+    public CacheStatsDto getStats() {
+        return cache.getStats();
+    }
+
+    private record VersionedBook(String etag, BookDto book) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.application.bookstore.cache;
+
+import com.application.bookstore.dto.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+// In-process cache shared by BookDtoCache and AuthenticationCache: LRU eviction at maxSize,
+// expiry ttl after an entry was stored, hit/miss/eviction statistics. Every invalidation bumps a
+// generation and is remembered for a while; a value loaded across an invalidation that covers its
+// key (or, for invalidateIf, the value itself) is not stored, so a load racing a change cannot put
+// the old value back, while loads of other keys still are. Invalidations are remembered for ttl,
+// at most maxSize of them; a load that started before a forgotten one is not stored either. All
+// access is synchronized on the cache.
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    // access-ordered, so iteration order is least-recently-used first
+    private final Map<K, Entry<V>> entries;
+
+    private long generation;
+
+    // invalidations a load in progress may have raced, oldest first
+    private final Deque<Invalidation<K, V>> invalidations = new ArrayDeque<>();
+    // a load that read a generation below this one raced an invalidation no longer remembered
+    private long forgottenGeneration;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedTtlCache(String name, int maxSize, Duration ttl, LongSupplier nanoClock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get / Put --------------------------------
+    //--------------------------------------------------------------
+    // null on a miss or an expired entry
+    public V get(K key) {
+        return get(key, value -> true);
+    }
+
+    // null on a miss, an expired entry or one the caller can no longer use, which is dropped
+    public synchronized V get(K key, Predicate<V> usable) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (nanoClock.getAsLong() - entry.storedAt() >= ttlNanos) {
+                entries.remove(key);
+                evictions++;
+            } else if (usable.test(entry.value())) {
+                hits++;
+                return entry.value();
+            } else {
+                entries.remove(key);
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    // read before loading a value that is put afterwards
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // stores the value only if nothing invalidated it since generation was read
+    public synchronized void put(K key, V value, long loadGeneration) {
+        if (value == null || loadGeneration < forgottenGeneration) {
+            return;
+        }
+        for (Iterator<Invalidation<K, V>> newestFirst = invalidations.descendingIterator(); newestFirst.hasNext(); ) {
+            final Invalidation<K, V> invalidation = newestFirst.next();
+            if (invalidation.generation() <= loadGeneration) {
+                break;
+            }
+            if (invalidation.covers(key, value)) {
+                return;
+            }
+        }
+        entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Or Load ------------------------------
+    //--------------------------------------------------------------
+    // the loader runs outside the lock, so concurrent misses on one key may each load it
+    public V getOrLoad(K key, Function<K, V> loader) {
+        return getOrLoad(key, value -> true, loader);
+    }
+
+    public V getOrLoad(K key, Predicate<V> usable, Function<K, V> loader) {
+        final long loadGeneration;
+        synchronized (this) {
+            final V cached = get(key, usable);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+
+        final V value = loader.apply(key);
+        put(key, value, loadGeneration);
+        return value;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Invalidate -------------------------------
+    //--------------------------------------------------------------
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        remember(key, null);
+    }
+
+    public synchronized void invalidateIf(Predicate<V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value()));
+        remember(null, predicate);
+    }
+
+    // covers every load in progress, so nothing before it needs remembering
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        invalidations.clear();
+        forgottenGeneration = generation;
+    }
+
+    private void remember(K key, Predicate<V> predicate) {
+        generation++;
+        final long now = nanoClock.getAsLong();
+        invalidations.addLast(new Invalidation<>(generation, now, key, predicate));
+        while (!invalidations.isEmpty()
+                && (invalidations.size() > maxSize || now - invalidations.peekFirst().at() >= ttlNanos)) {
+            forgottenGeneration = invalidations.removeFirst().generation();
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Cache Statistics -------------------------
+    //--------------------------------------------------------------
+    public synchronized CacheStatsDto getStats() {
+        CacheStatsDto result = new CacheStatsDto();
+        result.setName(name);
+        result.setSize(entries.size());
+        result.setMaxSize(maxSize);
+        result.setHits(hits);
+        result.setMisses(misses);
+        result.setEvictions(evictions);
+
+        final long requests = hits + misses;
+        result.setHitRatio(requests == 0 ? 0.0 : (double) hits / requests);
+
+        return result;
+    }
+
+    private record Entry<V>(V value, long storedAt) {
+    }
+
+    // of one key, or of the values matching predicate
+    private record Invalidation<K, V>(long generation, long at, K key, Predicate<V> predicate) {
+
+        boolean covers(K loadedKey, V loadedValue) {
+            return predicate == null ? Objects.equals(key, loadedKey) : predicate.test(loadedValue);
+        }
+    }
+}
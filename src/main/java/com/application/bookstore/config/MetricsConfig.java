@@ -0,0 +1,33 @@
+package com.application.bookstore.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Times every public method of the @Timed services as bookstore.service{class, method, exception}.
+// Repository calls (spring.data.repository.invocations), HTTP requests and the Hikari pool are
+// instrumented by Spring Boot itself; everything is scraped from /actuator/prometheus.
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "bookstore.service";
+
+    // pure mapping/validation helpers that other services call once per row (import, export);
+    // timing those would cost more than the work and bury the calls that do I/O
+    private static final Set<String> UNTIMED_METHODS = Set.of("toDto", "toEntity");
+    private static final String UNTIMED_METHOD_PREFIX = "validate";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        final Predicate<ProceedingJoinPoint> skip = joinPoint -> {
+            final String method = joinPoint.getSignature().getName();
+            return UNTIMED_METHODS.contains(method) || method.startsWith(UNTIMED_METHOD_PREFIX);
+        };
+        return new TimedAspect(meterRegistry, skip);
+    }
+}
@@ -0,0 +1,10 @@
+package com.application.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs, e.g. the periodic facet count reconciliation in BookSearchIndex
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,14 +1,25 @@
 package com.application.bookstore.config;
 
+import com.application.bookstore.security.AuthenticationCache;
+import com.application.bookstore.security.BearerTokenAuthenticationFilter;
+import com.application.bookstore.security.CachingAuthenticationProvider;
+import com.application.bookstore.security.JwtTokenService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 
 @Configuration
@@ -16,26 +27,50 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private static final String[] H2_CONSOLE_WHITELIST = {"/h2-console/**"};
+    private static final String[] ACTUATOR_WHITELIST = {"/actuator/health"};
     private static final String[] SWAGGER_UI_WHITELIST = {"/swagger-ui.html", "/swagger-ui/**", "/webjars/**", "/swagger-resources/**", "/v3/api-docs/**"};
 
     @Bean
-    SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http, JwtTokenService jwtTokenService) throws Exception {
 
         http.csrf().disable();
         http.cors().disable();
 
         http.authorizeHttpRequests(requests -> requests
+                .requestMatchers(HttpMethod.POST, "/api/book-store-service/v1/auth/login").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/book-store-service/v1/books").permitAll()
+                // before {id}, which would also match "export"
+                .requestMatchers(HttpMethod.GET, "/api/book-store-service/v1/books/export").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/book-store-service/v1/books/{id}").permitAll()
                 .requestMatchers(SWAGGER_UI_WHITELIST).permitAll()
                 .requestMatchers(H2_CONSOLE_WHITELIST).permitAll()
+                .requestMatchers(ACTUATOR_WHITELIST).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated());
 
+        // every request carries its own credentials: a bearer token or, as before, HTTP Basic
+        http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        http.addFilterBefore(new BearerTokenAuthenticationFilter(jwtTokenService), BasicAuthenticationFilter.class);
         http.httpBasic(Customizer.withDefaults());
         return http.build();
     }
 
 
+    // bcrypt check against the users table, fronted by a short-lived cache of successful logins
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                                         AuthenticationCache authenticationCache) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider(userDetailsService);
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        return new CachingAuthenticationProvider(daoAuthenticationProvider, authenticationCache);
+    }
+
+    // used by the login endpoint
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationProvider authenticationProvider) {
+        return new ProviderManager(authenticationProvider);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
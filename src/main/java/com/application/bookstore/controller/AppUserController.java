@@ -12,6 +12,7 @@ import java.util.List;
 
 @RestController
 @SecurityRequirement(name = "basicAuth")
+@SecurityRequirement(name = "bearerAuth")
 @RequestMapping("/api/book-store-service/v1/users")
 public class AppUserController {
 
@@ -0,0 +1,29 @@
+package com.application.bookstore.controller;
+
+import com.application.bookstore.dto.LoginRequestDto;
+import com.application.bookstore.dto.TokenDto;
+import com.application.bookstore.service.AuthService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/book-store-service/v1/auth")
+public class AuthController {
+
+    private final AuthService authService;
+
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    //------------------- Login (Issue Bearer Token) ------------------------
+    // Tokens are revoked when their user is changed or deleted, but only on the instance that made
+    // the change: behind a load balancer a revoked token is still accepted by the other instances
+    // until it expires (bookstore.security.token.ttl, 15 minutes by default).
+    @PostMapping("/login")
+    public ResponseEntity<TokenDto> login(@RequestBody LoginRequestDto loginRequestDto) {
+        final TokenDto response = authService.login(loginRequestDto);
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -4,16 +4,20 @@ import com.application.bookstore.dto.AuthorDto;
 import com.application.bookstore.dto.AuthorRequestDto;
 import com.application.bookstore.dto.AuthorWithBookRequestDto;
 import com.application.bookstore.service.AuthorService;
+import com.application.bookstore.service.ResourceVersion;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/book-store-service/v1/authors")
 @SecurityRequirement(name = "basicAuth")
+@SecurityRequirement(name = "bearerAuth")
 public class AuthorController {
 
     private final AuthorService authorService;
@@ -25,22 +29,33 @@ public class AuthorController {
 
     //------------------- Get All Authors ------------------------
         @GetMapping
-    public ResponseEntity<List<AuthorDto>> getAll() {
+    public ResponseEntity<List<AuthorDto>> getAll(WebRequest request) {
+        final ResourceVersion version = authorService.getCatalogVersion();
+        if (request.checkNotModified(version.etag())) {
+            return null; // 304, ETag already set on the response
+        }
+
         final List<AuthorDto> response = authorService.getAll();
         if (response.isEmpty()) {
 
             return ResponseEntity.noContent().build();
         } else {
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
         }
 
     }
 
     //------------------- Get Single Author By Id ------------------------
     @GetMapping("/{id}")
-    public ResponseEntity<AuthorDto> getById(@PathVariable int id) {
+    public ResponseEntity<AuthorDto> getById(@PathVariable int id, WebRequest request) {
+        // versions are checked before the AuthorDto is loaded and mapped
+        final ResourceVersion version = authorService.getVersion(id);
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null; // 304, ETag and Last-Modified already set on the response
+        }
+
         final AuthorDto response = authorService.getById(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
 
     }
 
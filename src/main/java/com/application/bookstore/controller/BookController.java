@@ -1,46 +1,139 @@
 package com.application.bookstore.controller;
 
 import com.application.bookstore.dto.*;
+import com.application.bookstore.service.BookExportService;
+import com.application.bookstore.service.BookImportService;
+import com.application.bookstore.service.BookSearchService;
 import com.application.bookstore.service.BookService;
+import com.application.bookstore.service.ResourceVersion;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/book-store-service/v1/books")
 @SecurityRequirement(name = "basicAuth")
+@SecurityRequirement(name = "bearerAuth")
 public class BookController {
 
-    private final BookService bookService;
+    public static final String TEXT_CSV_VALUE = "text/csv";
 
-    public BookController(BookService bookService) {
+    private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final BookSearchService bookSearchService;
+    private final Duration exportRequestTimeout;
+
+    public BookController(BookService bookService, BookImportService bookImportService,
+                          BookExportService bookExportService, BookSearchService bookSearchService,
+                          @Value("${bookstore.export.request-timeout:30m}") Duration exportRequestTimeout) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
+        this.bookSearchService = bookSearchService;
+        this.exportRequestTimeout = exportRequestTimeout;
     }
 
     //------------------- Get All Books ------------------------
     @GetMapping
-    public ResponseEntity<List<BookDto>> getAll() {
+    public ResponseEntity<List<BookDto>> getAll(WebRequest request) {
+        final ResourceVersion version = bookService.getCatalogVersion();
+        if (request.checkNotModified(version.etag())) {
+            return null; // 304, ETag already set on the response
+        }
+
         final List<BookDto> response = bookService.getAll();
         if (response.isEmpty()) {
 
             return ResponseEntity.noContent().build(); // Better than returning null
         } else {
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
         }
 
     }
 
+    //------------------- Get Page Of Books (Keyset) ------------------------
+    @GetMapping(params = "limit")
+    public ResponseEntity<BookPageDto> getPage(@RequestParam(defaultValue = "0") int afterId, @RequestParam int limit,
+                                               WebRequest request) {
+        final ResourceVersion version = bookService.getPageVersion(afterId, limit);
+        if (request.checkNotModified(version.etag())) {
+            return null;
+        }
+
+        final BookPageDto response = bookService.getPage(afterId, limit);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
+    }
+
+    //------------------- Filter And Sort Books ------------------------
+    @GetMapping("/filter")
+    public ResponseEntity<BookFilterResultDto> filter(BookFilterDto filter) {
+        final BookFilterResultDto response = bookService.filter(filter);
+        return ResponseEntity.ok(response);
+    }
+
+    //------------------- Search Books (Full Text) ------------------------
+    @GetMapping("/search")
+    public ResponseEntity<BookSearchResultDto> search(@RequestParam String q, @RequestParam(defaultValue = "0") int offset,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        final BookSearchResultDto response = bookSearchService.search(q, offset, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    //------------------- Autocomplete Titles And Authors ------------------------
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<BookSuggestionDto>> autocomplete(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        final List<BookSuggestionDto> response = bookSearchService.autocomplete(q, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    //------------------- Catalog Facet Counts ------------------------
+    @GetMapping("/facets")
+    public ResponseEntity<BookFacetsDto> getFacets() {
+        final BookFacetsDto response = bookSearchService.getFacets();
+        return ResponseEntity.ok(response);
+    }
+
+    //------------------- Export All Books (NDJSON) ------------------------
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(HttpServletRequest request) {
+        // the whole catalog may take long to stream; only this request gets the long async timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportRequestTimeout.toMillis());
+
+        final StreamingResponseBody response = bookExportService::exportNdjson;
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(response);
+    }
+
 
     //------------------- Get Single Book By Id ------------------------
     @GetMapping("/{id}")
-    public ResponseEntity<BookDto> getById(@PathVariable int id) {
-        final BookDto response = bookService.getById(id);
+    public ResponseEntity<BookDto> getById(@PathVariable int id, WebRequest request) {
+        // versions are checked before the BookDto is loaded and mapped
+        final ResourceVersion version = bookService.getVersion(id);
+        if (request.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null; // 304, ETag and Last-Modified already set on the response
+        }
 
-        return ResponseEntity.ok(response);
+        final BookDto response = bookService.getById(id, version);
+
+        // no-cache instead of Spring Security's default no-store: clients may keep the body and revalidate it
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
 
     }
 
@@ -54,6 +147,25 @@ public class BookController {
     }
 
 
+    //------------------- Bulk Import Books (CSV) ------------------------
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookImportResultDto> importCsv(InputStream body) throws IOException {
+        final BookImportResultDto response = bookImportService.importCsv(body);
+
+        return ResponseEntity.ok(response);
+    }
+
+    //------------------- Bulk Import Books (NDJSON) ------------------------
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookImportResultDto> importNdjson(InputStream body) throws IOException {
+        final BookImportResultDto response = bookImportService.importNdjson(body);
+
+        return ResponseEntity.ok(response);
+    }
+
+
     //------------------- Create New Book With New Author ------------------------
     @PostMapping("/with-author")
     public ResponseEntity<BookDto> createBookWithAuthor(@RequestBody BookWithNewAuthorDto book) {
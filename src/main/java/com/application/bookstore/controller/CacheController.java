@@ -0,0 +1,49 @@
+package com.application.bookstore.controller;
+
+import com.application.bookstore.cache.BookDtoCache;
+import com.application.bookstore.dto.CacheStatsDto;
+import com.application.bookstore.security.AuthenticationCache;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/book-store-service/v1/caches")
+@SecurityRequirement(name = "basicAuth")
+@SecurityRequirement(name = "bearerAuth")
+public class CacheController {
+
+    private final BookDtoCache bookDtoCache;
+    private final AuthenticationCache authenticationCache;
+
+    public CacheController(BookDtoCache bookDtoCache, AuthenticationCache authenticationCache) {
+        this.bookDtoCache = bookDtoCache;
+        this.authenticationCache = authenticationCache;
+    }
+
+    //------------------- Get Cache Statistics ------------------------
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsDto>> getStats() {
+        return ResponseEntity.ok(List.of(bookDtoCache.getStats(), authenticationCache.getStats()));
+    }
+
+    //------------------- Clear Book Cache ------------------------
+    @DeleteMapping("/books")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> clearBooks() {
+        bookDtoCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    //------------------- Clear Authentication Cache ------------------------
+    @DeleteMapping("/authentication")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> clearAuthentication() {
+        authenticationCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -15,6 +15,7 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/book-store-service/v1/customers")
 @SecurityRequirement(name = "basicAuth")
+@SecurityRequirement(name = "bearerAuth")
 public class CustomerController {
 
     private final CustomerService customerService;
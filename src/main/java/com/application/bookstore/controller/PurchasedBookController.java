@@ -1,6 +1,7 @@
 package com.application.bookstore.controller;
 
 import com.application.bookstore.dto.PurchasedBookDto;
+import com.application.bookstore.dto.PurchasedBookRequestDto;
 import com.application.bookstore.service.PurchasedBookService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.springframework.http.HttpStatus;
@@ -12,6 +13,7 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/book-store-service/v1/purchase")
 @SecurityRequirement(name = "basicAuth")
+@SecurityRequirement(name = "bearerAuth")
 public class PurchasedBookController {
 
     private final PurchasedBookService purchaseService;
@@ -30,6 +32,15 @@ public class PurchasedBookController {
                 .body(created);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<PurchasedBookDto>> purchaseBooks(@RequestBody PurchasedBookRequestDto dto) {
+        List<PurchasedBookDto> created = purchaseService.createBatch(dto);
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(created);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PurchasedBookDto> getPurchase(@PathVariable int id) {
         return ResponseEntity.ok(purchaseService.getById(id));
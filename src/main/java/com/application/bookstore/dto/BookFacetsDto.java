@@ -0,0 +1,44 @@
+package com.application.bookstore.dto;
+
+import java.util.List;
+
+public class BookFacetsDto {
+
+    private long total;
+    private long inStock;
+    private List<FacetCountDto> genres;
+    private List<FacetCountDto> priceRanges;
+
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(long inStock) {
+        this.inStock = inStock;
+    }
+
+    public List<FacetCountDto> getGenres() {
+        return genres;
+    }
+
+    public void setGenres(List<FacetCountDto> genres) {
+        this.genres = genres;
+    }
+
+    public List<FacetCountDto> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public void setPriceRanges(List<FacetCountDto> priceRanges) {
+        this.priceRanges = priceRanges;
+    }
+}
@@ -0,0 +1,36 @@
+package com.application.bookstore.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookImportResultDto {
+
+    private int imported;
+    private int failed;
+    private List<BookImportErrorDto> errors = new ArrayList<>();
+
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BookImportErrorDto> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BookImportErrorDto> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,17 @@
+package com.application.bookstore.dto;
+
+import java.util.List;
+
+public class BookImportRowDto extends BookRequestDto {
+
+    private List<String> authorEmails;
+
+
+    public List<String> getAuthorEmails() {
+        return authorEmails;
+    }
+
+    public void setAuthorEmails(List<String> authorEmails) {
+        this.authorEmails = authorEmails;
+    }
+}
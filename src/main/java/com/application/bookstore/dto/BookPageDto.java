@@ -0,0 +1,26 @@
+package com.application.bookstore.dto;
+
+import java.util.List;
+
+public class BookPageDto {
+
+    private List<BookDto> books;
+    private Integer nextCursor;
+
+
+    public List<BookDto> getBooks() {
+        return books;
+    }
+
+    public void setBooks(List<BookDto> books) {
+        this.books = books;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
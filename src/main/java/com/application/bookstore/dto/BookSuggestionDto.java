@@ -0,0 +1,33 @@
+package com.application.bookstore.dto;
+
+public class BookSuggestionDto {
+
+    private String text;
+    private String type;
+    private int books;
+
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getBooks() {
+        return books;
+    }
+
+    public void setBooks(int books) {
+        this.books = books;
+    }
+}
@@ -0,0 +1,32 @@
+package com.application.bookstore.dto;
+
+public class FacetCountDto {
+
+    private String value;
+    private long books;
+
+    public FacetCountDto() {
+    }
+
+    public FacetCountDto(String value, long books) {
+        this.value = value;
+        this.books = books;
+    }
+
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public long getBooks() {
+        return books;
+    }
+
+    public void setBooks(long books) {
+        this.books = books;
+    }
+}
@@ -0,0 +1,24 @@
+package com.application.bookstore.dto;
+
+public class LoginRequestDto {
+
+    private String username;
+    private String password;
+
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
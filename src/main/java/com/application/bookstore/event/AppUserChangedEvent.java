@@ -0,0 +1,23 @@
+package com.application.bookstore.event;
+
+// Published when a user's credentials or roles change or the user is deleted, so anything that
+// trusts earlier authentications of that username can drop them.
+public class AppUserChangedEvent {
+
+    private final String username;
+
+    public AppUserChangedEvent(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return "AppUserChangedEvent{" +
+                "username='" + username + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+package com.application.bookstore.event;
+
+public class BookChangedEvent {
+
+    public enum Type {
+        SAVED,
+        // only the stock (and with it the version) changed, as in a purchase
+        STOCK_CHANGED,
+        DELETED
+    }
+
+    private final int bookId;
+    private final Type type;
+
+    public BookChangedEvent(int bookId, Type type) {
+        this.bookId = bookId;
+        this.type = type;
+    }
+
+    public static BookChangedEvent saved(int bookId) {
+        return new BookChangedEvent(bookId, Type.SAVED);
+    }
+
+    public static BookChangedEvent stockChanged(int bookId) {
+        return new BookChangedEvent(bookId, Type.STOCK_CHANGED);
+    }
+
+    public static BookChangedEvent deleted(int bookId) {
+        return new BookChangedEvent(bookId, Type.DELETED);
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "BookChangedEvent{" +
+                "bookId=" + bookId +
+                ", type=" + type +
+                '}';
+    }
+}
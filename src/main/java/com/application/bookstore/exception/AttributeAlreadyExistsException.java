@@ -11,4 +11,9 @@ public class AttributeAlreadyExistsException extends RuntimeException {
         super(entityName + " already exists with " + attributeName + ": " + attributeValue);
         logger.warn("Validation failed with duplicate: {}", attributeName);
     }
+
+    public AttributeAlreadyExistsException(String entityName, String attributeName) {
+        super(entityName + " already exists with this " + attributeName);
+        logger.warn("Validation failed with duplicate: {}", attributeName);
+    }
 }
@@ -1,8 +1,11 @@
 package com.application.bookstore.exception;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -20,6 +23,10 @@ public class GlobalExceptionHandler {
     private static final String TITLE_ENTITY_NOT_FOUND = "Entity not found";
     private static final String TITLE_VALIDATION_ERROR = "Validation Error";
     private static final String TITLE_EMAIL_EXISTS = "Attribute Already Exists";
+    private static final String TITLE_DATA_INTEGRITY = "Data Integrity Violation";
+    private static final String TITLE_OUT_OF_STOCK = "Out Of Stock";
+    private static final String TITLE_CONCURRENT_UPDATE = "Concurrent Update";
+    private static final String TITLE_UNAUTHORIZED = "Unauthorized";
     private static final String SEVERITY_ERROR = "ERROR";
 
     @ExceptionHandler(EntityNotFoundException.class)
@@ -57,4 +64,59 @@ public class GlobalExceptionHandler {
 
         return problemDetail;
     }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        // a unique constraint hit by a write that did not translate it itself, e.g. an update
+        final AttributeAlreadyExistsException alreadyExists = UniqueConstraintViolations.translate(e);
+        if (alreadyExists != null) {
+            return handleEmailAlreadyExistsException(alreadyExists);
+        }
+
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+
+        problemDetail.setTitle(TITLE_DATA_INTEGRITY);
+        problemDetail.setProperty(PROPERTY_TIMESTAMP, Instant.now().toString());
+        problemDetail.setProperty(PROPERTY_REASON, "Request conflicts with existing data");
+        problemDetail.setProperty(PROPERTY_SEVERITY, SEVERITY_ERROR);
+
+        return problemDetail;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        // the entity's @Version moved on between our read and our write
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+
+        problemDetail.setTitle(TITLE_CONCURRENT_UPDATE);
+        problemDetail.setProperty(PROPERTY_TIMESTAMP, Instant.now().toString());
+        problemDetail.setProperty(PROPERTY_REASON, "Resource was modified concurrently, retry the request");
+        problemDetail.setProperty(PROPERTY_SEVERITY, SEVERITY_ERROR);
+
+        return problemDetail;
+    }
+
+    @ExceptionHandler(OutOfStockException.class)
+    public ProblemDetail handleOutOfStockException(OutOfStockException e) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+
+        problemDetail.setTitle(TITLE_OUT_OF_STOCK);
+        problemDetail.setProperty(PROPERTY_TIMESTAMP, Instant.now().toString());
+        problemDetail.setProperty(PROPERTY_REASON, e.getMessage());
+        problemDetail.setProperty(PROPERTY_SEVERITY, SEVERITY_ERROR);
+
+        return problemDetail;
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ProblemDetail handleAuthenticationException(AuthenticationException e) {
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.UNAUTHORIZED);
+
+        problemDetail.setTitle(TITLE_UNAUTHORIZED);
+        problemDetail.setProperty(PROPERTY_TIMESTAMP, Instant.now().toString());
+        problemDetail.setProperty(PROPERTY_REASON, e.getMessage());
+        problemDetail.setProperty(PROPERTY_SEVERITY, SEVERITY_ERROR);
+
+        return problemDetail;
+    }
 }
@@ -0,0 +1,14 @@
+package com.application.bookstore.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class OutOfStockException extends RuntimeException {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutOfStockException.class);
+
+    public OutOfStockException(int bookId, int quantity) {
+        super("Book with id " + bookId + " does not have " + quantity + " copies in stock");
+        logger.warn("Purchase rejected, book out of stock: {}", bookId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.application.bookstore.exception;
+
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Customer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Locale;
+import java.util.Map;
+
+// Maps a unique constraint violated on insert/update back to the entity attribute it guards,
+// so writes can rely on the database constraint instead of a SELECT before every INSERT.
+public final class UniqueConstraintViolations {
+
+    private static final Map<String, String[]> ATTRIBUTES_BY_CONSTRAINT = Map.of(
+            Author.UK_EMAIL, new String[]{"Author", "email"},
+            Customer.UK_EMAIL, new String[]{"Customer", "email"},
+            AppUser.UK_USERNAME, new String[]{"AppUser", "username"});
+
+    private UniqueConstraintViolations() {
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Check Violated Constraint ----------------
+    //--------------------------------------------------------------
+    public static boolean isViolated(DataIntegrityViolationException e, String constraintName) {
+        final String violated = violatedConstraintName(e);
+        return violated != null && matches(violated, constraintName);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Save Guarded By Unique Constraint --------
+    //--------------------------------------------------------------
+    // flushes, so the violation surfaces in this call rather than at commit; a violation of
+    // constraintName becomes AttributeAlreadyExistsException with the offending value
+    public static <T> T saveUnique(JpaRepository<T, ?> repository, T entity, String constraintName, String attributeValue) {
+        try {
+            return repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (isViolated(e, constraintName)) {
+                final String[] attribute = ATTRIBUTES_BY_CONSTRAINT.get(constraintName);
+                throw new AttributeAlreadyExistsException(attribute[0], attribute[1], attributeValue);
+            }
+            throw e;
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Translate To AttributeAlreadyExists ------
+    //--------------------------------------------------------------
+    // returns null when the violation is not one of the known unique constraints
+    public static AttributeAlreadyExistsException translate(DataIntegrityViolationException e) {
+        final String violated = violatedConstraintName(e);
+        if (violated == null) {
+            return null;
+        }
+        for (Map.Entry<String, String[]> entry : ATTRIBUTES_BY_CONSTRAINT.entrySet()) {
+            if (matches(violated, entry.getKey())) {
+                return new AttributeAlreadyExistsException(entry.getValue()[0], entry.getValue()[1]);
+            }
+        }
+        return null;
+    }
+
+    // vendors report the name decorated, e.g. "authors.uk_authors_email" (MySQL)
+    // or "PUBLIC.UK_AUTHORS_EMAIL_INDEX_D" (H2)
+    private static boolean matches(String violated, String constraintName) {
+        return violated.toLowerCase(Locale.ROOT).contains(constraintName);
+    }
+
+    private static String violatedConstraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+}
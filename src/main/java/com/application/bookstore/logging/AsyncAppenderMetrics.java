@@ -0,0 +1,44 @@
+package com.application.bookstore.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+// Exposes the root logger's CountingAsyncAppender (the prod profile's ASYNC_CONSOLE, see
+// logback-spring.xml): events discarded, events waiting and free queue slots. A queue with no free
+// slots means request threads are waiting on the console. Binds nothing without such an appender.
+@Component
+public class AsyncAppenderMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        final Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof CountingAsyncAppender async) {
+                Gauge.builder("logging.async.discarded", async, CountingAsyncAppender::getDiscardedCount)
+                        .tag("appender", async.getName())
+                        .description("Log events dropped instead of queued")
+                        .register(registry);
+                Gauge.builder("logging.async.queue.size", async, CountingAsyncAppender::getNumberOfElementsInQueue)
+                        .tag("appender", async.getName())
+                        .description("Log events waiting for the writer thread")
+                        .register(registry);
+                Gauge.builder("logging.async.queue.remaining", async, CountingAsyncAppender::getRemainingCapacity)
+                        .tag("appender", async.getName())
+                        .description("Free slots in the log queue")
+                        .register(registry);
+            }
+        }
+    }
+}
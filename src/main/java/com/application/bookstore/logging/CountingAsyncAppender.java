@@ -0,0 +1,37 @@
+package com.application.bookstore.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// AsyncAppender that counts the events it discards, so a lossy configuration shows up in the
+// logging.async.discarded metric (see AsyncAppenderMetrics) instead of going unnoticed. Only the
+// discarding-threshold path is counted: with neverBlock a full queue also drops events, which the
+// base class does not report, so use it with neverBlock off.
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+
+    // called only once the queue is past the discarding threshold; true means the event is dropped
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        final boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+
+    @Override
+    public void start() {
+        if (isNeverBlock()) {
+            addWarn("neverBlock drops events on a full queue without counting them");
+        }
+        super.start();
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+}
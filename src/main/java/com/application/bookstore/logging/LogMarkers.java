@@ -0,0 +1,14 @@
+package com.application.bookstore.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+// Markers the logging configuration can act on without matching logger names or messages
+public final class LogMarkers {
+
+    // one line per read request ("Fetching ..."); the prod profile keeps only a sample of them
+    public static final Marker SAMPLED_READ = MarkerFactory.getMarker("SAMPLED_READ");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,51 @@
+package com.application.bookstore.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lets through one in every <rate> events that carry <marker>, across all loggers; other events are
+// untouched. As a turbo filter it runs before logback builds the event, so a dropped line costs one
+// counter increment instead of formatting, encoding and an appender.
+//
+//   <turboFilter class="com.application.bookstore.logging.SamplingTurboFilter">
+//       <marker>SAMPLED_READ</marker>
+//       <rate>100</rate>
+//   </turboFilter>
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong seen = new AtomicLong();
+
+    private String marker;
+    private int rate = 100;
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public void start() {
+        if (marker == null || rate < 1) {
+            addError("SamplingTurboFilter needs a marker and a rate of at least 1");
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker eventMarker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks pass a null format; only sample actual log statements
+        if (!isStarted() || eventMarker == null || format == null || !eventMarker.contains(marker)) {
+            return FilterReply.NEUTRAL;
+        }
+        return seen.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
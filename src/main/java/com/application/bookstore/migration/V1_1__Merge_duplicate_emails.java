@@ -0,0 +1,114 @@
+package com.application.bookstore.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// V2 makes authors.email and customers.email unique. A database created before migrations existed
+// (baselined at V1) may hold several authors or customers with the same email, and the constraint
+// would fail on them. By default this stops the migration with a report of every duplicate email
+// and the ids sharing it, so they can be resolved by hand. With
+// bookstore.migration.merge-duplicate-emails=true it instead merges each group into the row with
+// the lowest id: book links and purchases move to that row and the other rows are deleted. Emails
+// are grouped by the database's own equality, the one the constraint will use (case-insensitive on
+// MySQL). On a database V1 created the tables are empty and it does nothing. Registered with
+// Flyway as a bean.
+@Component
+public class V1_1__Merge_duplicate_emails extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V1_1__Merge_duplicate_emails.class);
+
+    public static final String MERGE_PROPERTY = "bookstore.migration.merge-duplicate-emails";
+
+    private final boolean merge;
+
+    public V1_1__Merge_duplicate_emails(@Value("${" + MERGE_PROPERTY + ":false}") boolean merge) {
+        this.merge = merge;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        final List<Map<String, Object>> authors = findDuplicates(jdbcTemplate, "authors");
+        final List<Map<String, Object>> customers = findDuplicates(jdbcTemplate, "customers");
+        if (authors.isEmpty() && customers.isEmpty()) {
+            return;
+        }
+        if (!merge) {
+            throw new FlywayException("Cannot make emails unique, these rows share an email:"
+                    + report(jdbcTemplate, "authors", authors) + report(jdbcTemplate, "customers", customers)
+                    + System.lineSeparator() + "Resolve them, or set " + MERGE_PROPERTY
+                    + "=true to merge each group into its lowest id and delete the other rows.");
+        }
+
+        for (Map<String, Object> duplicate : authors) {
+            final int keptId = ((Number) duplicate.get("kept_id")).intValue();
+            for (Integer id : otherIds(jdbcTemplate, "authors", duplicate.get("duplicate_email"), keptId)) {
+                moveBookLinks(jdbcTemplate, id, keptId);
+                jdbcTemplate.update("delete from authors where id = ?", id);
+                logger.warn("Merged author {} into author {}, both had email {}", id, keptId, duplicate.get("duplicate_email"));
+            }
+        }
+
+        for (Map<String, Object> duplicate : customers) {
+            final int keptId = ((Number) duplicate.get("kept_id")).intValue();
+            for (Integer id : otherIds(jdbcTemplate, "customers", duplicate.get("duplicate_email"), keptId)) {
+                jdbcTemplate.update("update purchased_books set customer_id = ? where customer_id = ?", keptId, id);
+                jdbcTemplate.update("delete from customers where id = ?", id);
+                logger.warn("Merged customer {} into customer {}, both had email {}", id, keptId, duplicate.get("duplicate_email"));
+            }
+        }
+    }
+
+    // one line per duplicate email, e.g. "authors george@email.com: ids [2, 4]"
+    private String report(JdbcTemplate jdbcTemplate, String table, List<Map<String, Object>> duplicates) {
+        StringBuilder report = new StringBuilder();
+        for (Map<String, Object> duplicate : duplicates) {
+            final List<Integer> ids = new ArrayList<>();
+            ids.add(((Number) duplicate.get("kept_id")).intValue());
+            ids.addAll(otherIds(jdbcTemplate, table, duplicate.get("duplicate_email"), ids.getFirst()));
+            report.append(System.lineSeparator()).append(table).append(' ')
+                    .append(duplicate.get("duplicate_email")).append(": ids ").append(ids);
+        }
+        return report.toString();
+    }
+
+    private List<Map<String, Object>> findDuplicates(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForList(
+                "select min(email) as duplicate_email, min(id) as kept_id from " + table + " group by email having count(*) > 1");
+    }
+
+    private List<Integer> otherIds(JdbcTemplate jdbcTemplate, String table, Object email, int keptId) {
+        return jdbcTemplate.queryForList("select id from " + table + " where email = ? and id <> ? order by id",
+                Integer.class, email, keptId);
+    }
+
+    // book_author has no primary key; a book linked to both authors keeps a single link
+    private void moveBookLinks(JdbcTemplate jdbcTemplate, int fromAuthorId, int toAuthorId) {
+        final Set<Integer> linkedBookIds = new HashSet<>(jdbcTemplate.queryForList(
+                "select book_id from book_author where author_id = ?", Integer.class, toAuthorId));
+
+        for (Integer bookId : jdbcTemplate.queryForList(
+                "select distinct book_id from book_author where author_id = ?", Integer.class, fromAuthorId)) {
+            if (linkedBookIds.contains(bookId)) {
+                jdbcTemplate.update("delete from book_author where author_id = ? and book_id = ?", fromAuthorId, bookId);
+            } else {
+                jdbcTemplate.update("update book_author set author_id = ? where author_id = ? and book_id = ?",
+                        toAuthorId, fromAuthorId, bookId);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.application.bookstore.migration;
+
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.PooledSequenceGenerator;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// A database created before migrations existed is baselined at V1, so V1 never ran on it: its
+// tables came from ddl-auto with IDENTITY / auto_increment ids, there are no <table>_seq sequences
+// for the pooled id generators, and users.username has a unique constraint with a generated name.
+// This brings such a database to what V1 creates; on a database V1 created, every step finds its
+// target present and does nothing. The identity defaults stay, they accept the explicit ids
+// Hibernate now inserts. A Java migration because the legacy constraint name is only known at
+// runtime; registered with Flyway as a bean.
+@Component
+public class V5__Upgrade_pre_flyway_schema extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V5__Upgrade_pre_flyway_schema.class);
+
+    // tables and the sequences of their ids, see @PooledSequence on the entities
+    private static final Map<String, String> SEQUENCES_BY_TABLE = Map.of(
+            "authors", "authors_seq",
+            "books", "books_seq",
+            "customers", "customers_seq",
+            "purchased_books", "purchased_books_seq",
+            "users", "users_seq");
+
+    // V1 sequences step by this much
+    private static final int INCREMENT = PooledSequenceGenerator.ALLOCATION_SIZE;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        final String database = context.getConnection().getMetaData().getDatabaseProductName();
+        final boolean mysql = database.equalsIgnoreCase("MySQL");
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        for (Map.Entry<String, String> entry : SEQUENCES_BY_TABLE.entrySet()) {
+            createSequenceIfMissing(jdbcTemplate, mysql, entry.getKey(), entry.getValue());
+        }
+        nameUsernameConstraint(jdbcTemplate, mysql, database.equalsIgnoreCase("H2"));
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Id Sequences -----------------------------
+    //--------------------------------------------------------------
+    // The pooled optimizer hands out the INCREMENT ids below the value it reads, so a sequence
+    // starting at max(id) + INCREMENT generates max(id) + 1 first. An empty table starts at 1, like V1.
+    private void createSequenceIfMissing(JdbcTemplate jdbcTemplate, boolean mysql, String table, String sequence) {
+        final String exists = mysql
+                ? "select count(*) from information_schema.tables where table_schema = database() and lower(table_name) = ?"
+                : "select count(*) from information_schema.sequences where sequence_schema = current_schema and lower(sequence_name) = ?";
+        if (jdbcTemplate.queryForObject(exists, Long.class, sequence) > 0) {
+            return;
+        }
+
+        final Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        final long start = maxId == null ? 1 : maxId + INCREMENT;
+
+        if (mysql) {
+            jdbcTemplate.execute("create table " + sequence + " (next_val bigint) engine = InnoDB");
+            jdbcTemplate.update("insert into " + sequence + " values (?)", start);
+        } else {
+            jdbcTemplate.execute("create sequence " + sequence + " start with " + start + " increment by " + INCREMENT);
+        }
+        logger.info("Created {} starting at {} for ids of {}", sequence, start, table);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Username Constraint ----------------------
+    //--------------------------------------------------------------
+    // UniqueConstraintViolations recognizes a duplicate username by the constraint name. H2 reports
+    // the name of the backing index instead, which a rename keeps, so on H2 it is recreated.
+    private void nameUsernameConstraint(JdbcTemplate jdbcTemplate, boolean mysql, boolean h2) {
+        final String schema = mysql ? "database()" : "current_schema";
+        final List<String> constraints = jdbcTemplate.queryForList(
+                "select tc.constraint_name from information_schema.table_constraints tc"
+                        + " join information_schema.key_column_usage kcu on kcu.table_schema = tc.table_schema"
+                        + " and kcu.table_name = tc.table_name and kcu.constraint_name = tc.constraint_name"
+                        + " where tc.table_schema = " + schema + " and lower(tc.table_name) = 'users'"
+                        + " and tc.constraint_type = 'UNIQUE'"
+                        + " group by tc.constraint_name"
+                        + " having count(*) = 1 and lower(max(kcu.column_name)) = 'username'",
+                String.class);
+
+        if (constraints.stream().anyMatch(name -> name.toLowerCase(Locale.ROOT).equals(AppUser.UK_USERNAME))) {
+            return;
+        }
+        final String legacyName = constraints.isEmpty() ? null : constraints.getFirst();
+        if (legacyName == null || h2) {
+            if (legacyName != null) {
+                jdbcTemplate.execute("alter table users drop constraint \"" + legacyName + "\"");
+            }
+            jdbcTemplate.execute("alter table users add constraint " + AppUser.UK_USERNAME + " unique (username)");
+            logger.info("Added {} to users.username, replacing {}", AppUser.UK_USERNAME, legacyName);
+            return;
+        }
+
+        jdbcTemplate.execute(mysql
+                ? "alter table users rename index `" + legacyName + "` to " + AppUser.UK_USERNAME
+                : "alter table users rename constraint \"" + legacyName + "\" to " + AppUser.UK_USERNAME);
+        logger.info("Renamed unique constraint {} on users.username to {}", legacyName, AppUser.UK_USERNAME);
+    }
+}
@@ -2,26 +2,32 @@ package com.application.bookstore.model;
 
 import jakarta.persistence.*;
 
+import java.util.Set;
+
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = AppUser.UK_USERNAME, columnNames = "username"))
 public class AppUser {
 
+    public static final String UK_USERNAME = "uk_users_username";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("users_seq")
     private int id;
 
-    @Column(length = 20, unique = true, nullable = false)
+    @Column(length = 20, nullable = false)
     private String username;
 
     @Column(length = 100, nullable = false)
     private String password;
 
+    // stored as canonical names, e.g. "USER,ADMIN"
+    @Convert(converter = RoleSetConverter.class)
     @Column(length = 40, nullable = false)
-    private String roles;
+    private Set<Role> roles;
 
     public AppUser() {}
 
-    public AppUser(String username, String password, String roles) {
+    public AppUser(String username, String password, Set<Role> roles) {
         this.username = username;
         this.password = password;
         this.roles = roles;
@@ -51,11 +57,11 @@ public class AppUser {
         this.password = password;
     }
 
-    public String getRoles() {
+    public Set<Role> getRoles() {
         return roles;
     }
 
-    public void setRoles(String roles) {
+    public void setRoles(Set<Role> roles) {
         this.roles = roles;
     }
 
@@ -2,16 +2,20 @@ package com.application.bookstore.model;
 
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "authors")
+@Table(name = "authors", uniqueConstraints = @UniqueConstraint(name = Author.UK_EMAIL, columnNames = "email"))
 public class Author {
 
+    public static final String UK_EMAIL = "uk_authors_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("authors_seq")
     private int id;
 
     @Column(name = "first_name",length = 20,nullable = false)
@@ -26,7 +30,15 @@ public class Author {
     @Column(length = 40,nullable = false)
     private String email;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     @ManyToMany(mappedBy = "authors")
+    @BatchSize(size = 50)
     private List<Book> books=new ArrayList<>();
 
 
@@ -70,6 +82,21 @@ public class Author {
         this.email = email;
     }
 
+    // see Book.touch()
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     public List<Book> getBooks() {
         return books;
     }
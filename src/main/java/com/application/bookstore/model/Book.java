@@ -1,7 +1,9 @@
 package com.application.bookstore.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,7 +11,7 @@ import java.util.List;
 @Table(name = "books")
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("books_seq")
     private int id;
 
     @Column(length = 40, nullable = false)
@@ -24,7 +26,17 @@ public class Book {
     @Column( nullable = false)
     private int stock;
 
+    // bumped on every update, including changes to the authors collection and stock decrements;
+    // drives the ETag / Last-Modified of the book and of the authors that embed it
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "book_author",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -72,6 +84,22 @@ public class Book {
         this.stock = stock;
     }
 
+    // a lifecycle callback rather than @UpdateTimestamp: it also runs for updates that only
+    // bump the version because a collection changed
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
     public List<Author> getAuthors() {
         return authors;
     }
@@ -5,11 +5,13 @@ import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", uniqueConstraints = @UniqueConstraint(name = Customer.UK_EMAIL, columnNames = "email"))
 public class Customer {
 
+    public static final String UK_EMAIL = "uk_customers_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("customers_seq")
     private int id;
 
     @Column(name = "first_name",length = 20,nullable = false)
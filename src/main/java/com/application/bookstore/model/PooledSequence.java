@@ -0,0 +1,21 @@
+package com.application.bookstore.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Id from the named database sequence (a <name> table on MySQL), handed out in blocks through
+// the pooled optimizer so inserts can be batched. The block size is the same for all
+// entities, see PooledSequenceGenerator. A new sequence goes into the migrations of every vendor in
+// the same change; PooledSequenceGeneratorTest checks the V1 scripts.
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    // sequence name
+    String value();
+}
@@ -8,8 +8,9 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "purchased_books")
 public class PurchasedBook {
+    // pooled sequence instead of IDENTITY so Hibernate can batch the inserts of a cart
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("purchased_books_seq")
     private int id;
 
     @ManyToOne
@@ -0,0 +1,67 @@
+package com.application.bookstore.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+
+public enum Role {
+    USER,
+    ADMIN;
+
+    private final GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + name());
+
+    // immutable authority list for every combination of roles, indexed by the bitmask of their
+    // ordinals, so authenticating a user allocates no authority objects
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK;
+
+    static {
+        final Role[] roles = values();
+        List<List<GrantedAuthority>> authoritiesByMask = new ArrayList<>(1 << roles.length);
+        for (int mask = 0; mask < 1 << roles.length; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : roles) {
+                if ((mask & 1 << role.ordinal()) != 0) {
+                    authorities.add(role.authority);
+                }
+            }
+            authoritiesByMask.add(List.copyOf(authorities));
+        }
+        AUTHORITIES_BY_MASK = List.copyOf(authoritiesByMask);
+    }
+
+    public GrantedAuthority getAuthority() {
+        return authority;
+    }
+
+    public static List<GrantedAuthority> authoritiesOf(Set<Role> roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= 1 << role.ordinal();
+        }
+        return AUTHORITIES_BY_MASK.get(mask);
+    }
+
+    // "admin, USER" -> [USER, ADMIN]; unknown names throw IllegalArgumentException
+    public static Set<Role> parse(String roles) {
+        EnumSet<Role> result = EnumSet.noneOf(Role.class);
+        for (String role : roles.split(",")) {
+            final String name = role.trim();
+            if (!name.isEmpty()) {
+                result.add(Role.valueOf(name.toUpperCase(Locale.ROOT)));
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    // canonical form, in declaration order: "USER,ADMIN"
+    public static String format(Set<Role> roles) {
+        StringJoiner result = new StringJoiner(",");
+        for (Role role : values()) {
+            if (roles.contains(role)) {
+                result.add(role.name());
+            }
+        }
+        return result.toString();
+    }
+}
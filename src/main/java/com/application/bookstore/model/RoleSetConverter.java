@@ -0,0 +1,49 @@
+package com.application.bookstore.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Stores a role set as its canonical comma-separated names. Only a handful of distinct values
+// exist, so parsed sets are shared instead of re-parsed for every loaded user.
+@Converter
+public class RoleSetConverter implements AttributeConverter<Set<Role>, String> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleSetConverter.class);
+
+    private static final ConcurrentMap<String, Set<Role>> PARSED = new ConcurrentHashMap<>();
+
+    @Override
+    public String convertToDatabaseColumn(Set<Role> roles) {
+        return roles == null ? null : Role.format(roles);
+    }
+
+    @Override
+    public Set<Role> convertToEntityAttribute(String roles) {
+        return roles == null ? null : PARSED.computeIfAbsent(roles, RoleSetConverter::parseStored);
+    }
+
+    // Rows written before roles were an enum may hold any uppercased name. Throwing here would fail
+    // every query that loads such a row, so unknown names are skipped; the user keeps the roles
+    // that still exist and the column is rewritten in canonical form on the next save.
+    private static Set<Role> parseStored(String roles) {
+        EnumSet<Role> result = EnumSet.noneOf(Role.class);
+        for (String role : roles.split(",")) {
+            final String name = role.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(Role.valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring unknown role '{}' stored in roles '{}'", name, roles);
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+}
@@ -1,8 +1,34 @@
 package com.application.bookstore.repository;
 
 import com.application.bookstore.model.Author;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface AuthorRepository extends JpaRepository<Author, Integer> {
     Author findByEmail(String email);
+
+    List<Author> findByEmailIn(Collection<String> emails);
+
+    // version of an author and of each of its books, read before building the AuthorDto
+    @Query("select a.id as id, a.version as version, a.updatedAt as updatedAt, b.id as relatedId,"
+            + " b.version as relatedVersion, b.updatedAt as relatedUpdatedAt"
+            + " from Author a left join a.books b where a.id = :id")
+    List<VersionRow> findVersionById(@Param("id") int id);
+
+    @Query("select count(a) as count, max(a.id) as maxId, sum(a.version) as versionSum,"
+            + " max(a.updatedAt) as lastUpdated from Author a")
+    VersionTotals getVersionTotals();
+
+    @EntityGraph(attributePaths = "books")
+    @Query("select a from Author a")
+    List<Author> findAllWithBooks();
+
+    @EntityGraph(attributePaths = "books")
+    Optional<Author> findWithBooksById(int id);
 }
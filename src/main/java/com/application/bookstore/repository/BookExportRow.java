@@ -0,0 +1,26 @@
+package com.application.bookstore.repository;
+
+// One row of a catalog export: a book joined with one of its authors (author* are null when it
+// has none). Scalars, so the export neither fills the persistence context nor loads authors per book.
+public interface BookExportRow {
+
+    int getId();
+
+    String getTitle();
+
+    double getPrice();
+
+    String getGenre();
+
+    int getStock();
+
+    Integer getAuthorId();
+
+    String getAuthorFirstName();
+
+    String getAuthorLastName();
+
+    String getAuthorEmail();
+
+    String getAuthorNationality();
+}
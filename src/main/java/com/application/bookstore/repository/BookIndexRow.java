@@ -0,0 +1,25 @@
+package com.application.bookstore.repository;
+
+// One row of a search index load: a book joined with one of its authors (author* are null when
+// it has none). Scalars rather than entities, so a load that joins a transaction whose persistence
+// context still holds the books reads the committed row instead of those instances.
+public interface BookIndexRow {
+
+    int getId();
+
+    long getVersion();
+
+    String getTitle();
+
+    String getGenre();
+
+    double getPrice();
+
+    int getStock();
+
+    Long getAuthorVersion();
+
+    String getAuthorFirstName();
+
+    String getAuthorLastName();
+}
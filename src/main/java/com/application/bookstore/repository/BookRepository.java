@@ -1,7 +1,98 @@
-package com.application.bookstore.repository;
-
-import com.application.bookstore.model.Book;
-import org.springframework.data.jpa.repository.JpaRepository;
-
-public interface BookRepository extends JpaRepository<Book, Integer> {
-}
+package com.application.bookstore.repository;
+
+import com.application.bookstore.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book> {
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    // keyset page: books with an id greater than the cursor, in id order
+    // (authors are loaded afterwards through the @BatchSize on Book.authors)
+    List<Book> findByIdGreaterThanOrderByIdAsc(int afterId, Limit limit);
+
+    // ids of a keyset page (plus one to detect the next page), without loading the books
+    @Query("select b.id from Book b where b.id > :afterId order by b.id")
+    List<Integer> findIdsAfter(@Param("afterId") int afterId, Limit limit);
+
+    // version of a book and of each of its authors, read before building the BookDto
+    @Query("select b.id as id, b.version as version, b.updatedAt as updatedAt, a.id as relatedId,"
+            + " a.version as relatedVersion, a.updatedAt as relatedUpdatedAt"
+            + " from Book b left join b.authors a where b.id = :id")
+    List<VersionRow> findVersionById(@Param("id") int id);
+
+    // versions of the books with ids in [fromId, toId] and of their authors
+    @Query("select b.id as id, b.version as version, b.updatedAt as updatedAt, a.id as relatedId,"
+            + " a.version as relatedVersion, a.updatedAt as relatedUpdatedAt"
+            + " from Book b left join b.authors a where b.id between :fromId and :toId order by b.id")
+    List<VersionRow> findVersionsByIdBetween(@Param("fromId") int fromId, @Param("toId") int toId);
+
+    @Query("select count(b) as count, max(b.id) as maxId, sum(b.version) as versionSum,"
+            + " max(b.updatedAt) as lastUpdated from Book b")
+    VersionTotals getVersionTotals();
+
+    @EntityGraph(attributePaths = "authors")
+    @Query("select b from Book b")
+    List<Book> findAllWithAuthors();
+
+    @EntityGraph(attributePaths = "authors")
+    Optional<Book> findWithAuthorsById(int id);
+
+    @EntityGraph(attributePaths = "authors")
+    List<Book> findWithAuthorsByIdIn(Collection<Integer> ids);
+
+    String INDEX_ROW = "select b.id as id, b.version as version, b.title as title, b.genre as genre,"
+            + " b.price as price, b.stock as stock, a.version as authorVersion,"
+            + " a.firstName as authorFirstName, a.lastName as authorLastName"
+            + " from Book b left join b.authors a";
+
+    // search index reload of the given books, rows of one book adjacent
+    @Query(INDEX_ROW + " where b.id in :ids order by b.id, a.id")
+    List<BookIndexRow> findIndexRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // search index reload of books whose stock alone changed (purchases)
+    @Query("select b.id as id, b.version as version, b.stock as stock from Book b where b.id in :ids")
+    List<BookStockRow> findStockRowsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // facet reconciliation: the version of every book, compared with the indexed ones
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select b.id as id, b.version as version, b.stock as stock from Book b")
+    Stream<BookStockRow> streamStockRows();
+
+    // search index build; a cursor like streamExportRows, consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(INDEX_ROW + " order by b.id, a.id")
+    Stream<BookIndexRow> streamIndexRows();
+
+    // forward-only cursor over the whole catalog for exports, rows of one book adjacent; must be
+    // consumed inside a transaction and closed. The fetch size bounds each driver round trip.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("select b.id as id, b.title as title, b.price as price, b.genre as genre, b.stock as stock,"
+            + " a.id as authorId, a.firstName as authorFirstName, a.lastName as authorLastName,"
+            + " a.email as authorEmail, a.nationality as authorNationality"
+            + " from Book b left join b.authors a order by b.id, a.id")
+    Stream<BookExportRow> streamExportRows();
+
+    // single conditional UPDATE, so concurrent purchases can neither oversell nor lose a decrement;
+    // returns 0 when the book does not exist or has fewer than quantity copies left.
+    // bumps the @Version, so the ETag of the book changes with its stock. Spelled out instead of
+    // "update versioned", whose translation mutates the cached query and races on first concurrent use
+    @Modifying
+    @Query("update Book b set b.stock = b.stock - :quantity, b.version = b.version + 1, b.updatedAt = current_instant"
+            + " where b.id = :id and b.stock >= :quantity")
+    int decrementStock(@Param("id") int id, @Param("quantity") int quantity);
+}
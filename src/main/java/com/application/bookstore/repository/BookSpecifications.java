@@ -0,0 +1,40 @@
+package com.application.bookstore.repository;
+
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+
+// Filters for BookRepository.findAll(Specification, Pageable). Each one is a plain comparison
+// on a column, so it can use idx_books_genre_price, idx_books_stock or the book_author author_id index.
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> hasGenre(String genre) {
+        return (root, query, builder) -> builder.equal(root.get("genre"), genre);
+    }
+
+    public static Specification<Book> priceAtLeast(double minPrice) {
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Book> priceAtMost(double maxPrice) {
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Book> inStock(boolean inStock) {
+        return (root, query, builder) -> inStock
+                ? builder.greaterThan(root.get("stock"), 0)
+                : builder.equal(root.get("stock"), 0);
+    }
+
+    // a book lists an author once, so the join cannot duplicate rows
+    public static Specification<Book> hasAuthor(int authorId) {
+        return (root, query, builder) -> {
+            final Join<Book, Author> authors = root.join("authors");
+            return builder.equal(authors.get("id"), authorId);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.application.bookstore.repository;
+
+// Stock of a book and the version it was read at. Purchases change nothing else, so the search
+// index reloads just this for them instead of a BookIndexRow per author.
+public interface BookStockRow {
+
+    int getId();
+
+    long getVersion();
+
+    int getStock();
+}
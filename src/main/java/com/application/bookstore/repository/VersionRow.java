@@ -0,0 +1,20 @@
+package com.application.bookstore.repository;
+
+import java.time.Instant;
+
+// One row of a version lookup: an entity joined with one of the entities its representation
+// embeds (the authors of a book, the books of an author). related* are null when it has none.
+public interface VersionRow {
+
+    int getId();
+
+    long getVersion();
+
+    Instant getUpdatedAt();
+
+    Integer getRelatedId();
+
+    Long getRelatedVersion();
+
+    Instant getRelatedUpdatedAt();
+}
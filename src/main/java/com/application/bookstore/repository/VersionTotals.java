@@ -0,0 +1,16 @@
+package com.application.bookstore.repository;
+
+import java.time.Instant;
+
+// Aggregate version of a whole table. Ids only grow, so any insert, update or delete changes
+// at least one of count, maxId and versionSum; maxId, versionSum and lastUpdated are null when empty.
+public interface VersionTotals {
+
+    long getCount();
+
+    Integer getMaxId();
+
+    Long getVersionSum();
+
+    Instant getLastUpdated();
+}
@@ -0,0 +1,420 @@
+package com.application.bookstore.search;
+
+import java.util.*;
+
+// Radix trie over normalized book titles and author last names. Every node caches the best
+// MAX_SUGGESTIONS entries of its subtree (most books first), so a lookup walks the query once
+// and reads a cached list, whatever the catalog size. Misspelt prefixes are matched by carrying a
+// Levenshtein row down the trie and pruning branches that are already too far from the query.
+// Not thread-safe; BookSearchIndex guards it with a lock.
+public class AutocompleteTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    public enum Kind {
+        TITLE,
+        AUTHOR
+    }
+
+    // ranks suggestions in a subtree: more books first, then shorter, then alphabetical
+    private static final Comparator<Suggestion> RANK = Comparator.comparingInt((Suggestion s) -> -s.books)
+            .thenComparingInt(s -> s.key.length())
+            .thenComparing(s -> s.key)
+            .thenComparing(s -> s.kind);
+
+    private final Node root = new Node("");
+
+    // suggestions each book counts towards, to take it out again on update/delete
+    private final Map<Integer, Suggestion[]> suggestionsByBook = new HashMap<>();
+
+    //--------------------------------------------------------------
+    //------------------- Add Or Replace Book ----------------------
+    //--------------------------------------------------------------
+    public void put(int bookId, String title, Collection<String> authorLastNames) {
+        remove(bookId);
+
+        List<Suggestion> suggestions = new ArrayList<>(1 + authorLastNames.size());
+        addSuggestion(suggestions, title, Kind.TITLE);
+        for (String lastName : new LinkedHashSet<>(authorLastNames)) {
+            addSuggestion(suggestions, lastName, Kind.AUTHOR);
+        }
+        suggestionsByBook.put(bookId, suggestions.toArray(Suggestion[]::new));
+    }
+
+    private void addSuggestion(List<Suggestion> suggestions, String text, Kind kind) {
+        final String key = key(text);
+        if (!key.isEmpty()) {
+            suggestions.add(add(key, text, kind));
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Remove Book ------------------------------
+    //--------------------------------------------------------------
+    public void remove(int bookId) {
+        final Suggestion[] suggestions = suggestionsByBook.remove(bookId);
+        if (suggestions != null) {
+            for (Suggestion suggestion : suggestions) {
+                release(suggestion);
+            }
+        }
+    }
+
+    public int size() {
+        return suggestionsByBook.size();
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Suggest ----------------------------------
+    //--------------------------------------------------------------
+    // entries starting with the query first, then entries within maxEdits(query) edits of it
+    public List<Match> suggest(String query, int limit) {
+        final String q = key(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Suggestion, Integer> editsBySuggestion = new LinkedHashMap<>();
+        final Node exact = findPrefix(q);
+        if (exact != null) {
+            for (Suggestion suggestion : exact.top) {
+                editsBySuggestion.put(suggestion, 0);
+            }
+        }
+
+        final int maxEdits = maxEdits(q);
+        if (editsBySuggestion.size() < limit && maxEdits > 0) {
+            int[] firstRow = new int[q.length() + 1];
+            for (int j = 0; j < firstRow.length; j++) {
+                firstRow[j] = j;
+            }
+            List<NodeMatch> nodes = new ArrayList<>();
+            collectFuzzy(root, firstRow, q, maxEdits + 1, nodes);
+
+            List<NodeMatch> candidates = new ArrayList<>();
+            for (NodeMatch nodeMatch : nodes) {
+                for (Suggestion suggestion : nodeMatch.node.top) {
+                    candidates.add(new NodeMatch(nodeMatch.node, nodeMatch.edits, suggestion));
+                }
+            }
+            candidates.sort(Comparator.comparingInt(NodeMatch::edits).thenComparing(NodeMatch::suggestion, RANK));
+            for (NodeMatch candidate : candidates) {
+                editsBySuggestion.putIfAbsent(candidate.suggestion, candidate.edits);
+            }
+        }
+
+        List<Match> result = new ArrayList<>(Math.min(limit, editsBySuggestion.size()));
+        for (Map.Entry<Suggestion, Integer> entry : editsBySuggestion.entrySet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            final Suggestion suggestion = entry.getKey();
+            result.add(new Match(suggestion.text, suggestion.kind, suggestion.books, entry.getValue()));
+        }
+        return result;
+    }
+
+    // no typos on very short prefixes, where almost everything would be one edit away
+    static int maxEdits(String key) {
+        if (key.length() < 3) {
+            return 0;
+        }
+        return key.length() < 6 ? 1 : 2;
+    }
+
+    // words of the text, normalized and joined by single spaces
+    static String key(String text) {
+        return String.join(" ", SearchTokenizer.tokenize(text));
+    }
+
+    public record Match(String text, Kind kind, int books, int edits) {
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Trie Walks -------------------------------
+    //--------------------------------------------------------------
+    // node whose subtree holds every key starting with prefix; null when there is none
+    private Node findPrefix(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            final Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            final int common = commonPrefixLength(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    // row[j] is the edit distance between the trie path so far and the first j query characters.
+    // A subtree is taken whole once the full query is closer than bound to its path; the walk goes
+    // on only while min(row), the best any longer path can reach, could still beat that.
+    private static void collectFuzzy(Node node, int[] row, String q, int bound, List<NodeMatch> out) {
+        for (Node child : node.children) {
+            int[] current = row;
+            int childBound = bound;
+            boolean done = false;
+            for (int c = 0; c < child.label.length() && !done; c++) {
+                current = nextRow(current, child.label.charAt(c), q);
+                if (current[q.length()] < childBound) {
+                    childBound = current[q.length()];
+                    out.add(new NodeMatch(child, childBound, null));
+                }
+                done = min(current) >= childBound;
+            }
+            if (!done) {
+                collectFuzzy(child, current, q, childBound, out);
+            }
+        }
+    }
+
+    private static int[] nextRow(int[] previous, char c, String q) {
+        int[] next = new int[previous.length];
+        next[0] = previous[0] + 1;
+        for (int j = 1; j < next.length; j++) {
+            final int substitution = previous[j - 1] + (q.charAt(j - 1) == c ? 0 : 1);
+            next[j] = Math.min(substitution, Math.min(previous[j] + 1, next[j - 1] + 1));
+        }
+        return next;
+    }
+
+    private static int min(int[] row) {
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private record NodeMatch(Node node, int edits, Suggestion suggestion) {
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Insert / Release Entry -------------------
+    //--------------------------------------------------------------
+    private Suggestion add(String key, String text, Kind kind) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+
+        int i = 0;
+        while (i < key.length()) {
+            final Node child = node.child(key.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(key.substring(i));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            final int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // split the edge: node -> middle -> child
+                Node middle = new Node(child.label.substring(0, common));
+                middle.top = child.top.clone();
+                node.replaceChild(child, middle);
+                child.label = child.label.substring(common);
+                middle.addChild(child);
+                node = middle;
+            } else {
+                node = child;
+            }
+            path.add(node);
+            i += common;
+        }
+
+        Suggestion suggestion = node.terminal(kind);
+        if (suggestion == null) {
+            suggestion = new Suggestion(key, text, kind);
+            node.addTerminal(suggestion);
+        }
+        suggestion.books++;
+
+        // the entry only moved up in rank, so each cached list on the path takes it in place
+        for (Node onPath : path) {
+            onPath.offer(suggestion);
+        }
+        return suggestion;
+    }
+
+    private void release(Suggestion suggestion) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < suggestion.key.length()) {
+            node = node.child(suggestion.key.charAt(i));
+            path.add(node);
+            i += node.label.length();
+        }
+
+        if (--suggestion.books == 0) {
+            node.removeTerminal(suggestion);
+        }
+
+        // drop emptied nodes, then rebuild the cached lists the entry may have dropped out of
+        for (int p = path.size() - 1; p > 0; p--) {
+            final Node onPath = path.get(p);
+            if (onPath.terminals.length == 0 && onPath.children.length == 0) {
+                path.get(p - 1).removeChild(onPath);
+                path.remove(p);
+            }
+        }
+        for (int p = path.size() - 1; p >= 0; p--) {
+            path.get(p).recomputeTop();
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        final int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Suggestion {
+
+        private final String key;
+        private final String text;
+        private final Kind kind;
+        private int books;
+
+        Suggestion(String key, String text, Kind kind) {
+            this.key = key;
+            this.text = text;
+            this.kind = kind;
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Trie Node --------------------------------
+    //--------------------------------------------------------------
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+        private String label;
+        // sorted by the first character of their label
+        private Node[] children = NO_CHILDREN;
+        // entries ending here, at most one per kind
+        private Suggestion[] terminals = NO_SUGGESTIONS;
+        // best entries of the subtree, in RANK order
+        private Suggestion[] top = NO_SUGGESTIONS;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            final char first = child.label.charAt(0);
+            int index = 0;
+            while (index < children.length && children[index].label.charAt(0) < first) {
+                index++;
+            }
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void replaceChild(Node oldChild, Node newChild) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == oldChild) {
+                    children[i] = newChild;
+                    return;
+                }
+            }
+        }
+
+        void removeChild(Node child) {
+            children = remove(children, child, NO_CHILDREN);
+        }
+
+        Suggestion terminal(Kind kind) {
+            for (Suggestion terminal : terminals) {
+                if (terminal.kind == kind) {
+                    return terminal;
+                }
+            }
+            return null;
+        }
+
+        void addTerminal(Suggestion suggestion) {
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = suggestion;
+        }
+
+        void removeTerminal(Suggestion suggestion) {
+            terminals = remove(terminals, suggestion, NO_SUGGESTIONS);
+        }
+
+        void offer(Suggestion suggestion) {
+            for (Suggestion cached : top) {
+                if (cached == suggestion) {
+                    Arrays.sort(top, RANK);
+                    return;
+                }
+            }
+            if (top.length < MAX_SUGGESTIONS) {
+                top = Arrays.copyOf(top, top.length + 1);
+            } else if (RANK.compare(suggestion, top[top.length - 1]) >= 0) {
+                return;
+            }
+            top[top.length - 1] = suggestion;
+            Arrays.sort(top, RANK);
+        }
+
+        void recomputeTop() {
+            List<Suggestion> candidates = new ArrayList<>(Arrays.asList(terminals));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANK);
+            top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(NO_SUGGESTIONS);
+        }
+
+        private static <T> T[] remove(T[] array, T element, T[] empty) {
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == element) {
+                    if (array.length == 1) {
+                        return empty;
+                    }
+                    T[] shrunk = Arrays.copyOf(array, array.length - 1);
+                    System.arraycopy(array, i + 1, shrunk, i, array.length - i - 1);
+                    return shrunk;
+                }
+            }
+            return array;
+        }
+    }
+}
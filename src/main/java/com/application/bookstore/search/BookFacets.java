@@ -0,0 +1,132 @@
+package com.application.bookstore.search;
+
+import java.util.*;
+
+// Catalog facet counts: books per genre, per price range and in stock. Kept per book so an update
+// or delete can take back exactly what the book added. BookSearchIndex compares the totals with a
+// GROUP BY (groupByQuery) and, when they have drifted (writes that bypassed the services, other
+// instances), reindexes the books whose version changed. Not thread-safe; BookSearchIndex guards it with a lock.
+public class BookFacets {
+
+    // price ranges are [0, 10), [10, 20), [20, 50) and 50 and over
+    static final double[] PRICE_BOUNDS = {10, 20, 50};
+    public static final List<String> PRICE_RANGES = List.of("0-10", "10-20", "20-50", "50+");
+
+    private Map<String, Long> genres = new HashMap<>();
+    private long[] priceRanges = new long[PRICE_RANGES.size()];
+    private long inStock;
+    private long total;
+
+    private final Map<Integer, Contribution> contributionsByBook = new HashMap<>();
+
+    //--------------------------------------------------------------
+    //------------------- Add Or Replace Book ----------------------
+    //--------------------------------------------------------------
+    public void put(int bookId, String genre, double price, int stock) {
+        put(bookId, genre, price, stock > 0);
+    }
+
+    public void put(int bookId, String genre, double price, boolean inStock) {
+        remove(bookId);
+
+        final Contribution contribution = new Contribution(genre, priceRange(price), inStock);
+        contributionsByBook.put(bookId, contribution);
+        apply(contribution, 1);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Update Stock Of Book ---------------------
+    //--------------------------------------------------------------
+    // keeps the book's genre and price range; does nothing for a book that was never put
+    public void updateStock(int bookId, int stock) {
+        final Contribution contribution = contributionsByBook.get(bookId);
+        if (contribution != null && contribution.inStock() != stock > 0) {
+            final Contribution updated = new Contribution(contribution.genre(), contribution.priceRange(), stock > 0);
+            apply(contribution, -1);
+            contributionsByBook.put(bookId, updated);
+            apply(updated, 1);
+        }
+    }
+
+    // null when the book was never put
+    public Boolean isInStock(int bookId) {
+        final Contribution contribution = contributionsByBook.get(bookId);
+        return contribution == null ? null : contribution.inStock();
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Remove Book ------------------------------
+    //--------------------------------------------------------------
+    public void remove(int bookId) {
+        final Contribution contribution = contributionsByBook.remove(bookId);
+        if (contribution != null) {
+            apply(contribution, -1);
+        }
+    }
+
+    private void apply(Contribution contribution, int delta) {
+        genres.merge(contribution.genre(), (long) delta, (count, change) -> count + change == 0 ? null : count + change);
+        priceRanges[contribution.priceRange()] += delta;
+        if (contribution.inStock()) {
+            inStock += delta;
+        }
+        total += delta;
+    }
+
+    static int priceRange(double price) {
+        int range = 0;
+        while (range < PRICE_BOUNDS.length && price >= PRICE_BOUNDS[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Read / Reconcile Counts ------------------
+    //--------------------------------------------------------------
+    public Counts counts() {
+        return new Counts(Map.copyOf(genres), priceRanges.clone(), inStock, total);
+    }
+
+    // JPQL returning one row per (genre, price range, in stock) with its number of books
+    static String groupByQuery() {
+        StringBuilder priceRange = new StringBuilder("case");
+        for (int range = 0; range < PRICE_BOUNDS.length; range++) {
+            priceRange.append(" when b.price < ").append(PRICE_BOUNDS[range]).append(" then ").append(range);
+        }
+        priceRange.append(" else ").append(PRICE_BOUNDS.length).append(" end");
+        final String inStock = "case when b.stock > 0 then 1 else 0 end";
+
+        return "select b.genre, " + priceRange + ", " + inStock + ", count(b) from Book b"
+                + " group by b.genre, " + priceRange + ", " + inStock;
+    }
+
+    static Counts fromGroupByRows(List<Object[]> rows) {
+        Map<String, Long> genres = new HashMap<>();
+        long[] priceRanges = new long[PRICE_RANGES.size()];
+        long inStock = 0;
+        long total = 0;
+        for (Object[] row : rows) {
+            final long books = ((Number) row[3]).longValue();
+            genres.merge((String) row[0], books, Long::sum);
+            priceRanges[((Number) row[1]).intValue()] += books;
+            if (((Number) row[2]).intValue() == 1) {
+                inStock += books;
+            }
+            total += books;
+        }
+        return new Counts(Map.copyOf(genres), priceRanges, inStock, total);
+    }
+
+    public record Counts(Map<String, Long> genres, long[] priceRanges, long inStock, long total) {
+
+        // record equality compares arrays by reference
+        boolean sameAs(Counts other) {
+            return total == other.total && inStock == other.inStock && genres.equals(other.genres)
+                    && Arrays.equals(priceRanges, other.priceRanges);
+        }
+    }
+
+    private record Contribution(String genre, int priceRange, boolean inStock) {
+    }
+}
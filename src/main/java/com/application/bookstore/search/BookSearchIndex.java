@@ -0,0 +1,593 @@
+package com.application.bookstore.search;
+
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.repository.BookIndexRow;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.BookStockRow;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Keeps the in-memory catalog views in step with the books table: a BookTokenIndex (search), an
+// AutocompleteTrie (suggestions) and BookFacets (counts). They are built from a cursor over the
+// catalog once the application is ready, then updated from BookChangedEvents. Changes published
+// inside a transaction are collected, read together just before it commits (one query per
+// batch-size ids, so an import chunk is not reloaded book by book) and applied once it has
+// committed; changes outside a transaction apply at once. Reloads run outside the lock, so a book
+// is only applied when its version is newer than the one indexed. A purchase changes only the
+// stock, so it reloads just that and updates the facets under their own lock, leaving the tokens
+// and the search lock alone. Every reconcile-interval the facet totals are compared with a GROUP
+// BY, and when they differ the books whose version moved past the indexed one are reindexed, or
+// everything is rebuilt if none did.
+@Component
+public class BookSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final String FACETS_GROUP_BY = BookFacets.groupByQuery();
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readTransaction;
+    private final int batchSize;
+
+    // guards index, suggestions, versions, recentlyDeleted and changedDuringRebuild; taken before facetLock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BookTokenIndex index = new BookTokenIndex();
+    private AutocompleteTrie suggestions = new AutocompleteTrie();
+
+    // guards facets and stockVersions
+    private final Lock facetLock = new ReentrantLock();
+    private BookFacets facets = new BookFacets();
+
+    // version of every indexed book, DELETED once it is gone (ids are never reused). The DELETED
+    // tombstones only have to outlive reloads read before the delete, which apply right after their
+    // commit, so each reconcile round and rebuild prunes those older than the previous one
+    private Map<Integer, IndexedVersion> versions = new HashMap<>();
+
+    // books deleted since the last prune; their tombstones survive the next one
+    private Set<Integer> recentlyDeleted = new HashSet<>();
+
+    // book version the facet stock was reloaded at, for books whose stock is newer than their versions entry
+    private Map<Integer, Long> stockVersions = new HashMap<>();
+
+    // books changed while a rebuild is running, reapplied to the rebuilt index; null otherwise.
+    // Assigned under the write lock; concurrent, so stock reloads can add to it under the read lock
+    private Set<Integer> changedDuringRebuild;
+
+    public BookSearchIndex(BookRepository bookRepository, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bookstore.search.batch-size:500}") int batchSize) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        // reloads outside a committing transaction (rebuild, reconcile, events outside a transaction,
+        // after-commit fallbacks) run in a transaction of their own: in afterCompletion the completed
+        // one's resources are still bound, and the TransactionSynchronization javadoc warns against joining them
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.batchSize = batchSize;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Search -----------------------------------
+    //--------------------------------------------------------------
+    public BookTokenIndex.SearchResult search(String query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<AutocompleteTrie.Match> suggest(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return suggestions.suggest(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BookFacets.Counts facets() {
+        facetLock.lock();
+        try {
+            return facets.counts();
+        } finally {
+            facetLock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Rebuild From Database --------------------
+    //--------------------------------------------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        logger.info("Building book search index");
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        BookTokenIndex rebuilt = new BookTokenIndex();
+        AutocompleteTrie rebuiltSuggestions = new AutocompleteTrie();
+        BookFacets rebuiltFacets = new BookFacets();
+        Map<Integer, IndexedVersion> rebuiltVersions = new HashMap<>();
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<BookIndexRow> rows = bookRepository.streamIndexRows()) {
+                    forEachBook(rows.iterator(), book -> {
+                        put(rebuilt, rebuiltSuggestions, rebuiltFacets, book);
+                        rebuiltVersions.put(book.id, book.version());
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        final Set<Integer> changed;
+        lock.writeLock().lock();
+        facetLock.lock();
+        try {
+            index = rebuilt;
+            suggestions = rebuiltSuggestions;
+            facets = rebuiltFacets;
+            stockVersions = new HashMap<>();
+            // a reload read before a recent delete must not bring the book back after the rebuild either
+            recentlyDeleted.forEach(id -> rebuiltVersions.put(id, IndexedVersion.DELETED));
+            recentlyDeleted = new HashSet<>();
+            versions = rebuiltVersions;
+            changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+        } finally {
+            facetLock.unlock();
+            lock.writeLock().unlock();
+        }
+        reindex(changed);
+
+        logger.info("Book search index built with {} books", rebuilt.size());
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Apply Changed Book -----------------------
+    //--------------------------------------------------------------
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            final PendingReindex pending = pendingReindex();
+            (event.getType() == BookChangedEvent.Type.STOCK_CHANGED ? pending.stockBookIds : pending.bookIds)
+                    .add(event.getBookId());
+        } else if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getBookId());
+        } else if (event.getType() == BookChangedEvent.Type.STOCK_CHANGED) {
+            reindexStock(Set.of(event.getBookId()));
+        } else {
+            reindex(Set.of(event.getBookId()));
+        }
+    }
+
+    // reloads the given books; ids no longer in the database are removed from the index. Two
+    // reloads of one book may finish in either order, so an older version than the indexed one is dropped.
+    void reindex(Collection<Integer> bookIds) {
+        if (!bookIds.isEmpty()) {
+            applyBooks(bookIds, readTransaction.execute(status -> loadBooks(bookIds)));
+        }
+    }
+
+    // reloads only the stock of the given books, for changes that touched nothing else
+    void reindexStock(Collection<Integer> bookIds) {
+        if (!bookIds.isEmpty()) {
+            applyStock(bookIds, readTransaction.execute(status -> loadStock(bookIds)));
+        }
+    }
+
+    // one query per batch-size ids, in the caller's transaction
+    private List<IndexedBook> loadBooks(Collection<Integer> bookIds) {
+        final List<IndexedBook> books = new ArrayList<>();
+        forEachBatch(bookIds, batch -> forEachBook(bookRepository.findIndexRowsByIdIn(batch).iterator(), books::add));
+        return books;
+    }
+
+    private List<BookStockRow> loadStock(Collection<Integer> bookIds) {
+        final List<BookStockRow> rows = new ArrayList<>();
+        forEachBatch(bookIds, batch -> rows.addAll(bookRepository.findStockRowsByIdIn(batch)));
+        return rows;
+    }
+
+    private void forEachBatch(Collection<Integer> bookIds, Consumer<List<Integer>> action) {
+        final List<Integer> ids = new ArrayList<>(bookIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            action.accept(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+    }
+
+    private void applyBooks(Collection<Integer> bookIds, List<IndexedBook> books) {
+        Set<Integer> missing = new HashSet<>(bookIds);
+        lock.writeLock().lock();
+        facetLock.lock();
+        try {
+            for (IndexedBook book : books) {
+                missing.remove(book.id);
+                if (book.version().isNewerThan(versions.get(book.id))) {
+                    putBook(book);
+                    versions.put(book.id, book.version());
+                }
+            }
+            for (Integer id : missing) {
+                removeBook(id);
+            }
+            recordChanged(bookIds);
+        } finally {
+            facetLock.unlock();
+            lock.writeLock().unlock();
+        }
+        logger.debug("Reindexed {} books", bookIds.size());
+    }
+
+    // only the facets change, under facetLock; the search lock is shared with readers. Books not
+    // indexed yet or gone from the database are reloaded in full instead, books changed while a
+    // rebuild runs are left to it.
+    private void applyStock(Collection<Integer> bookIds, List<BookStockRow> rows) {
+        final List<Integer> fullReload = new ArrayList<>();
+        Set<Integer> missing = new HashSet<>(bookIds);
+        lock.readLock().lock();
+        facetLock.lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.addAll(bookIds);
+            } else {
+                for (BookStockRow row : rows) {
+                    missing.remove(row.getId());
+                    final IndexedVersion indexed = versions.get(row.getId());
+                    if (indexed == null) {
+                        fullReload.add(row.getId());
+                    } else if (isNewerStock(row, indexed)) {
+                        facets.updateStock(row.getId(), row.getStock());
+                        stockVersions.put(row.getId(), row.getVersion());
+                    }
+                }
+                fullReload.addAll(missing);
+            }
+        } finally {
+            facetLock.unlock();
+            lock.readLock().unlock();
+        }
+        reindex(fullReload);
+        logger.debug("Reindexed stock of {} books", bookIds.size());
+    }
+
+    // called with facetLock held: the row is past both the indexed book and the last stock reload
+    private boolean isNewerStock(BookStockRow row, IndexedVersion indexed) {
+        return indexed != IndexedVersion.DELETED
+                && row.getVersion() > Math.max(indexed.book(), stockVersions.getOrDefault(row.getId(), 0L));
+    }
+
+    // a stock reload alone cannot place these
+    private Set<Integer> notIndexed(Collection<Integer> bookIds) {
+        lock.readLock().lock();
+        try {
+            return bookIds.stream().filter(id -> !versions.containsKey(id)).collect(Collectors.toSet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(int bookId) {
+        lock.writeLock().lock();
+        facetLock.lock();
+        try {
+            removeBook(bookId);
+            recordChanged(List.of(bookId));
+        } finally {
+            facetLock.unlock();
+            lock.writeLock().unlock();
+        }
+    }
+
+    // called with the write lock and facetLock held. The tokens and versions entry are not updated
+    // by stock reloads, so a book read before a purchase's stock reload keeps the newer stock.
+    private void putBook(IndexedBook book) {
+        index.put(book.id, book.title, book.genre, book.authorNames);
+        suggestions.put(book.id, book.title, book.authorLastNames);
+        final Long stockVersion = stockVersions.get(book.id);
+        if (stockVersion != null && stockVersion > book.bookVersion) {
+            facets.put(book.id, book.genre, book.price, Boolean.TRUE.equals(facets.isInStock(book.id)));
+        } else {
+            stockVersions.remove(book.id);
+            facets.put(book.id, book.genre, book.price, book.stock);
+        }
+    }
+
+    // called with the write lock and facetLock held
+    private void removeBook(int bookId) {
+        index.remove(bookId);
+        suggestions.remove(bookId);
+        facets.remove(bookId);
+        stockVersions.remove(bookId);
+        versions.put(bookId, IndexedVersion.DELETED);
+        recentlyDeleted.add(bookId);
+    }
+
+    // drops the tombstones of books deleted before the previous prune
+    private void pruneTombstones() {
+        lock.writeLock().lock();
+        try {
+            final int before = versions.size();
+            versions.entrySet().removeIf(entry ->
+                    entry.getValue() == IndexedVersion.DELETED && !recentlyDeleted.contains(entry.getKey()));
+            recentlyDeleted = new HashSet<>();
+            logger.debug("Pruned {} deleted book markers", before - versions.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int tombstones() {
+        lock.readLock().lock();
+        try {
+            return (int) versions.values().stream().filter(version -> version == IndexedVersion.DELETED).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // called with the write lock and facetLock held
+    private void recordChanged(Collection<Integer> bookIds) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.addAll(bookIds);
+        }
+    }
+
+    private static void put(BookTokenIndex tokens, AutocompleteTrie trie, BookFacets counts, IndexedBook book) {
+        tokens.put(book.id, book.title, book.genre, book.authorNames);
+        trie.put(book.id, book.title, book.authorLastNames);
+        counts.put(book.id, book.genre, book.price, book.stock);
+    }
+
+    // assembles each book from its rows, which the BookRepository.INDEX_ROW queries keep adjacent
+    private static void forEachBook(Iterator<BookIndexRow> rows, Consumer<IndexedBook> action) {
+        IndexedBook book = null;
+        while (rows.hasNext()) {
+            final BookIndexRow row = rows.next();
+            if (book == null || book.id != row.getId()) {
+                if (book != null) {
+                    action.accept(book);
+                }
+                book = new IndexedBook(row);
+            }
+            book.addAuthor(row);
+        }
+        if (book != null) {
+            action.accept(book);
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Reconcile Facet Counts -------------------
+    //--------------------------------------------------------------
+    // Returns true when the counts had drifted and books were reindexed, or the whole index rebuilt
+    // when no version explains the drift. Drift left by both kinds of write at once is caught by the
+    // next round, which then finds no version moved. A write landing while this
+    // runs is no reason to skip the round: a book reindexed here as well as after its commit is
+    // applied once, the version check drops the older reload.
+    @Scheduled(fixedDelayString = "${bookstore.facets.reconcile-interval:PT5M}",
+            initialDelayString = "${bookstore.facets.reconcile-interval:PT5M}")
+    public boolean reconcileFacets() {
+        pruneTombstones();
+
+        final BookFacets.Counts actual = BookFacets.fromGroupByRows(readTransaction.execute(status ->
+                entityManager.createQuery(FACETS_GROUP_BY, Object[].class).getResultList()));
+        final BookFacets.Counts indexed = facets();
+        if (indexed.sameAs(actual)) {
+            return false;
+        }
+
+        final Set<Integer> changed = changedBooks();
+        if (changed.isEmpty()) {
+            // a write that kept the version (plain SQL) cannot be told apart from the others
+            logger.warn("Facet counts differ from the database (total {} vs {}) but no book version moved, rebuilding",
+                    indexed.total(), actual.total());
+            rebuild();
+            return true;
+        }
+        logger.warn("Facet counts drifted from the database (total {} vs {}), reindexing {} books",
+                indexed.total(), actual.total(), changed.size());
+        reindex(changed);
+        return true;
+    }
+
+    // books whose database version is past the indexed one, not indexed yet, or gone from the
+    // database. Compared a batch at a time, so neither lock is held for the whole scan.
+    private Set<Integer> changedBooks() {
+        final Set<Integer> changed = new HashSet<>();
+        final BitSet seen = new BitSet();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<BookStockRow> rows = bookRepository.streamStockRows()) {
+                final Iterator<BookStockRow> iterator = rows.iterator();
+                final List<BookStockRow> batch = new ArrayList<>(batchSize);
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (batch.size() == batchSize || !iterator.hasNext()) {
+                        collectChanged(batch, changed, seen);
+                        batch.clear();
+                    }
+                }
+            }
+        });
+
+        lock.readLock().lock();
+        try {
+            versions.forEach((id, version) -> {
+                if (version != IndexedVersion.DELETED && !seen.get(id)) {
+                    changed.add(id);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return changed;
+    }
+
+    private void collectChanged(List<BookStockRow> rows, Set<Integer> changed, BitSet seen) {
+        lock.readLock().lock();
+        facetLock.lock();
+        try {
+            for (BookStockRow row : rows) {
+                seen.set(row.getId());
+                final IndexedVersion indexed = versions.get(row.getId());
+                if (indexed == null || isNewerStock(row, indexed)) {
+                    changed.add(row.getId());
+                }
+            }
+        } finally {
+            facetLock.unlock();
+            lock.readLock().unlock();
+        }
+    }
+
+    private PendingReindex pendingReindex() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingReindex pending && pending.owner == this) {
+                return pending;
+            }
+        }
+        PendingReindex pending = new PendingReindex(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    // a book as the index sees it
+    private static final class IndexedBook {
+
+        private final int id;
+        private final long bookVersion;
+        private final String title;
+        private final String genre;
+        private final double price;
+        private final int stock;
+        private final List<String> authorNames = new ArrayList<>();
+        private final List<String> authorLastNames = new ArrayList<>();
+        private long authorVersions;
+
+        IndexedBook(BookIndexRow row) {
+            this.id = row.getId();
+            this.bookVersion = row.getVersion();
+            this.title = row.getTitle();
+            this.genre = row.getGenre();
+            this.price = row.getPrice();
+            this.stock = row.getStock();
+        }
+
+        void addAuthor(BookIndexRow row) {
+            if (row.getAuthorVersion() != null) {
+                authorNames.add(row.getAuthorFirstName() + " " + row.getAuthorLastName());
+                authorLastNames.add(row.getAuthorLastName());
+                authorVersions += row.getAuthorVersion();
+            }
+        }
+
+        IndexedVersion version() {
+            return new IndexedVersion(bookVersion, authorVersions);
+        }
+    }
+
+    // Ordered by the book's @Version, then by the sum of its authors' versions. Attaching an author
+    // bumps the book's version, so at an equal book version the author set is the same and the sum
+    // only grows, with renames of those authors.
+    private record IndexedVersion(long book, long authors) {
+
+        static final IndexedVersion DELETED = new IndexedVersion(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        boolean isNewerThan(IndexedVersion other) {
+            return other == null || book > other.book || (book == other.book && authors > other.authors);
+        }
+    }
+
+    // Book ids changed in the current transaction. They are read just before it commits, on its
+    // connection and behind its row locks, so the rows are the ones that commit and afterCompletion
+    // needs no second connection; they are applied once it has committed.
+    private static final class PendingReindex implements TransactionSynchronization {
+
+        private final BookSearchIndex owner;
+        private final Set<Integer> bookIds = new LinkedHashSet<>();
+        // ids whose stock alone changed; a full reload of the same id covers them
+        private final Set<Integer> stockBookIds = new LinkedHashSet<>();
+
+        // null until read, or when the read failed
+        private List<IndexedBook> books;
+        private List<BookStockRow> stockRows;
+
+        PendingReindex(BookSearchIndex owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            bookIds.addAll(owner.notIndexed(stockBookIds));
+            stockBookIds.removeAll(bookIds);
+            try {
+                books = owner.loadBooks(bookIds);
+                stockRows = owner.loadStock(stockBookIds);
+            } catch (RuntimeException e) {
+                logger.warn("Could not read {} changed books before commit, reloading them after it",
+                        bookIds.size() + stockBookIds.size(), e);
+                books = null;
+                stockRows = null;
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+                return;
+            }
+            if (books == null || stockRows == null) {
+                owner.reindex(bookIds);
+                owner.reindexStock(stockBookIds);
+            } else {
+                owner.applyBooks(bookIds, books);
+                owner.applyStock(stockBookIds, stockRows);
+            }
+        }
+    }
+}
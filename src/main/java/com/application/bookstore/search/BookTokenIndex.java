@@ -0,0 +1,230 @@
+package com.application.bookstore.search;
+
+import java.util.*;
+
+// In-memory inverted index over book title, genre and author names. Each term maps to a posting
+// list of (book id, weight) sorted by id, so multi-term queries are a merge of sorted lists and new
+// books (ascending ids) are appended. Not thread-safe; BookSearchIndex guards it with a lock.
+//
+// weight(term, book) = sum over fields of boost / sqrt(field length), for each occurrence
+// score(query, book) = sum over matched terms of weight * idf, scaled by matched / query terms
+public class BookTokenIndex {
+
+    static final float TITLE_BOOST = 3.0f;
+    static final float AUTHOR_BOOST = 2.0f;
+    static final float GENRE_BOOST = 1.0f;
+
+    // longer queries are cut, so one request cannot merge an unbounded number of lists
+    static final int MAX_QUERY_TERMS = 16;
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+
+    // postings each book appears in, to remove it again on update/delete
+    private final Map<Integer, Postings[]> postingsByBook = new HashMap<>();
+
+    //--------------------------------------------------------------
+    //------------------- Add Or Replace Book ----------------------
+    //--------------------------------------------------------------
+    public void put(int bookId, String title, String genre, Collection<String> authorNames) {
+        remove(bookId);
+
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, SearchTokenizer.tokenize(title), TITLE_BOOST);
+        addField(weights, SearchTokenizer.tokenize(genre), GENRE_BOOST);
+        for (String authorName : authorNames) {
+            addField(weights, SearchTokenizer.tokenize(authorName), AUTHOR_BOOST);
+        }
+
+        Postings[] bookPostings = new Postings[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            Postings postings = postingsByTerm.computeIfAbsent(entry.getKey(), Postings::new);
+            postings.put(bookId, entry.getValue());
+            bookPostings[i++] = postings;
+        }
+        postingsByBook.put(bookId, bookPostings);
+    }
+
+    private static void addField(Map<String, Float> weights, List<String> tokens, float boost) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        final float weight = boost / (float) Math.sqrt(tokens.size());
+        for (String token : tokens) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Remove Book ------------------------------
+    //--------------------------------------------------------------
+    public void remove(int bookId) {
+        final Postings[] bookPostings = postingsByBook.remove(bookId);
+        if (bookPostings == null) {
+            return;
+        }
+        for (Postings postings : bookPostings) {
+            postings.remove(bookId);
+            if (postings.size == 0) {
+                postingsByTerm.remove(postings.term);
+            }
+        }
+    }
+
+    public int size() {
+        return postingsByBook.size();
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Ranked Search ----------------------------
+    //--------------------------------------------------------------
+    // hits offset .. offset + limit - 1 by descending score (ties by ascending id), plus the total
+    // number of matching books
+    public SearchResult search(String query, int offset, int limit) {
+        final List<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(query)).stream()
+                .limit(MAX_QUERY_TERMS).toList();
+
+        final List<Postings> lists = new ArrayList<>();
+        for (String term : terms) {
+            final Postings postings = postingsByTerm.get(term);
+            if (postings != null) {
+                lists.add(postings);
+            }
+        }
+        if (lists.isEmpty()) {
+            return new SearchResult(0, List.of());
+        }
+
+        final float[] idf = new float[lists.size()];
+        for (int i = 0; i < idf.length; i++) {
+            idf[i] = idf(lists.get(i).size);
+        }
+
+        TopHits topHits = new TopHits(offset + limit);
+        int total = 0;
+
+        // merge the sorted lists: visit ids in ascending order, summing the lists positioned on each
+        final int[] cursors = new int[lists.size()];
+        while (true) {
+            int bookId = Integer.MAX_VALUE;
+            for (int i = 0; i < cursors.length; i++) {
+                final Postings postings = lists.get(i);
+                if (cursors[i] < postings.size && postings.ids[cursors[i]] < bookId) {
+                    bookId = postings.ids[cursors[i]];
+                }
+            }
+            if (bookId == Integer.MAX_VALUE) {
+                break;
+            }
+
+            float score = 0;
+            int matched = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                final Postings postings = lists.get(i);
+                if (cursors[i] < postings.size && postings.ids[cursors[i]] == bookId) {
+                    score += postings.weights[cursors[i]] * idf[i];
+                    matched++;
+                    cursors[i]++;
+                }
+            }
+
+            total++;
+            topHits.offer(bookId, score * matched / terms.size());
+        }
+
+        final List<Hit> ranked = topHits.sorted();
+        final List<Hit> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+        return new SearchResult(total, page);
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    public record Hit(int bookId, float score) {
+    }
+
+    public record SearchResult(int total, List<Hit> hits) {
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Posting List -----------------------------
+    //--------------------------------------------------------------
+    private static final class Postings {
+
+        private final String term;
+        private int[] ids = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void put(int id, float weight) {
+            // ids mostly arrive in ascending order, so try the append first
+            int index = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            index = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            ids[index] = id;
+            weights[index] = weight;
+            size++;
+        }
+
+        void remove(int id) {
+            final int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+            size--;
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Bounded Top-K ----------------------------
+    //--------------------------------------------------------------
+    // min-heap of the best k hits; a candidate is only allocated when it beats the current worst
+    private static final class TopHits {
+
+        private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Hit::bookId, Comparator.reverseOrder());
+
+        private final int capacity;
+        private final PriorityQueue<Hit> heap;
+
+        TopHits(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(Math.min(capacity, 1024), WORST_FIRST);
+        }
+
+        void offer(int bookId, float score) {
+            if (heap.size() < capacity) {
+                heap.add(new Hit(bookId, score));
+                return;
+            }
+            final Hit worst = heap.peek();
+            // ids arrive ascending, so an equal score never beats an earlier (smaller) id
+            if (score > worst.score()) {
+                heap.poll();
+                heap.add(new Hit(bookId, score));
+            }
+        }
+
+        List<Hit> sorted() {
+            List<Hit> result = new ArrayList<>(heap);
+            result.sort(WORST_FIRST.reversed());
+            return result;
+        }
+    }
+}
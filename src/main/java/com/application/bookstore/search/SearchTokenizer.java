@@ -0,0 +1,65 @@
+package com.application.bookstore.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Splits text into lower-case letter/digit runs with accents folded, so "Márquez" and "marquez"
+// produce the same term. Used for both indexed fields and queries.
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        final String normalized = normalize(text);
+
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(normalized.substring(start));
+        }
+        return tokens;
+    }
+
+    // lower case with combining marks (accents) removed
+    public static String normalize(String text) {
+        final String lowerCase = text.toLowerCase(Locale.ROOT);
+        if (isAscii(lowerCase)) {
+            return lowerCase;
+        }
+        final String decomposed = Normalizer.normalize(lowerCase, Normalizer.Form.NFD);
+
+        StringBuilder result = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
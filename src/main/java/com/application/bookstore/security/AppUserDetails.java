@@ -0,0 +1,62 @@
+package com.application.bookstore.security;
+
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+// UserDetails view of an AppUser whose authorities are the shared, precomputed list for its
+// role set (see Role.authoritiesOf) rather than a fresh collection per authentication.
+public final class AppUserDetails implements UserDetails, CredentialsContainer {
+
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private String password;
+
+    public AppUserDetails(AppUser appUser) {
+        this.username = appUser.getUsername();
+        this.password = appUser.getPassword();
+        this.authorities = Role.authoritiesOf(appUser.getRoles());
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AppUserDetails other && username.equals(other.username);
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AppUserDetails{" +
+                "username='" + username + '\'' +
+                ", authorities=" + authorities +
+                '}';
+    }
+}
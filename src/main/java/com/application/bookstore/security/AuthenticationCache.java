@@ -0,0 +1,107 @@
+package com.application.bookstore.security;
+
+import com.application.bookstore.cache.BoundedTtlCache;
+import com.application.bookstore.dto.CacheStatsDto;
+import com.application.bookstore.event.AppUserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.LongSupplier;
+
+// Bounded, short-lived cache of successful username/password authentications. Entries are keyed
+// on an HMAC of the presented credentials under a random per-process key, so neither passwords
+// nor fast unsalted hashes of them are held in memory.
+@Component
+public class AuthenticationCache {
+
+    public static final String NAME = "authentication";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec hmacKey;
+
+    // keyed by credentials key, see key()
+    private final BoundedTtlCache<String, Entry> cache;
+
+    @Autowired
+    public AuthenticationCache(@Value("${bookstore.cache.authentication.max-size:10000}") int maxSize,
+                               @Value("${bookstore.cache.authentication.ttl:PT1M}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    AuthenticationCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        this.cache = new BoundedTtlCache<>(NAME, maxSize, ttl, nanoClock);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Credentials Key --------------------------
+    //--------------------------------------------------------------
+    public String key(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get / Put Authentication -----------------
+    //--------------------------------------------------------------
+    public Authentication get(String key) {
+        final Entry entry = cache.get(key);
+        return entry == null ? null : entry.authentication();
+    }
+
+    public long generation() {
+        return cache.generation();
+    }
+
+    // caches only if that user's entries were not invalidated since generation was read
+    public void put(String key, String username, Authentication authentication, long generation) {
+        cache.put(key, new Entry(username, authentication), generation);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Invalidate User --------------------------
+    //--------------------------------------------------------------
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppUserChanged(AppUserChangedEvent event) {
+        invalidateUser(event.getUsername());
+    }
+
+    public void invalidateUser(String username) {
+        cache.invalidateIf(entry -> entry.username().equals(username));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Cache Statistics -------------------------
+    //--------------------------------------------------------------
+    public CacheStatsDto getStats() {
+        return cache.getStats();
+    }
+
+    private record Entry(String username, Authentication authentication) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.application.bookstore.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Authenticates "Authorization: Bearer <token>" requests from the token alone. Requests without a
+// bearer token pass through untouched (e.g. to HTTP Basic); an invalid token is answered with 401.
+// Deliberately not a @Component: it is only registered in the security filter chain.
+public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BearerTokenAuthenticationFilter.class);
+
+    private static final String BEARER_PREFIX = JwtTokenService.TOKEN_TYPE + " ";
+
+    private final JwtTokenService jwtTokenService;
+
+    public BearerTokenAuthenticationFilter(JwtTokenService jwtTokenService) {
+        this.jwtTokenService = jwtTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        final String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(jwtTokenService.authenticate(header.substring(BEARER_PREFIX.length()).trim()));
+            SecurityContextHolder.setContext(context);
+        } catch (AuthenticationException e) {
+            logger.debug("Rejected bearer token: {}", e.getMessage());
+            SecurityContextHolder.clearContext();
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
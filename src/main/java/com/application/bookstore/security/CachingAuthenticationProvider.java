@@ -0,0 +1,54 @@
+package com.application.bookstore.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+// Serves repeat username/password authentications from AuthenticationCache, so only the first
+// request within the TTL pays for the user lookup and the bcrypt check. Failed attempts are never
+// cached and always go through the delegate.
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingAuthenticationProvider.class);
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationCache authenticationCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, AuthenticationCache authenticationCache) {
+        this.delegate = delegate;
+        this.authenticationCache = authenticationCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        final String username = authentication.getName();
+        if (username == null || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        final String key = authenticationCache.key(username, password);
+        final Authentication cached = authenticationCache.get(key);
+        if (cached != null) {
+            logger.debug("Authenticated user {} from cache", username);
+            // fresh token per request, so request-specific details are never shared
+            return UsernamePasswordAuthenticationToken.authenticated(cached.getPrincipal(), null, cached.getAuthorities());
+        }
+
+        final long generation = authenticationCache.generation();
+        final Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            authenticationCache.put(key, username,
+                    UsernamePasswordAuthenticationToken.authenticated(result.getPrincipal(), null, result.getAuthorities()),
+                    generation);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,222 @@
+package com.application.bookstore.security;
+
+import com.application.bookstore.dto.TokenDto;
+import com.application.bookstore.event.AppUserChangedEvent;
+import com.application.bookstore.model.Role;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Issues and verifies short-lived HS256 JWTs carrying the username and granted authorities, so a
+// bearer request is authenticated without the users table or the password encoder. Tokens of a
+// user are revoked when an AppUserChangedEvent is published for them. Revocations are held in
+// memory and apply on this instance only: with several instances, a token stays valid on the
+// others until it expires (bookstore.security.token.ttl).
+@Component
+public class JwtTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenService.class);
+
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String HEADER = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec signingKey;
+    private final Duration ttl;
+    private final Clock clock;
+
+    // every token and revocation takes a stamp: epoch microseconds, moved past the previous stamp
+    // so no two are equal and a token issued after a revocation always has the larger one
+    private final AtomicLong lastStamp = new AtomicLong();
+
+    // username -> stamp of the last revocation; tokens with a stamp at or below it are rejected
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JwtTokenService(ObjectMapper objectMapper,
+                           @Value("${bookstore.security.token.secret:}") String secret,
+                           @Value("${bookstore.security.token.ttl:PT15M}") Duration ttl) {
+        this(objectMapper, secret, ttl, Clock.systemUTC());
+    }
+
+    JwtTokenService(ObjectMapper objectMapper, String secret, Duration ttl, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.signingKey = new SecretKeySpec(secretBytes(secret), HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Issue Token ------------------------------
+    //--------------------------------------------------------------
+    public TokenDto issue(Authentication authentication) {
+        final Instant issuedAt = clock.instant();
+        final Claims claims = new Claims(
+                authentication.getName(),
+                AuthorityUtils.authorityListToSet(authentication.getAuthorities()).stream().sorted().toList(),
+                issuedAt.getEpochSecond(),
+                issuedAt.getEpochSecond() + ttl.toSeconds(),
+                nextStamp(issuedAt));
+
+        final String payload;
+        try {
+            payload = base64Url(objectMapper.writeValueAsBytes(claims));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize token claims", e);
+        }
+
+        final String unsigned = HEADER + "." + payload;
+        logger.debug("Issued token for user: {}", claims.sub());
+        return new TokenDto(unsigned + "." + base64Url(sign(unsigned)), TOKEN_TYPE, ttl.toSeconds());
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Verify Token -----------------------------
+    //--------------------------------------------------------------
+    public Authentication authenticate(String token) {
+        final int firstDot = token.indexOf('.');
+        final int lastDot = token.lastIndexOf('.');
+        if (firstDot < 0 || firstDot == lastDot) {
+            throw new BadCredentialsException("Malformed token");
+        }
+
+        final String unsigned = token.substring(0, lastDot);
+        if (!HEADER.equals(token.substring(0, firstDot))
+                || !MessageDigest.isEqual(sign(unsigned), base64UrlDecode(token.substring(lastDot + 1)))) {
+            throw new BadCredentialsException("Invalid token signature");
+        }
+
+        final Claims claims;
+        try {
+            claims = objectMapper.readValue(base64UrlDecode(token.substring(firstDot + 1, lastDot)), Claims.class);
+        } catch (IOException e) {
+            throw new BadCredentialsException("Malformed token");
+        }
+
+        final long now = clock.instant().getEpochSecond();
+        if (claims.sub() == null || claims.stamp() == null) {
+            throw new BadCredentialsException("Malformed token");
+        }
+        if (now >= claims.exp()) {
+            throw new CredentialsExpiredException("Token expired");
+        }
+        final Long revoked = revokedAt.get(claims.sub());
+        if (revoked != null && claims.stamp() <= revoked) {
+            throw new CredentialsExpiredException("Token revoked");
+        }
+
+        return UsernamePasswordAuthenticationToken.authenticated(claims.sub(), null, toAuthorities(claims.roles()));
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Revoke Tokens Of Changed User ------------
+    //--------------------------------------------------------------
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppUserChanged(AppUserChangedEvent event) {
+        revokeUser(event.getUsername());
+    }
+
+    public void revokeUser(String username) {
+        final long stamp = nextStamp(clock.instant());
+        revokedAt.put(username, stamp);
+        // older revocations can no longer match an unexpired token
+        final long oldest = stamp - ttl.toNanos() / 1000;
+        revokedAt.values().removeIf(revoked -> revoked < oldest);
+        logger.info("Revoked tokens issued so far for user: {}", username);
+    }
+
+    private long nextStamp(Instant now) {
+        final long micros = ChronoUnit.MICROS.between(Instant.EPOCH, now);
+        return lastStamp.accumulateAndGet(micros, (last, current) -> Math.max(last + 1, current));
+    }
+
+
+    // back to the shared authority list of the role set
+    private static List<GrantedAuthority> toAuthorities(List<String> authorityNames) {
+        if (authorityNames == null) {
+            throw new BadCredentialsException("Malformed token");
+        }
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : Role.values()) {
+            if (authorityNames.contains(role.getAuthority().getAuthority())) {
+                roles.add(role);
+            }
+        }
+        if (roles.size() != authorityNames.size()) {
+            throw new BadCredentialsException("Unknown role in token");
+        }
+        return Role.authoritiesOf(roles);
+    }
+
+    private byte[] sign(String unsigned) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(unsigned.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    // a blank secret means a random key per process: tokens then die with a restart
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            logger.warn("bookstore.security.token.secret is not set, using a random signing key");
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = Base64.getDecoder().decode(secret.trim());
+        if (key.length < 32) {
+            throw new IllegalStateException("bookstore.security.token.secret must be at least 256 bits");
+        }
+        return key;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] base64UrlDecode(String value) {
+        try {
+            return Base64.getUrlDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new BadCredentialsException("Malformed token");
+        }
+    }
+
+    // stamp is a private claim, see nextStamp
+    private record Claims(String sub, List<String> roles, long iat, long exp, Long stamp) {
+    }
+}
@@ -1,41 +1,53 @@
 package com.application.bookstore.service;
 
+import com.application.bookstore.config.MetricsConfig;
 import com.application.bookstore.dto.AppUserDto;
 import com.application.bookstore.dto.AppUserRequestDto;
-import com.application.bookstore.exception.AttributeAlreadyExistsException;
+import com.application.bookstore.event.AppUserChangedEvent;
+import com.application.bookstore.exception.UniqueConstraintViolations;
 import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.logging.LogMarkers;
 import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
 import com.application.bookstore.repository.AppUserRepository;
+import com.application.bookstore.security.AppUserDetails;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AppUserService implements UserDetailsService {
 
     private static final Logger logger = LoggerFactory.getLogger(AppUserService.class);
 
     private final AppUserRepository appUserRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AppUserService(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder) {
+    public AppUserService(AppUserRepository appUserRepository, PasswordEncoder passwordEncoder,
+                          ApplicationEventPublisher eventPublisher) {
         this.appUserRepository = appUserRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     //--------------------------------------------------------------
     //------------------- Get All AppUsers -------------------------
     //--------------------------------------------------------------
     public List<AppUserDto> getAll() {
-        logger.info("Fetching all users");
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching all users");
         return toDto(appUserRepository.findAll());
     }
 
@@ -43,7 +55,7 @@ public class AppUserService implements UserDetailsService {
     //------------------- Get Single AppUser By Id -----------------
     //--------------------------------------------------------------
     public AppUserDto getById(int id) {
-        logger.info("Fetching user with ID: {}", id);
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching user with ID: {}", id);
         return appUserRepository.findById(id)
                 .map(this::toDto)
                 .orElseThrow(() -> {
@@ -64,7 +76,7 @@ public class AppUserService implements UserDetailsService {
         AppUser user = toEntity(appUserRequestDto);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
-        final AppUser savedUser = appUserRepository.save(user);
+        final AppUser savedUser = UniqueConstraintViolations.saveUnique(appUserRepository, user, AppUser.UK_USERNAME, user.getUsername());
         logger.info("User created successfully with ID: {} and username: {}", savedUser.getId(), savedUser.getUsername());
         return toDto(savedUser);
     }
@@ -79,6 +91,7 @@ public class AppUserService implements UserDetailsService {
                     logger.warn("Cannot update: User not found with ID: {}", id);
                     return new EntityNotFoundException("AppUser not found with id " + id);
                 });
+        final String previousUsername = existingAppUser.getUsername();
 
         if (appUserRequestDto.getUsername() != null) {
             existingAppUser.setUsername(appUserRequestDto.getUsername());
@@ -87,10 +100,12 @@ public class AppUserService implements UserDetailsService {
             existingAppUser.setPassword(passwordEncoder.encode(appUserRequestDto.getPassword()));
         }
         if (appUserRequestDto.getRoles() != null) {
-            existingAppUser.setRoles(appUserRequestDto.getRoles());
+            existingAppUser.setRoles(parseRoles(appUserRequestDto.getRoles()));
         }
 
-        final AppUser savedUser = appUserRepository.save(existingAppUser);
+        final AppUser savedUser = UniqueConstraintViolations.saveUnique(appUserRepository, existingAppUser, AppUser.UK_USERNAME, existingAppUser.getUsername());
+        // cached logins and issued tokens of the old credentials must stop working
+        eventPublisher.publishEvent(new AppUserChangedEvent(previousUsername));
         logger.info("User updated successfully with ID: {}", savedUser.getId());
         return toDto(savedUser);
     }
@@ -100,11 +115,12 @@ public class AppUserService implements UserDetailsService {
     //--------------------------------------------------------------
     public void delete(int id) {
         logger.info("Deleting user with ID: {}", id);
-        if (!appUserRepository.existsById(id)) {
+        final AppUser appUser = appUserRepository.findById(id).orElseThrow(() -> {
             logger.warn("Attempted to delete non-existent user ID: {}", id);
-            throw new EntityNotFoundException("AppUser not found with id " + id);
-        }
-        appUserRepository.deleteById(id);
+            return new EntityNotFoundException("AppUser not found with id " + id);
+        });
+        appUserRepository.delete(appUser);
+        eventPublisher.publishEvent(new AppUserChangedEvent(appUser.getUsername()));
         logger.info("User deleted successfully with ID: {}", id);
     }
 
@@ -125,7 +141,7 @@ public class AppUserService implements UserDetailsService {
         }
 
         logger.debug("User found for authentication: {} with roles: {}", username, appUser.getRoles());
-        return User.withUsername(appUser.getUsername()).password(appUser.getPassword()).roles(appUser.getRoles().split(",")).build();
+        return new AppUserDetails(appUser);
     }
 
 
@@ -146,9 +162,19 @@ public class AppUserService implements UserDetailsService {
             throw new ValidationException("roles");
         }
 
-        // Check if username already exists in database
-        if (appUserRepository.findByUsername(appUserRequestDto.getUsername()) != null) {
-            throw new AttributeAlreadyExistsException("AppUser", "username", appUserRequestDto.getUsername());
+        if (parseRoles(appUserRequestDto.getRoles()).isEmpty()) {
+            throw new ValidationException("roles", "at least one role is required");
+        }
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Parse Roles ------------------------------
+    //--------------------------------------------------------------
+    private Set<Role> parseRoles(String roles) {
+        try {
+            return Role.parse(roles);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("roles", "roles should be any of " + Arrays.toString(Role.values()));
         }
     }
 
@@ -166,7 +192,7 @@ public class AppUserService implements UserDetailsService {
         AppUserDto result = new AppUserDto();
         result.setId(user.getId());
         result.setUsername(user.getUsername());
-        result.setRoles(user.getRoles());
+        result.setRoles(Role.format(user.getRoles()));
 
         return result;
     }
@@ -181,7 +207,7 @@ public class AppUserService implements UserDetailsService {
         AppUser result = new AppUser();
         result.setUsername(appUserRequestDto.getUsername());
         result.setPassword(appUserRequestDto.getPassword());
-        result.setRoles(appUserRequestDto.getRoles().toUpperCase());
+        result.setRoles(parseRoles(appUserRequestDto.getRoles()));
 
         return result;
     }
@@ -0,0 +1,47 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.LoginRequestDto;
+import com.application.bookstore.dto.TokenDto;
+import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.security.JwtTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AuthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtTokenService jwtTokenService;
+
+    public AuthService(AuthenticationManager authenticationManager, JwtTokenService jwtTokenService) {
+        this.authenticationManager = authenticationManager;
+        this.jwtTokenService = jwtTokenService;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Login And Issue Token --------------------
+    //--------------------------------------------------------------
+    public TokenDto login(LoginRequestDto loginRequestDto) {
+        logger.info("Login attempt for username: {}", loginRequestDto.getUsername());
+
+        if (loginRequestDto.getUsername() == null) {
+            throw new ValidationException("username");
+        }
+        if (loginRequestDto.getPassword() == null) {
+            throw new ValidationException("password");
+        }
+
+        // the one bcrypt check; later requests present the token instead
+        final Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(loginRequestDto.getUsername(), loginRequestDto.getPassword()));
+
+        logger.info("Issuing token for username: {}", authentication.getName());
+        return jwtTokenService.issue(authentication);
+    }
+}
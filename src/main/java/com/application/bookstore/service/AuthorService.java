@@ -1,21 +1,29 @@
 package com.application.bookstore.service;
 
+import com.application.bookstore.config.MetricsConfig;
 import com.application.bookstore.dto.*;
-import com.application.bookstore.exception.AttributeAlreadyExistsException;
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.exception.UniqueConstraintViolations;
 import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.logging.LogMarkers;
 import com.application.bookstore.model.Author;
 import com.application.bookstore.model.Book;
 import com.application.bookstore.repository.AuthorRepository;
 import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.VersionRow;
+import com.application.bookstore.validation.EmailValidator;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AuthorService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthorService.class);
@@ -24,9 +32,12 @@ public class AuthorService {
 
     private final BookRepository bookRepository;
 
-    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository, ApplicationEventPublisher eventPublisher) {
         this.authorRepository = authorRepository;
         this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -35,18 +46,37 @@ public class AuthorService {
     //--------------------------------------------------------------
     public List<AuthorDto> getAll() {
 
-        logger.info("Fetching all authors");
-        return toDto(authorRepository.findAll());
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching all authors");
+        return toDto(authorRepository.findAllWithBooks());
 
     }
 
+    //--------------------------------------------------------------
+    //------------------- Get Version Of All Authors ---------------
+    //--------------------------------------------------------------
+    public ResourceVersion getCatalogVersion() {
+        return ResourceVersion.ofCatalog("authors", bookRepository.getVersionTotals(), authorRepository.getVersionTotals());
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Version Of Single Author -------------
+    //--------------------------------------------------------------
+    public ResourceVersion getVersion(int id) {
+        final List<VersionRow> rows = authorRepository.findVersionById(id);
+        if (rows.isEmpty()) {
+            logger.warn("Author not found with ID: {}", id);
+            throw new EntityNotFoundException("Author not found with id " + id);
+        }
+        return ResourceVersion.ofEntity("author", rows);
+    }
+
     //--------------------------------------------------------------
     //------------------- Get Single Author By Id-------------------
     //--------------------------------------------------------------
     public AuthorDto getById(int id) {
 
-        logger.info("Fetching author with ID: {}", id);
-        return authorRepository.findById(id).map(this::toDto).orElseThrow(() -> {
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching author with ID: {}", id);
+        return authorRepository.findWithBooksById(id).map(this::toDto).orElseThrow(() -> {
             logger.warn("Author not found with ID: {}", id);
             return new EntityNotFoundException("Author not found with id " + id);
         });
@@ -61,10 +91,9 @@ public class AuthorService {
         logger.info("Creating author with email: {}", authorRequestDto.getEmail());
 
         validateAuthorRequestDto(authorRequestDto);
-        validateEmailUniqueness(authorRequestDto.getEmail());
 
         Author author = toEntity(authorRequestDto);
-        final Author savedAuthor = authorRepository.save(author);
+        final Author savedAuthor = UniqueConstraintViolations.saveUnique(authorRepository, author, Author.UK_EMAIL, author.getEmail());
 
         logger.info("Author created with ID: {} and email: {}", savedAuthor.getId(), savedAuthor.getEmail());
 
@@ -81,7 +110,6 @@ public class AuthorService {
         AuthorRequestDto authorRequestDto = authorWithBookRequestDto.getAuthor();
 
         validateAuthorRequestDto(authorRequestDto);
-        validateEmailUniqueness(authorRequestDto.getEmail());
 
         Author author = toEntity(authorRequestDto);
 
@@ -94,8 +122,9 @@ public class AuthorService {
 
         author.setBooks(books);
 
-        final Author savedAuthor = authorRepository.save(author);
+        final Author savedAuthor = UniqueConstraintViolations.saveUnique(authorRepository, author, Author.UK_EMAIL, author.getEmail());
         logger.info("Author created successfully with ID: {} and {} associated books", savedAuthor.getId(), books.size());
+        publishBooksChanged(savedAuthor);
         return toDto(savedAuthor);
 
 
@@ -127,9 +156,10 @@ public class AuthorService {
         }
 
 
-        final Author savedAuthor = authorRepository.save(existingAuthor);
+        final Author savedAuthor = UniqueConstraintViolations.saveUnique(authorRepository, existingAuthor, Author.UK_EMAIL, existingAuthor.getEmail());
 
         logger.info("Author updated successfully with ID: {}", savedAuthor.getId());
+        publishBooksChanged(savedAuthor);
         return toDto(savedAuthor);
     }
 
@@ -167,7 +197,7 @@ public class AuthorService {
             throw new ValidationException("email");
         }
 
-        if (!authorRequestDto.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!EmailValidator.isValid(authorRequestDto.getEmail())) {
             throw new ValidationException("email", "Invalid email format");
         }
 
@@ -178,13 +208,13 @@ public class AuthorService {
     }
 
     //--------------------------------------------------------------
-    //------------------- Check Email Uniqueness -------------------
+    //------------------- Publish Changes Of Attached Books --------
     //--------------------------------------------------------------
-    private void validateEmailUniqueness(String email) {
-        if (authorRepository.findByEmail(email) != null) {
-            throw new AttributeAlreadyExistsException("Author", "email", email);
+    private void publishBooksChanged(Author author) {
+        // book DTOs embed author details, so every attached book changes with the author
+        for (Book book : author.getBooks()) {
+            eventPublisher.publishEvent(BookChangedEvent.saved(book.getId()));
         }
-
     }
 
     //--------------------------------------------------------------
@@ -0,0 +1,113 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.AuthorRequestDto;
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.repository.BookExportRow;
+import com.application.bookstore.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes the whole catalog as NDJSON straight from a database cursor. The cursor returns scalar
+// rows with the authors joined, so the whole export is one statement and nothing is kept in the
+// persistence context; heap use does not grow with the number of exported books.
+@Service
+public class BookExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookExportService.class);
+
+    private final BookRepository bookRepository;
+    private final ObjectWriter lineWriter;
+    private final int chunkSize;
+
+    public BookExportService(BookRepository bookRepository, ObjectMapper objectMapper,
+                             @Value("${bookstore.export.chunk-size:500}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        // one document per line, flushed per chunk rather than per book
+        this.lineWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        this.chunkSize = chunkSize;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Export NDJSON ----------------------------
+    //--------------------------------------------------------------
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        logger.info("Exporting books as NDJSON");
+
+        long count = 0;
+        try (Stream<BookExportRow> rows = bookRepository.streamExportRows();
+             JsonGenerator generator = lineWriter.createGenerator(out)) {
+
+            // the rows of one book are adjacent; a book is written once its last row has been read
+            final Iterator<BookExportRow> iterator = rows.iterator();
+            BookDto book = null;
+            while (iterator.hasNext()) {
+                final BookExportRow row = iterator.next();
+                if (book != null && book.getId() != row.getId()) {
+                    count = write(generator, book, count);
+                    book = null;
+                }
+                if (book == null) {
+                    book = toDto(row);
+                }
+                if (row.getAuthorId() != null) {
+                    book.getAuthor().add(toAuthorDto(row));
+                }
+            }
+            if (book != null) {
+                count = write(generator, book, count);
+            }
+        }
+
+        logger.info("Book export finished - exported: {}", count);
+        return count;
+    }
+
+    private long write(JsonGenerator generator, BookDto book, long count) throws IOException {
+        lineWriter.writeValue(generator, book);
+        generator.writeRaw('\n');
+
+        if (++count % chunkSize == 0) {
+            generator.flush();
+            logger.debug("Exported {} books", count);
+        }
+        return count;
+    }
+
+    // same shape as BookService.toDto
+    private static BookDto toDto(BookExportRow row) {
+        BookDto result = new BookDto();
+        result.setId(row.getId());
+        result.setTitle(row.getTitle());
+        result.setGenre(row.getGenre());
+        result.setPrice(row.getPrice());
+        result.setStock(row.getStock());
+        result.setAuthor(new ArrayList<>());
+        return result;
+    }
+
+    private static AuthorRequestDto toAuthorDto(BookExportRow row) {
+        AuthorRequestDto result = new AuthorRequestDto();
+        result.setFirstName(row.getAuthorFirstName());
+        result.setLastName(row.getAuthorLastName());
+        result.setEmail(row.getAuthorEmail());
+        result.setNationality(row.getAuthorNationality());
+        return result;
+    }
+}
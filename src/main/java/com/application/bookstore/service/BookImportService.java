@@ -0,0 +1,357 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.BookImportErrorDto;
+import com.application.bookstore.dto.BookImportResultDto;
+import com.application.bookstore.dto.BookImportRowDto;
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.validation.EmailValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Streams CSV / NDJSON book rows from the request body and persists them in chunks, each in its own
+// transaction, so memory stays flat and one bad row only fails that row (or at worst its chunk).
+@Service
+public class BookImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    static final List<String> CSV_COLUMNS = List.of("title", "price", "genre", "stock", "authorEmails");
+
+    static final String CHUNK_ROLLED_BACK = "chunk rolled back";
+
+    // a stray quote would otherwise join the rest of the file into one record
+    static final int MAX_CSV_RECORD_LENGTH = 64 * 1024;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final BookService bookService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader rowReader;
+    private final int chunkSize;
+
+    public BookImportService(BookRepository bookRepository, AuthorRepository authorRepository, BookService bookService,
+                             TransactionTemplate transactionTemplate, EntityManager entityManager,
+                             ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                             @Value("${bookstore.import.chunk-size:500}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.bookService = bookService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.rowReader = objectMapper.readerFor(BookImportRowDto.class);
+        this.chunkSize = chunkSize;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Import CSV -------------------------------
+    //--------------------------------------------------------------
+    public BookImportResultDto importCsv(InputStream body) throws IOException {
+        logger.info("Importing books from CSV");
+
+        return importLines(body, true, new Function<>() {
+            private int[] columnIndexes;
+
+            @Override
+            public BookImportRowDto apply(String record) {
+                final List<String> values = parseCsvLine(record);
+                if (columnIndexes == null) {
+                    columnIndexes = toColumnIndexes(values);
+                    return null;
+                }
+                return toRow(values, columnIndexes);
+            }
+        });
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Import NDJSON ----------------------------
+    //--------------------------------------------------------------
+    public BookImportResultDto importNdjson(InputStream body) throws IOException {
+        logger.info("Importing books from NDJSON");
+
+        return importLines(body, false, line -> {
+            final BookImportRowDto row;
+            try {
+                row = rowReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                throw new ValidationException("row", "malformed JSON: " + e.getOriginalMessage());
+            }
+            if (row == null) {
+                throw new ValidationException("row", "expected a JSON object, got null");
+            }
+            return row;
+        });
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Read Lines In Chunks ---------------------
+    //--------------------------------------------------------------
+    // parser returns null for a line that is no row (the CSV header). With csvRecords, a line that
+    // leaves a quoted field open is joined with the next ones, so a quoted field may hold line
+    // breaks; the record is reported by its first line.
+    private BookImportResultDto importLines(InputStream body, boolean csvRecords,
+                                            Function<String, BookImportRowDto> parser) throws IOException {
+        BookImportResultDto result = new BookImportResultDto();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                final long recordLine = lineNumber;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                String record = line;
+                while (csvRecords && hasOpenQuote(record) && record.length() < MAX_CSV_RECORD_LENGTH
+                        && (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    record = record + "\n" + line;
+                }
+
+                final BookImportRowDto row;
+                try {
+                    row = parser.apply(record);
+                } catch (ValidationException e) {
+                    fail(result, recordLine, e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    continue; // CSV header
+                }
+
+                chunk.add(new ImportRow(recordLine, row));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+
+        logger.info("Book import finished - imported: {}, failed: {}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Persist One Chunk ------------------------
+    //--------------------------------------------------------------
+    private void importChunk(List<ImportRow> chunk, BookImportResultDto result) {
+        final List<BookImportErrorDto> rowErrors = new ArrayList<>();
+
+        try {
+            final List<Integer> savedIds = transactionTemplate.execute(status -> {
+                final Map<String, Author> authorsByEmail = findAuthors(chunk);
+
+                List<Book> books = new ArrayList<>(chunk.size());
+                for (ImportRow importRow : chunk) {
+                    final Book book = toBook(importRow, authorsByEmail, rowErrors);
+                    if (book != null) {
+                        books.add(book);
+                    }
+                }
+
+                final List<Integer> ids = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+
+                // push the batched inserts out and drop the chunk from the persistence context
+                entityManager.flush();
+                entityManager.clear();
+
+                ids.forEach(id -> eventPublisher.publishEvent(BookChangedEvent.saved(id)));
+                return ids;
+            });
+
+            result.setImported(result.getImported() + savedIds.size());
+            rowErrors.forEach(error -> fail(result, error.getLine(), error.getReason()));
+            logger.debug("Imported chunk of {} books", savedIds.size());
+        } catch (RuntimeException e) {
+            // the cause may carry SQL and constraint details, so it stays in the log
+            logger.warn("Book import chunk starting at line {} rolled back", chunk.getFirst().line(), e);
+            chunk.forEach(importRow -> fail(result, importRow.line(), CHUNK_ROLLED_BACK));
+        }
+    }
+
+    // one query per chunk for every author email referenced by its rows
+    private Map<String, Author> findAuthors(List<ImportRow> chunk) {
+        final Set<String> emails = chunk.stream()
+                .map(importRow -> importRow.row().getAuthorEmails())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(EmailValidator::isValid)
+                .collect(Collectors.toSet());
+
+        if (emails.isEmpty()) {
+            return Map.of();
+        }
+        // keyed by normalised email: a case-insensitive collation (MySQL) matches emails that differ in case
+        return authorRepository.findByEmailIn(emails).stream()
+                .collect(Collectors.toMap(author -> emailKey(author.getEmail()), Function.identity(), (first, second) -> first));
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private Book toBook(ImportRow importRow, Map<String, Author> authorsByEmail, List<BookImportErrorDto> rowErrors) {
+        final BookImportRowDto row = importRow.row();
+        try {
+            bookService.validateBookRequestDto(row);
+        } catch (ValidationException e) {
+            rowErrors.add(new BookImportErrorDto(importRow.line(), e.getMessage()));
+            return null;
+        }
+
+        Book book = bookService.toEntity(row);
+        if (row.getAuthorEmails() != null) {
+            final Set<String> addedEmails = new HashSet<>();
+            for (String email : row.getAuthorEmails()) {
+                if (!EmailValidator.isValid(email)) {
+                    rowErrors.add(new BookImportErrorDto(importRow.line(), "authorEmails - Invalid email format: " + email));
+                    return null;
+                }
+                if (!addedEmails.add(emailKey(email))) {
+                    continue; // listed twice; a second book_author row would duplicate the first
+                }
+                final Author author = authorsByEmail.get(emailKey(email));
+                if (author == null) {
+                    rowErrors.add(new BookImportErrorDto(importRow.line(), "Author not found with email " + email));
+                    return null;
+                }
+                book.getAuthors().add(author);
+            }
+        }
+        return book;
+    }
+
+    private void fail(BookImportResultDto result, long line, String reason) {
+        result.setFailed(result.getFailed() + 1);
+        result.getErrors().add(new BookImportErrorDto(line, reason));
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- CSV Parsing ------------------------------
+    //--------------------------------------------------------------
+    private int[] toColumnIndexes(List<String> header) {
+        int[] indexes = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (header.get(j).trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                    indexes[i] = j;
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private BookImportRowDto toRow(List<String> values, int[] columnIndexes) {
+        BookImportRowDto row = new BookImportRowDto();
+        row.setTitle(column(values, columnIndexes[0]));
+        row.setPrice(parseNumber("price", column(values, columnIndexes[1]), Double::parseDouble, 0.0));
+        row.setGenre(column(values, columnIndexes[2]));
+        row.setStock(parseNumber("stock", column(values, columnIndexes[3]), Integer::parseInt, 0));
+
+        final String authorEmails = column(values, columnIndexes[4]);
+        if (authorEmails != null) {
+            row.setAuthorEmails(Arrays.stream(authorEmails.split(";"))
+                    .map(String::trim)
+                    .filter(email -> !email.isEmpty())
+                    .toList());
+        }
+        return row;
+    }
+
+    private String column(List<String> values, int index) {
+        if (index < 0 || index >= values.size()) {
+            return null;
+        }
+        final String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private <T> T parseNumber(String attributeName, String value, Function<String, T> parser, T defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException(attributeName, "not a number: " + value);
+        }
+    }
+
+    // every quote opens or closes a field and an escaped "" adds two, so an odd count leaves one open
+    private static boolean hasOpenQuote(String record) {
+        return record.chars().filter(c -> c == '"').count() % 2 == 1;
+    }
+
+    // RFC 4180 style: comma separated, fields may be double-quoted with "" as an escaped quote and
+    // may span lines (see importLines)
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("row", "unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private record ImportRow(long line, BookImportRowDto row) {
+    }
+}
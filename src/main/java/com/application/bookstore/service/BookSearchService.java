@@ -0,0 +1,153 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.config.MetricsConfig;
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.BookFacetsDto;
+import com.application.bookstore.dto.BookSearchResultDto;
+import com.application.bookstore.dto.BookSuggestionDto;
+import com.application.bookstore.dto.FacetCountDto;
+import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.logging.LogMarkers;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.search.AutocompleteTrie;
+import com.application.bookstore.search.BookFacets;
+import com.application.bookstore.search.BookSearchIndex;
+import com.application.bookstore.search.BookTokenIndex;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Full-text search over title, genre and author names, title / author autocomplete and catalog
+// facet counts. All run on the in-memory BookSearchIndex; only the books of a search page are
+// loaded, in a single query, and suggestions and facets never touch the database.
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class BookSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchService.class);
+
+    // deepest result reachable by offset + limit; a search is for the top of the ranking
+    public static final int MAX_SEARCH_WINDOW = 1000;
+
+    private final BookSearchIndex bookSearchIndex;
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+
+    public BookSearchService(BookSearchIndex bookSearchIndex, BookRepository bookRepository, BookService bookService) {
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Search Books -----------------------------
+    //--------------------------------------------------------------
+    public BookSearchResultDto search(String query, int offset, int limit) {
+        logger.info(LogMarkers.SAMPLED_READ, "Searching books for: {} with offset: {} and limit: {}", query, offset, limit);
+
+        validateSearch(query, offset, limit);
+
+        final BookTokenIndex.SearchResult searchResult = bookSearchIndex.search(query, offset, limit);
+        final List<Integer> ids = searchResult.hits().stream().map(BookTokenIndex.Hit::bookId).toList();
+
+        BookSearchResultDto result = new BookSearchResultDto();
+        result.setQuery(query);
+        result.setTotal(searchResult.total());
+        result.setOffset(offset);
+        result.setLimit(limit);
+        result.setBooks(ids.isEmpty() ? List.of() : loadInOrder(ids));
+
+        return result;
+    }
+
+    // a book deleted between ranking and loading is left out of the page
+    private List<BookDto> loadInOrder(List<Integer> ids) {
+        final Map<Integer, Book> booksById = bookRepository.findWithAuthorsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        List<BookDto> books = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            final Book book = booksById.get(id);
+            if (book != null) {
+                books.add(bookService.toDto(book));
+            }
+        }
+        return books;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Autocomplete Titles And Authors ----------
+    //--------------------------------------------------------------
+    public List<BookSuggestionDto> autocomplete(String query, int limit) {
+        logger.info(LogMarkers.SAMPLED_READ, "Suggesting books for: {} with limit: {}", query, limit);
+
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("q");
+        }
+        if (limit < 1 || limit > AutocompleteTrie.MAX_SUGGESTIONS) {
+            throw new ValidationException("limit", "limit should be between 1 and " + AutocompleteTrie.MAX_SUGGESTIONS);
+        }
+
+        return bookSearchIndex.suggest(query, limit).stream().map(this::toDto).toList();
+    }
+
+    private BookSuggestionDto toDto(AutocompleteTrie.Match match) {
+        BookSuggestionDto result = new BookSuggestionDto();
+        result.setText(match.text());
+        result.setType(match.kind().name());
+        result.setBooks(match.books());
+        return result;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Catalog Facet Counts ---------------------
+    //--------------------------------------------------------------
+    public BookFacetsDto getFacets() {
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching book facets");
+
+        final BookFacets.Counts counts = bookSearchIndex.facets();
+
+        BookFacetsDto result = new BookFacetsDto();
+        result.setTotal(counts.total());
+        result.setInStock(counts.inStock());
+        result.setGenres(counts.genres().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(genre -> new FacetCountDto(genre.getKey(), genre.getValue()))
+                .toList());
+
+        List<FacetCountDto> priceRanges = new ArrayList<>(BookFacets.PRICE_RANGES.size());
+        for (int range = 0; range < BookFacets.PRICE_RANGES.size(); range++) {
+            priceRanges.add(new FacetCountDto(BookFacets.PRICE_RANGES.get(range), counts.priceRanges()[range]));
+        }
+        result.setPriceRanges(priceRanges);
+
+        return result;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Validate Search --------------------------
+    //--------------------------------------------------------------
+    public void validateSearch(String query, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("q");
+        }
+        if (limit < 1 || limit > BookService.MAX_PAGE_LIMIT) {
+            throw new ValidationException("limit", "limit should be between 1 and " + BookService.MAX_PAGE_LIMIT);
+        }
+        if (offset < 0 || offset + limit > MAX_SEARCH_WINDOW) {
+            throw new ValidationException("offset", "offset + limit should be between 1 and " + MAX_SEARCH_WINDOW);
+        }
+    }
+}
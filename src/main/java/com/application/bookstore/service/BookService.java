@@ -1,264 +1,440 @@
-package com.application.bookstore.service;
-
-import com.application.bookstore.dto.*;
-import com.application.bookstore.exception.ValidationException;
-import com.application.bookstore.model.Author;
-import com.application.bookstore.model.Book;
-import com.application.bookstore.repository.AuthorRepository;
-import com.application.bookstore.repository.BookRepository;
-import jakarta.persistence.EntityNotFoundException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
-
-import java.util.List;
-
-@Service
-public class BookService {
-
-    private static final Logger logger = LoggerFactory.getLogger(BookService.class);
-
-    private final BookRepository bookRepository;
-    private final AuthorRepository authorRepository;
-    private final AuthorService authorService;
-
-    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, AuthorService authorService) {
-        this.bookRepository = bookRepository;
-        this.authorRepository = authorRepository;
-        this.authorService = authorService;
-    }
-
-
-    //--------------------------------------------------------------
-    //------------------- Get All Books ----------------------------
-    //--------------------------------------------------------------
-    public List<BookDto> getAll() {
-        logger.info("Fetching all books");
-        return toDto(bookRepository.findAll());
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Get Single Book By Id --------------------
-    //--------------------------------------------------------------
-    public BookDto getById(int id) {
-        logger.info("Fetching book with ID: {}", id);
-        return bookRepository.findById(id).map(this::toDto).orElseThrow(() -> {
-            logger.warn("Book not found with ID: {}", id);
-            return new EntityNotFoundException("Book not found with id " + id);
-        });
-
-
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Create New Book --------------------------
-    //--------------------------------------------------------------
-    public BookDto create(BookRequestDto bookRequestDto) {
-
-        logger.info("Creating new book with title: {}", bookRequestDto.getTitle());
-
-        validateBookRequestDto(bookRequestDto);
-
-        Book book = toEntity(bookRequestDto);
-        final Book savedBook = bookRepository.save(book);
-
-        logger.info("Book created successfully with ID: {} and title: {}", savedBook.getId(), savedBook.getTitle());
-        return toDto(savedBook);
-
-
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Create New Book With New Author ----------
-    //--------------------------------------------------------------
-    public BookDto createBookWithNewAuthor(BookWithNewAuthorDto bookWithNewAuthorDto) {
-
-        logger.info("Creating book with new author - Book title: {}, Author email: {}", bookWithNewAuthorDto.getBook().getTitle(), bookWithNewAuthorDto.getAuthor().getEmail());
-
-        BookRequestDto bookRequestDto = bookWithNewAuthorDto.getBook();
-        AuthorRequestDto authorRequestDto = bookWithNewAuthorDto.getAuthor();
-
-        validateBookRequestDto(bookRequestDto);
-        authorService.validateAuthorRequestDto(authorRequestDto);
-
-        Book book = toEntity(bookRequestDto);
-
-        // Check if author with this email already exists
-        Author existingAuthor = authorRepository.findByEmail(authorRequestDto.getEmail());
-
-
-        if (existingAuthor != null) {
-            // If author already exists, attach the existing author to the book
-            logger.info("Attaching existing author ID: {} to new book", existingAuthor.getId());
-            book.getAuthors().add(existingAuthor);
-
-            final Book savedBook = bookRepository.save(book);
-            logger.info("Book created with existing author - Book ID: {}, Author ID: {}", savedBook.getId(), existingAuthor.getId());
-            return toDto(savedBook);
-        } else {
-            // Create new author and attach to book
-            logger.info("Creating new author for book");
-            Author author = authorService.toEntity(authorRequestDto);
-
-            final Author savedAuthor = authorRepository.save(author);
-            book.getAuthors().add(savedAuthor);
-
-            final Book savedBook = bookRepository.save(book);
-            logger.info("Book created with new author - Book ID: {}, Author ID: {}", savedBook.getId(), savedAuthor.getId());
-            return toDto(savedBook);
-        }
-
-    }
-    //--------------------------------------------------------------
-    //------------------- Update Book ------------------------------
-    //--------------------------------------------------------------
-    public BookDto update(int id, BookRequestDto bookRequestDto) {
-        logger.info("Updating book with ID: {}", id);
-
-        Book existingBook = bookRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Cannot update: Book not found with ID: {}", id);
-                    return new EntityNotFoundException("Book not found with id " + id);
-                });
-
-        validateBookRequestDto(bookRequestDto);
-
-        if (bookRequestDto.getTitle() != null) {
-            existingBook.setTitle(bookRequestDto.getTitle());
-        }
-        if (bookRequestDto.getGenre() != null) {
-            existingBook.setGenre(bookRequestDto.getGenre());
-        }
-        if (bookRequestDto.getPrice() != 0) {
-            existingBook.setPrice(bookRequestDto.getPrice());
-        }
-        if (bookRequestDto.getStock() >= 0) {
-            existingBook.setStock(bookRequestDto.getStock());
-        }
-
-        final Book savedBook = bookRepository.save(existingBook);
-        logger.info("Book updated successfully with ID: {}", savedBook.getId());
-        return toDto(savedBook);
-    }
-
-
-
-    //--------------------------------------------------------------
-    //------------------- Attach Author With Book ------------------
-    //--------------------------------------------------------------
-    public BookDto attachAuthor(int bookId, int authorId) {
-
-        logger.info("Attaching author ID: {} to book ID: {}", authorId, bookId);
-
-        Book book = bookRepository.findById(bookId).orElseThrow(() -> {
-            logger.warn("Book not found for attachment - Book ID: {}", bookId);
-            return new EntityNotFoundException("Book not found  with id " + bookId);
-        });
-
-        Author author = authorRepository.findById(authorId).orElseThrow(() -> {
-            logger.warn("Author not found for attachment - Author ID: {}", authorId);
-            return new EntityNotFoundException("Author not found  with id " + authorId);
-        });
-
-        book.getAuthors().add(author);
-        final Book saveBook = bookRepository.save(book);
-
-        logger.info("Author ID: {} attached successfully to book ID: {}", authorId, bookId);
-        return toDto(saveBook);
-
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Delete Book ------------------------------
-    //--------------------------------------------------------------
-    public void delete(int id) {
-        logger.info("Deleting book with ID: {}", id);
-        if (!bookRepository.existsById(id)) {
-            logger.warn("Attempted to delete non-existent book ID: {}", id);
-            throw new EntityNotFoundException("Book not found with id " + id);
-        }
-        bookRepository.deleteById(id);
-        logger.info("Book deleted successfully with ID: {}", id);
-    }
-
-
-    //--------------------------------------------------------------
-    //------------------- Validate BookRequestDto ------------------
-    //--------------------------------------------------------------
-    private void validateBookRequestDto(BookRequestDto bookRequestDto) {
-        if (bookRequestDto.getTitle() == null) {
-            throw new ValidationException("title");
-        }
-        if (bookRequestDto.getGenre() == null) {
-            throw new ValidationException("genre");
-        }
-        if (bookRequestDto.getPrice() == 0) {
-            throw new ValidationException("price");
-        }
-        if (bookRequestDto.getPrice() < 0) {
-            throw new ValidationException("stock", "price should be greater than 0");
-        }
-
-        if (bookRequestDto.getStock() < 0) {
-            throw new ValidationException("stock", "stock should be greater than 0");
-        }
-    }
-
-
-    //--------------------------------------------------------------
-    //----------------- Convert Book to BookDto --------------------
-    //--------------------------------------------------------------
-    private List<BookDto> toDto(List<Book> books) {
-        return books.stream().map(this::toDto).toList();
-    }
-
-    private BookDto toDto(Book book) {
-
-        if (book == null) {
-            return null;
-        }
-
-        BookDto result = new BookDto();
-        result.setId(book.getId());
-        result.setTitle(book.getTitle());
-        result.setGenre(book.getGenre());
-        result.setPrice(book.getPrice());
-        result.setStock(book.getStock());
-
-        final List<AuthorRequestDto> authorRequestDtos = book.getAuthors().stream().map(author -> {
-            AuthorRequestDto authorRequestDto = new AuthorRequestDto();
-            authorRequestDto.setFirstName(author.getFirstName());
-            authorRequestDto.setLastName(author.getLastName());
-            authorRequestDto.setEmail(author.getEmail());
-            authorRequestDto.setNationality(author.getNationality());
-
-            return authorRequestDto;
-
-        }).toList();
-
-
-        result.setAuthor(authorRequestDtos);
-
-        return result;
-    }
-
-
-    //--------------------------------------------------------------
-    // ------------ convert BookDto to Book ------------------------
-    //--------------------------------------------------------------
-    private Book toEntity(BookRequestDto bookRequestDto) {
-        if (bookRequestDto == null) {
-            return null;
-        }
-        Book book = new Book();
-        book.setTitle(bookRequestDto.getTitle());
-        book.setGenre(bookRequestDto.getGenre());
-        book.setPrice(bookRequestDto.getPrice());
-        book.setStock(bookRequestDto.getStock());
-
-        return book;
-
-    }
-
-
+package com.application.bookstore.service;
+
+import com.application.bookstore.cache.BookDtoCache;
+import com.application.bookstore.config.MetricsConfig;
+import com.application.bookstore.dto.*;
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.exception.UniqueConstraintViolations;
+import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.logging.LogMarkers;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.BookSpecifications;
+import com.application.bookstore.repository.VersionRow;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class BookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookService.class);
+
+    public static final int MAX_PAGE_LIMIT = 100;
+    // column lengths of books.title and books.genre
+    static final int TITLE_MAX_LENGTH = 40;
+    static final int GENRE_MAX_LENGTH = 255;
+
+    static final List<String> FILTER_SORTS = List.of("id", "price", "title");
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final AuthorService authorService;
+    private final BookDtoCache bookDtoCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, AuthorService authorService,
+                       BookDtoCache bookDtoCache, ApplicationEventPublisher eventPublisher) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.authorService = authorService;
+        this.bookDtoCache = bookDtoCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Get All Books ----------------------------
+    //--------------------------------------------------------------
+    public List<BookDto> getAll() {
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching all books");
+        return toDto(bookRepository.findAllWithAuthors());
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Page Of Books (Keyset) ---------------
+    //--------------------------------------------------------------
+    public BookPageDto getPage(int afterId, int limit) {
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching books after ID: {} with limit: {}", afterId, limit);
+
+        validatePageLimit(limit);
+
+        // fetch one extra row to find out whether another page exists
+        final List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1));
+        final boolean hasNext = books.size() > limit;
+        final List<Book> pageBooks = hasNext ? books.subList(0, limit) : books;
+
+        BookPageDto result = new BookPageDto();
+        result.setBooks(toDto(pageBooks));
+        result.setNextCursor(hasNext ? pageBooks.getLast().getId() : null);
+
+        return result;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Version Of Books Page ----------------
+    //--------------------------------------------------------------
+    // ETag of getPage(afterId, limit) from ids and versions only, so an unchanged page is never loaded
+    public ResourceVersion getPageVersion(int afterId, int limit) {
+        validatePageLimit(limit);
+
+        final List<Integer> ids = bookRepository.findIdsAfter(afterId, Limit.of(limit + 1));
+        final List<Integer> pageIds = ids.size() > limit ? ids.subList(0, limit) : ids;
+        final List<VersionRow> rows = pageIds.isEmpty() ? List.of()
+                : bookRepository.findVersionsByIdBetween(pageIds.getFirst(), pageIds.getLast());
+
+        return ResourceVersion.ofPage(ids, rows);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Version Of All Books -----------------
+    //--------------------------------------------------------------
+    public ResourceVersion getCatalogVersion() {
+        return ResourceVersion.ofCatalog("books", bookRepository.getVersionTotals(), authorRepository.getVersionTotals());
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Filter And Sort Books --------------------
+    //--------------------------------------------------------------
+    public BookFilterResultDto filter(BookFilterDto filter) {
+        logger.info(LogMarkers.SAMPLED_READ, "Filtering books - genre: {}, price: {} - {}, in stock: {}, author ID: {}, sort: {} {}",
+                filter.getGenre(), filter.getMinPrice(), filter.getMaxPrice(), filter.getInStock(), filter.getAuthorId(),
+                filter.getSort(), filter.getDirection());
+
+        validateBookFilterDto(filter);
+
+        List<Specification<Book>> specifications = new ArrayList<>();
+        if (filter.getGenre() != null) {
+            specifications.add(BookSpecifications.hasGenre(filter.getGenre()));
+        }
+        if (filter.getMinPrice() != null) {
+            specifications.add(BookSpecifications.priceAtLeast(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            specifications.add(BookSpecifications.priceAtMost(filter.getMaxPrice()));
+        }
+        if (filter.getInStock() != null) {
+            specifications.add(BookSpecifications.inStock(filter.getInStock()));
+        }
+        if (filter.getAuthorId() != null) {
+            specifications.add(BookSpecifications.hasAuthor(filter.getAuthorId()));
+        }
+
+        // id breaks ties, so pages are stable when many books share a price or title
+        final Sort.Direction direction = Sort.Direction.fromString(filter.getDirection());
+        final Sort sort = "id".equals(filter.getSort())
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, filter.getSort()).and(Sort.by(direction, "id"));
+
+        final Page<Book> books = bookRepository.findAll(Specification.allOf(specifications),
+                PageRequest.of(filter.getPage(), filter.getSize(), sort));
+
+        BookFilterResultDto result = new BookFilterResultDto();
+        result.setBooks(toDto(books.getContent()));
+        result.setPage(books.getNumber());
+        result.setSize(books.getSize());
+        result.setTotal(books.getTotalElements());
+        result.setTotalPages(books.getTotalPages());
+
+        return result;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Single Book By Id --------------------
+    //--------------------------------------------------------------
+    // version is the book's current one from getVersion, the cached BookDto is used only if it matches
+    public BookDto getById(int id, ResourceVersion version) {
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching book with ID: {}", id);
+        return bookDtoCache.getOrLoad(id, version.etag(), this::loadById);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Version Of Single Book ---------------
+    //--------------------------------------------------------------
+    public ResourceVersion getVersion(int id) {
+        final List<VersionRow> rows = bookRepository.findVersionById(id);
+        if (rows.isEmpty()) {
+            logger.warn("Book not found with ID: {}", id);
+            throw new EntityNotFoundException("Book not found with id " + id);
+        }
+        return ResourceVersion.ofEntity("book", rows);
+    }
+
+    private BookDto loadById(int id) {
+        return bookRepository.findWithAuthorsById(id).map(this::toDto).orElseThrow(() -> {
+            logger.warn("Book not found with ID: {}", id);
+            return new EntityNotFoundException("Book not found with id " + id);
+        });
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Create New Book --------------------------
+    //--------------------------------------------------------------
+    public BookDto create(BookRequestDto bookRequestDto) {
+
+        logger.info("Creating new book with title: {}", bookRequestDto.getTitle());
+
+        validateBookRequestDto(bookRequestDto);
+
+        Book book = toEntity(bookRequestDto);
+        final Book savedBook = bookRepository.save(book);
+
+        logger.info("Book created successfully with ID: {} and title: {}", savedBook.getId(), savedBook.getTitle());
+        eventPublisher.publishEvent(BookChangedEvent.saved(savedBook.getId()));
+        return toDto(savedBook);
+
+
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Create New Book With New Author ----------
+    //--------------------------------------------------------------
+    public BookDto createBookWithNewAuthor(BookWithNewAuthorDto bookWithNewAuthorDto) {
+
+        logger.info("Creating book with new author - Book title: {}, Author email: {}", bookWithNewAuthorDto.getBook().getTitle(), bookWithNewAuthorDto.getAuthor().getEmail());
+
+        BookRequestDto bookRequestDto = bookWithNewAuthorDto.getBook();
+        AuthorRequestDto authorRequestDto = bookWithNewAuthorDto.getAuthor();
+
+        validateBookRequestDto(bookRequestDto);
+        authorService.validateAuthorRequestDto(authorRequestDto);
+
+        Book book = toEntity(bookRequestDto);
+
+        final Author author = saveOrFindAuthor(authorRequestDto);
+        book.getAuthors().add(author);
+
+        final Book savedBook = bookRepository.save(book);
+        logger.info("Book created - Book ID: {}, Author ID: {}", savedBook.getId(), author.getId());
+        eventPublisher.publishEvent(BookChangedEvent.saved(savedBook.getId()));
+        return toDto(savedBook);
+    }
+
+    // uk_authors_email decides whether the author is new; only when it is violated is the
+    // existing author loaded, and then attached to the book as before
+    private Author saveOrFindAuthor(AuthorRequestDto authorRequestDto) {
+        try {
+            final Author savedAuthor = authorRepository.saveAndFlush(authorService.toEntity(authorRequestDto));
+            logger.info("Created new author ID: {} for book", savedAuthor.getId());
+            return savedAuthor;
+        } catch (DataIntegrityViolationException e) {
+            if (!UniqueConstraintViolations.isViolated(e, Author.UK_EMAIL)) {
+                throw e;
+            }
+            final Author existingAuthor = authorRepository.findByEmail(authorRequestDto.getEmail());
+            if (existingAuthor == null) {
+                // deleted since the insert failed
+                throw e;
+            }
+            logger.info("Attaching existing author ID: {} to new book", existingAuthor.getId());
+            return existingAuthor;
+        }
+    }
+    //--------------------------------------------------------------
+    //------------------- Update Book ------------------------------
+    //--------------------------------------------------------------
+    public BookDto update(int id, BookRequestDto bookRequestDto) {
+        logger.info("Updating book with ID: {}", id);
+
+        Book existingBook = bookRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.warn("Cannot update: Book not found with ID: {}", id);
+                    return new EntityNotFoundException("Book not found with id " + id);
+                });
+
+        validateBookRequestDto(bookRequestDto);
+
+        if (bookRequestDto.getTitle() != null) {
+            existingBook.setTitle(bookRequestDto.getTitle());
+        }
+        if (bookRequestDto.getGenre() != null) {
+            existingBook.setGenre(bookRequestDto.getGenre());
+        }
+        if (bookRequestDto.getPrice() != 0) {
+            existingBook.setPrice(bookRequestDto.getPrice());
+        }
+        if (bookRequestDto.getStock() >= 0) {
+            existingBook.setStock(bookRequestDto.getStock());
+        }
+
+        final Book savedBook = bookRepository.save(existingBook);
+        logger.info("Book updated successfully with ID: {}", savedBook.getId());
+        eventPublisher.publishEvent(BookChangedEvent.saved(savedBook.getId()));
+        return toDto(savedBook);
+    }
+
+
+
+    //--------------------------------------------------------------
+    //------------------- Attach Author With Book ------------------
+    //--------------------------------------------------------------
+    public BookDto attachAuthor(int bookId, int authorId) {
+
+        logger.info("Attaching author ID: {} to book ID: {}", authorId, bookId);
+
+        Book book = bookRepository.findById(bookId).orElseThrow(() -> {
+            logger.warn("Book not found for attachment - Book ID: {}", bookId);
+            return new EntityNotFoundException("Book not found  with id " + bookId);
+        });
+
+        Author author = authorRepository.findById(authorId).orElseThrow(() -> {
+            logger.warn("Author not found for attachment - Author ID: {}", authorId);
+            return new EntityNotFoundException("Author not found  with id " + authorId);
+        });
+
+        book.getAuthors().add(author);
+        final Book saveBook = bookRepository.save(book);
+
+        logger.info("Author ID: {} attached successfully to book ID: {}", authorId, bookId);
+        eventPublisher.publishEvent(BookChangedEvent.saved(saveBook.getId()));
+        return toDto(saveBook);
+
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Delete Book ------------------------------
+    //--------------------------------------------------------------
+    public void delete(int id) {
+        logger.info("Deleting book with ID: {}", id);
+        if (!bookRepository.existsById(id)) {
+            logger.warn("Attempted to delete non-existent book ID: {}", id);
+            throw new EntityNotFoundException("Book not found with id " + id);
+        }
+        bookRepository.deleteById(id);
+        logger.info("Book deleted successfully with ID: {}", id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Validate BookRequestDto ------------------
+    //--------------------------------------------------------------
+    public void validateBookRequestDto(BookRequestDto bookRequestDto) {
+        if (bookRequestDto.getTitle() == null) {
+            throw new ValidationException("title");
+        }
+        if (bookRequestDto.getTitle().length() > TITLE_MAX_LENGTH) {
+            throw new ValidationException("title", "title should be at most " + TITLE_MAX_LENGTH + " characters");
+        }
+        if (bookRequestDto.getGenre() == null) {
+            throw new ValidationException("genre");
+        }
+        if (bookRequestDto.getGenre().length() > GENRE_MAX_LENGTH) {
+            throw new ValidationException("genre", "genre should be at most " + GENRE_MAX_LENGTH + " characters");
+        }
+        if (!Double.isFinite(bookRequestDto.getPrice())) {
+            throw new ValidationException("price", "price should be a finite number");
+        }
+        if (bookRequestDto.getPrice() == 0) {
+            throw new ValidationException("price");
+        }
+        if (bookRequestDto.getPrice() < 0) {
+            throw new ValidationException("stock", "price should be greater than 0");
+        }
+
+        if (bookRequestDto.getStock() < 0) {
+            throw new ValidationException("stock", "stock should be greater than 0");
+        }
+    }
+
+
+    //--------------------------------------------------------------
+    //------------------- Validate BookFilterDto -------------------
+    //--------------------------------------------------------------
+    public void validateBookFilterDto(BookFilterDto filter) {
+        if (!FILTER_SORTS.contains(filter.getSort())) {
+            throw new ValidationException("sort", "sort should be one of " + FILTER_SORTS);
+        }
+        if (!"asc".equalsIgnoreCase(filter.getDirection()) && !"desc".equalsIgnoreCase(filter.getDirection())) {
+            throw new ValidationException("direction", "direction should be asc or desc");
+        }
+        if (filter.getSize() < 1 || filter.getSize() > MAX_PAGE_LIMIT) {
+            throw new ValidationException("size", "size should be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        if (filter.getPage() < 0) {
+            throw new ValidationException("page", "page should be 0 or greater");
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new ValidationException("minPrice", "minPrice should not be greater than maxPrice");
+        }
+    }
+
+    private void validatePageLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new ValidationException("limit", "limit should be between 1 and " + MAX_PAGE_LIMIT);
+        }
+    }
+
+
+    //--------------------------------------------------------------
+    //----------------- Convert Book to BookDto --------------------
+    //--------------------------------------------------------------
+    public List<BookDto> toDto(List<Book> books) {
+        return books.stream().map(this::toDto).toList();
+    }
+
+    public BookDto toDto(Book book) {
+
+        if (book == null) {
+            return null;
+        }
+
+        BookDto result = new BookDto();
+        result.setId(book.getId());
+        result.setTitle(book.getTitle());
+        result.setGenre(book.getGenre());
+        result.setPrice(book.getPrice());
+        result.setStock(book.getStock());
+
+        final List<AuthorRequestDto> authorRequestDtos = book.getAuthors().stream().map(author -> {
+            AuthorRequestDto authorRequestDto = new AuthorRequestDto();
+            authorRequestDto.setFirstName(author.getFirstName());
+            authorRequestDto.setLastName(author.getLastName());
+            authorRequestDto.setEmail(author.getEmail());
+            authorRequestDto.setNationality(author.getNationality());
+
+            return authorRequestDto;
+
+        }).toList();
+
+
+        result.setAuthor(authorRequestDtos);
+
+        return result;
+    }
+
+
+    //--------------------------------------------------------------
+    // ------------ convert BookDto to Book ------------------------
+    //--------------------------------------------------------------
+    public Book toEntity(BookRequestDto bookRequestDto) {
+        if (bookRequestDto == null) {
+            return null;
+        }
+        Book book = new Book();
+        book.setTitle(bookRequestDto.getTitle());
+        book.setGenre(bookRequestDto.getGenre());
+        book.setPrice(bookRequestDto.getPrice());
+        book.setStock(bookRequestDto.getStock());
+
+        return book;
+
+    }
+
+
 }
\ No newline at end of file
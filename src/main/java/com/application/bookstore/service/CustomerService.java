@@ -1,11 +1,15 @@
 package com.application.bookstore.service;
 
+import com.application.bookstore.config.MetricsConfig;
 import com.application.bookstore.dto.CustomerDto;
 import com.application.bookstore.dto.CustomerRequestDto;
-import com.application.bookstore.exception.AttributeAlreadyExistsException;
+import com.application.bookstore.exception.UniqueConstraintViolations;
 import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.logging.LogMarkers;
 import com.application.bookstore.model.Customer;
 import com.application.bookstore.repository.CustomerRepository;
+import com.application.bookstore.validation.EmailValidator;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CustomerService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
@@ -28,7 +33,7 @@ public class CustomerService {
     //------------------- Get All Customers ------------------------
     //--------------------------------------------------------------
     public List<CustomerDto> getAll() {
-        logger.info("Fetching all customers");
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching all customers");
         return toDto(customerRepository.findAll());
     }
 
@@ -36,7 +41,7 @@ public class CustomerService {
     //------------------- Get Single Customer By Id ----------------
     //--------------------------------------------------------------
     public CustomerDto getById(int id) {
-        logger.info("Fetching customer with ID: {}", id);
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching customer with ID: {}", id);
         return customerRepository.findById(id).map(this::toDto).orElseThrow(() -> {
             logger.warn("Customer not found with ID: {}", id);
             return new EntityNotFoundException("Customer not found with id " + id);
@@ -53,7 +58,7 @@ public class CustomerService {
         validateCustomerRequestDto(customerRequestDto);
 
         Customer customer = toEntity(customerRequestDto);
-        final Customer savedCustomer = customerRepository.save(customer);
+        final Customer savedCustomer = UniqueConstraintViolations.saveUnique(customerRepository, customer, Customer.UK_EMAIL, customer.getEmail());
 
         logger.info("Customer created successfully with ID: {} and email: {}", savedCustomer.getId(), savedCustomer.getEmail());
 
@@ -88,7 +93,7 @@ public class CustomerService {
             existingCustomer.setAddress(customerRequestDto.getAddress());
         }
 
-        final Customer savedCustomer = customerRepository.save(existingCustomer);
+        final Customer savedCustomer = UniqueConstraintViolations.saveUnique(customerRepository, existingCustomer, Customer.UK_EMAIL, existingCustomer.getEmail());
 
         logger.info("Customer updated successfully with ID: {}", savedCustomer.getId());
 
@@ -114,7 +119,7 @@ public class CustomerService {
     //--------------------------------------------------------------
     //------------------- Validate CustomerRequestDto --------------
     //--------------------------------------------------------------
-    private void validateCustomerRequestDto(CustomerRequestDto customerRequestDto) {
+    public void validateCustomerRequestDto(CustomerRequestDto customerRequestDto) {
         if (customerRequestDto.getFirstName() == null) {
             throw new ValidationException("firstName");
         }
@@ -127,15 +132,10 @@ public class CustomerService {
             throw new ValidationException("email");
         }
 
-        if (!customerRequestDto.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!EmailValidator.isValid(customerRequestDto.getEmail())) {
             throw new ValidationException("email", "Invalid email format");
         }
 
-        // Check if email already exists in database
-        if (customerRepository.findByEmail(customerRequestDto.getEmail()) != null) {
-            throw new AttributeAlreadyExistsException("Customer", "email", customerRequestDto.getEmail());
-        }
-
         if (customerRequestDto.getPhoneNumber() == null) {
             throw new ValidationException("phoneNumber");
         }
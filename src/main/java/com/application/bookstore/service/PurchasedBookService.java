@@ -1,137 +1,239 @@
-package com.application.bookstore.service;
-
-import com.application.bookstore.dto.PurchasedBookDto;
-import com.application.bookstore.model.Book;
-import com.application.bookstore.model.Customer;
-import com.application.bookstore.model.PurchasedBook;
-import com.application.bookstore.repository.BookRepository;
-import com.application.bookstore.repository.CustomerRepository;
-import com.application.bookstore.repository.PurchasedBookRepository;
-import jakarta.persistence.EntityNotFoundException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
-
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
-
-@Service
-public class PurchasedBookService {
-    private static final Logger logger = LoggerFactory.getLogger(PurchasedBookService.class);
-
-    private final PurchasedBookRepository purchasedBookRepository;
-    private final CustomerRepository customerRepository;
-    private final BookRepository bookRepository;
-
-    public PurchasedBookService(
-            PurchasedBookRepository purchasedBookRepository,
-            CustomerRepository customerRepository,
-            BookRepository bookRepository) {
-
-        this.purchasedBookRepository = purchasedBookRepository;
-        this.customerRepository = customerRepository;
-        this.bookRepository = bookRepository;
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Get All Purchases ------------------------
-    //--------------------------------------------------------------
-    public List<PurchasedBookDto> getAll() {
-        logger.info("Fetching all purchases");
-        return toDto(purchasedBookRepository.findAll());
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Get Single Purchase By Id ----------------
-    //--------------------------------------------------------------
-    public PurchasedBookDto getById(int id) {
-        logger.info("Fetching purchase with ID: {}", id);
-        return purchasedBookRepository.findById(id).map(this::toDto).orElseThrow(() -> {
-            logger.warn("Purchase not found with ID: {}", id);
-            return new EntityNotFoundException("Purchase not found with id " + id);
-        });
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Create New Purchase ----------------------
-    //--------------------------------------------------------------
-    public PurchasedBookDto create(PurchasedBookDto purchasedBookDto) {
-        logger.info("Creating new purchase - Customer ID: {}, Book ID: {}",
-                purchasedBookDto.getCustomerId(), purchasedBookDto.getBookId());
-
-        Customer customer = customerRepository.findById(purchasedBookDto.getCustomerId())
-                .orElseThrow(() -> {
-                    logger.warn("Cannot create purchase: Customer not found with ID: {}", purchasedBookDto.getCustomerId());
-                    return new EntityNotFoundException("Customer not found with id " + purchasedBookDto.getCustomerId());
-                });
-
-        Book book = bookRepository.findById(purchasedBookDto.getBookId())
-                .orElseThrow(() -> {
-                    logger.warn("Cannot create purchase: Book not found with ID: {}", purchasedBookDto.getBookId());
-                    return new EntityNotFoundException("Book not found with id " + purchasedBookDto.getBookId());
-                });
-
-        PurchasedBook purchasedBook = toEntity(purchasedBookDto, customer, book);
-        final PurchasedBook savedPurchasedBook = purchasedBookRepository.save(purchasedBook);
-
-        logger.info("Purchase created successfully with ID: {}, Customer: {} {}, Book: {}",
-                savedPurchasedBook.getId(),
-                customer.getFirstName(), customer.getLastName(),
-                book.getTitle());
-
-        return toDto(savedPurchasedBook);
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Delete Purchase --------------------------
-    //--------------------------------------------------------------
-    public void delete(int id) {
-        logger.info("Deleting purchase with ID: {}", id);
-
-        if (!purchasedBookRepository.existsById(id)) {
-            logger.warn("Attempted to delete non-existent purchase ID: {}", id);
-            throw new EntityNotFoundException("Purchase not found with id " + id);
-        }
-
-        purchasedBookRepository.deleteById(id);
-        logger.info("Purchase deleted successfully with ID: {}", id);
-    }
-
-    //--------------------------------------------------------------
-    //------------------- Convert PurchasedBook to PurchasedBookDto
-    //--------------------------------------------------------------
-    public List<PurchasedBookDto> toDto(List<PurchasedBook> purchasedBooks) {
-        return purchasedBooks.stream().map(this::toDto).toList();
-    }
-
-    private PurchasedBookDto toDto(PurchasedBook purchasedBook) {
-        if (purchasedBook == null) {
-            return null;
-        }
-
-        PurchasedBookDto result = new PurchasedBookDto();
-        result.setPurchaseId(purchasedBook.getId());
-        result.setPurchaseDate(purchasedBook.getPurchaseDate());
-        result.setCustomerId(purchasedBook.getCustomer().getId());
-        result.setBookId(purchasedBook.getBook().getId());
-
-        return result;
-    }
-
-    //--------------------------------------------------------------
-    // ------------ convert PurchasedBookDto to PurchasedBook ------
-    //--------------------------------------------------------------
-    private PurchasedBook toEntity(PurchasedBookDto purchasedBookDto, Customer customer, Book book) {
-        if (purchasedBookDto == null) {
-            return null;
-        }
-
-        PurchasedBook result = new PurchasedBook();
-        result.setCustomer(customer);
-        result.setBook(book);
-        result.setPurchaseDate(LocalDate.from(LocalDateTime.now()));
-
-        return result;
-    }
+package com.application.bookstore.service;
+
+import com.application.bookstore.config.MetricsConfig;
+import com.application.bookstore.dto.PurchasedBookDto;
+import com.application.bookstore.dto.PurchasedBookRequestDto;
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.exception.OutOfStockException;
+import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.logging.LogMarkers;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.model.Customer;
+import com.application.bookstore.model.PurchasedBook;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.CustomerRepository;
+import com.application.bookstore.repository.PurchasedBookRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class PurchasedBookService {
+    private static final Logger logger = LoggerFactory.getLogger(PurchasedBookService.class);
+
+    // one cart holds its book row locks until commit, so its size is bounded
+    public static final int MAX_CART_LINES = 100;
+
+    private final PurchasedBookRepository purchasedBookRepository;
+    private final CustomerRepository customerRepository;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PurchasedBookService(
+            PurchasedBookRepository purchasedBookRepository,
+            CustomerRepository customerRepository,
+            BookRepository bookRepository,
+            ApplicationEventPublisher eventPublisher) {
+
+        this.purchasedBookRepository = purchasedBookRepository;
+        this.customerRepository = customerRepository;
+        this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get All Purchases ------------------------
+    //--------------------------------------------------------------
+    public List<PurchasedBookDto> getAll() {
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching all purchases");
+        return toDto(purchasedBookRepository.findAll());
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Get Single Purchase By Id ----------------
+    //--------------------------------------------------------------
+    public PurchasedBookDto getById(int id) {
+        logger.info(LogMarkers.SAMPLED_READ, "Fetching purchase with ID: {}", id);
+        return purchasedBookRepository.findById(id).map(this::toDto).orElseThrow(() -> {
+            logger.warn("Purchase not found with ID: {}", id);
+            return new EntityNotFoundException("Purchase not found with id " + id);
+        });
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Create New Purchase ----------------------
+    //--------------------------------------------------------------
+    @Transactional
+    public PurchasedBookDto create(PurchasedBookDto purchasedBookDto) {
+        logger.info("Creating new purchase - Customer ID: {}, Book ID: {}",
+                purchasedBookDto.getCustomerId(), purchasedBookDto.getBookId());
+
+        Customer customer = customerRepository.findById(purchasedBookDto.getCustomerId())
+                .orElseThrow(() -> {
+                    logger.warn("Cannot create purchase: Customer not found with ID: {}", purchasedBookDto.getCustomerId());
+                    return new EntityNotFoundException("Customer not found with id " + purchasedBookDto.getCustomerId());
+                });
+
+        decrementStock(purchasedBookDto.getBookId(), 1);
+
+        Book book = bookRepository.findById(purchasedBookDto.getBookId())
+                .orElseThrow(() -> {
+                    logger.warn("Cannot create purchase: Book not found with ID: {}", purchasedBookDto.getBookId());
+                    return new EntityNotFoundException("Book not found with id " + purchasedBookDto.getBookId());
+                });
+
+        PurchasedBook purchasedBook = toEntity(purchasedBookDto, customer, book);
+        final PurchasedBook savedPurchasedBook = purchasedBookRepository.save(purchasedBook);
+
+        logger.info("Purchase created successfully with ID: {}, Customer: {} {}, Book: {}",
+                savedPurchasedBook.getId(),
+                customer.getFirstName(), customer.getLastName(),
+                book.getTitle());
+
+        eventPublisher.publishEvent(BookChangedEvent.stockChanged(book.getId()));
+        return toDto(savedPurchasedBook);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Create Batch Of Purchases ----------------
+    //--------------------------------------------------------------
+    @Transactional
+    public List<PurchasedBookDto> createBatch(PurchasedBookRequestDto purchasedBookRequestDto) {
+        if (purchasedBookRequestDto.getBookIds() == null || purchasedBookRequestDto.getBookIds().isEmpty()) {
+            throw new ValidationException("bookIds");
+        }
+        if (purchasedBookRequestDto.getBookIds().size() > MAX_CART_LINES) {
+            throw new ValidationException("bookIds", "bookIds should contain at most " + MAX_CART_LINES + " books");
+        }
+        if (purchasedBookRequestDto.getBookIds().stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("bookIds", "bookIds should not contain null");
+        }
+
+        logger.info("Creating batch purchase - Customer ID: {}, Books: {}",
+                purchasedBookRequestDto.getCustomerId(), purchasedBookRequestDto.getBookIds().size());
+
+        Customer customer = customerRepository.findById(purchasedBookRequestDto.getCustomerId())
+                .orElseThrow(() -> {
+                    logger.warn("Cannot create purchase: Customer not found with ID: {}", purchasedBookRequestDto.getCustomerId());
+                    return new EntityNotFoundException("Customer not found with id " + purchasedBookRequestDto.getCustomerId());
+                });
+
+        // the same book may appear several times in a cart. Decrementing in ascending id order makes
+        // every cart take its row locks in the same order, so carts with the same books cannot deadlock
+        final Map<Integer, Long> quantities = purchasedBookRequestDto.getBookIds().stream()
+                .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting()));
+
+        final Map<Integer, Book> books = bookRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        for (Map.Entry<Integer, Long> quantity : quantities.entrySet()) {
+            if (!books.containsKey(quantity.getKey())) {
+                logger.warn("Cannot create purchase: Book not found with ID: {}", quantity.getKey());
+                throw new EntityNotFoundException("Book not found with id " + quantity.getKey());
+            }
+            if (bookRepository.decrementStock(quantity.getKey(), quantity.getValue().intValue()) != 1) {
+                throw new OutOfStockException(quantity.getKey(), quantity.getValue().intValue());
+            }
+        }
+
+        List<PurchasedBook> purchasedBooks = new ArrayList<>();
+        for (Integer bookId : purchasedBookRequestDto.getBookIds()) {
+            purchasedBooks.add(toEntity(customer, books.get(bookId)));
+        }
+        final List<PurchasedBook> savedPurchasedBooks = purchasedBookRepository.saveAll(purchasedBooks);
+
+        logger.info("Batch purchase created successfully - Customer ID: {}, Purchases: {}",
+                customer.getId(), savedPurchasedBooks.size());
+
+        for (Integer bookId : quantities.keySet()) {
+            eventPublisher.publishEvent(BookChangedEvent.stockChanged(bookId));
+        }
+        return toDto(savedPurchasedBooks);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Decrement Book Stock ---------------------
+    //--------------------------------------------------------------
+    private void decrementStock(int bookId, int quantity) {
+        if (bookRepository.decrementStock(bookId, quantity) == 1) {
+            return;
+        }
+
+        if (!bookRepository.existsById(bookId)) {
+            logger.warn("Cannot create purchase: Book not found with ID: {}", bookId);
+            throw new EntityNotFoundException("Book not found with id " + bookId);
+        }
+        throw new OutOfStockException(bookId, quantity);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Delete Purchase --------------------------
+    //--------------------------------------------------------------
+    public void delete(int id) {
+        logger.info("Deleting purchase with ID: {}", id);
+
+        if (!purchasedBookRepository.existsById(id)) {
+            logger.warn("Attempted to delete non-existent purchase ID: {}", id);
+            throw new EntityNotFoundException("Purchase not found with id " + id);
+        }
+
+        purchasedBookRepository.deleteById(id);
+        logger.info("Purchase deleted successfully with ID: {}", id);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Convert PurchasedBook to PurchasedBookDto
+    //--------------------------------------------------------------
+    public List<PurchasedBookDto> toDto(List<PurchasedBook> purchasedBooks) {
+        return purchasedBooks.stream().map(this::toDto).toList();
+    }
+
+    private PurchasedBookDto toDto(PurchasedBook purchasedBook) {
+        if (purchasedBook == null) {
+            return null;
+        }
+
+        PurchasedBookDto result = new PurchasedBookDto();
+        result.setPurchaseId(purchasedBook.getId());
+        result.setPurchaseDate(purchasedBook.getPurchaseDate());
+        result.setCustomerId(purchasedBook.getCustomer().getId());
+        result.setBookId(purchasedBook.getBook().getId());
+
+        return result;
+    }
+
+    //--------------------------------------------------------------
+    // ------------ convert PurchasedBookDto to PurchasedBook ------
+    //--------------------------------------------------------------
+    private PurchasedBook toEntity(PurchasedBookDto purchasedBookDto, Customer customer, Book book) {
+        if (purchasedBookDto == null) {
+            return null;
+        }
+
+        return toEntity(customer, book);
+    }
+
+    private PurchasedBook toEntity(Customer customer, Book book) {
+        PurchasedBook result = new PurchasedBook();
+        result.setCustomer(customer);
+        result.setBook(book);
+        result.setPurchaseDate(LocalDate.from(LocalDateTime.now()));
+
+        return result;
+    }
 }
\ No newline at end of file
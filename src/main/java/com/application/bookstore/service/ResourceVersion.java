@@ -0,0 +1,108 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.repository.VersionRow;
+import com.application.bookstore.repository.VersionTotals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+// Validators of a representation, computed from entity versions instead of the serialized body:
+// a strong ETag hashed from the id and @Version of every entity the representation is built from,
+// and the latest updated_at among them. Collections carry no lastModified (null), since a
+// timestamp cannot tell that a row was deleted.
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    private static final int ETAG_BYTES = 16;
+
+    private static final Comparator<VersionRow> BY_IDS = Comparator.comparingInt(VersionRow::getId)
+            .thenComparing(VersionRow::getRelatedId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    //--------------------------------------------------------------
+    //------------------- Single Entity ----------------------------
+    //--------------------------------------------------------------
+    // rows of one entity joined with the entities it embeds; empty when it does not exist
+    static ResourceVersion ofEntity(String kind, List<VersionRow> rows) {
+        Digest digest = new Digest(kind);
+        Instant lastModified = Instant.EPOCH;
+        for (VersionRow row : rows.stream().sorted(BY_IDS).toList()) {
+            digest.add(row.getId()).add(row.getVersion());
+            lastModified = latest(lastModified, row.getUpdatedAt());
+            if (row.getRelatedId() != null) {
+                digest.add(row.getRelatedId()).add(row.getRelatedVersion());
+                lastModified = latest(lastModified, row.getRelatedUpdatedAt());
+            }
+        }
+        return new ResourceVersion(digest.etag(), lastModified);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Keyset Page ------------------------------
+    //--------------------------------------------------------------
+    // ids are the probed page ids (one more than the page when a next page exists),
+    // rows the versions of the books on the page and of their authors
+    static ResourceVersion ofPage(List<Integer> ids, List<VersionRow> rows) {
+        Digest digest = new Digest("book-page").add(ids.size());
+        for (int id : ids) {
+            digest.add(id);
+        }
+        for (VersionRow row : rows.stream().sorted(BY_IDS).toList()) {
+            digest.add(row.getId()).add(row.getVersion());
+            if (row.getRelatedId() != null) {
+                digest.add(row.getRelatedId()).add(row.getRelatedVersion());
+            }
+        }
+        return new ResourceVersion(digest.etag(), null);
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Whole Catalog ----------------------------
+    //--------------------------------------------------------------
+    // book and author lists embed each other, so both depend on both tables
+    static ResourceVersion ofCatalog(String kind, VersionTotals books, VersionTotals authors) {
+        Digest digest = new Digest(kind).add(books).add(authors);
+        return new ResourceVersion(digest.etag(), null);
+    }
+
+    private static Instant latest(Instant current, Instant candidate) {
+        return candidate != null && candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static final class Digest {
+
+        private final MessageDigest sha256;
+        private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+
+        Digest(String kind) {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            sha256.update(kind.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Digest add(long value) {
+            sha256.update(buffer.clear().putLong(value).array());
+            return this;
+        }
+
+        Digest add(VersionTotals totals) {
+            add(totals.getCount());
+            add(totals.getMaxId() == null ? 0 : totals.getMaxId());
+            add(totals.getVersionSum() == null ? 0 : totals.getVersionSum());
+            return add(totals.getLastUpdated() == null ? 0 : totals.getLastUpdated().toEpochMilli());
+        }
+
+        // quoted and without W/ prefix: a strong validator
+        String etag() {
+            final byte[] hash = sha256.digest();
+            return "\"" + HexFormat.of().formatHex(hash, 0, ETAG_BYTES) + "\"";
+        }
+    }
+}
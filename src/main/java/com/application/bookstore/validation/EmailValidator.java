@@ -0,0 +1,56 @@
+package com.application.bookstore.validation;
+
+import java.util.regex.Pattern;
+
+// Email format check shared by the services and the bulk import. isValid is a hand-written,
+// allocation-free scanner accepting exactly what EMAIL_PATTERN accepts.
+public final class EmailValidator {
+
+    public static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
+    private EmailValidator() {
+    }
+
+    //--------------------------------------------------------------
+    //------------------- Validate Email Format --------------------
+    //--------------------------------------------------------------
+    public static boolean isValid(String email) {
+        if (email == null) {
+            return false;
+        }
+
+        final int length = email.length();
+        int i = 0;
+
+        // local part: one or more of [A-Za-z0-9+_.-]
+        while (i < length && isLocalPartChar(email.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == length || email.charAt(i) != '@') {
+            return false;
+        }
+
+        // domain: one or more characters that "." matches, i.e. anything but a line terminator
+        i++;
+        if (i == length) {
+            return false;
+        }
+        for (; i < length; i++) {
+            if (isLineTerminator(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
@@ -0,0 +1,13 @@
+-- Emails are unique per author / customer; inserts rely on these constraints
+-- instead of looking the email up first. Each also serves findByEmail.
+-- Existing duplicates are merged first by V1_1__Merge_duplicate_emails.
+alter table authors add constraint uk_authors_email unique (email);
+alter table customers add constraint uk_customers_email unique (email);
+
+-- The book <-> author association indexes are per vendor (V2_1): InnoDB already
+-- indexes both foreign key columns of book_author on MySQL.
+
+-- Purchases of a customer, newest first; of a book; and by date range.
+create index idx_purchased_books_customer_id on purchased_books (customer_id, purchase_date);
+create index idx_purchased_books_book_id on purchased_books (book_id);
+create index idx_purchased_books_purchase_date on purchased_books (purchase_date);
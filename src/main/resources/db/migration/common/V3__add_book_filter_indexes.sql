@@ -0,0 +1,4 @@
+-- GET /books/filter: genre equality with a price range (and price order) reads one range of
+-- (genre, price); in-stock filters range over stock.
+create index idx_books_genre_price on books (genre, price);
+create index idx_books_stock on books (stock);
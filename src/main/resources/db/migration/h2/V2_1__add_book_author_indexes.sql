@@ -0,0 +1,4 @@
+-- Both directions of the book <-> author association are loaded by key.
+-- Not on MySQL, where InnoDB creates these indexes for the foreign keys.
+create index idx_book_author_book_id on book_author (book_id);
+create index idx_book_author_author_id on book_author (author_id);
@@ -0,0 +1,68 @@
+-- Initial schema. MySQL has no sequences, so the pooled id generators keep
+-- their next value in one-row <name>_seq tables.
+
+create table authors (
+    id          integer     not null,
+    first_name  varchar(20) not null,
+    last_name   varchar(20) not null,
+    nationality varchar(20) not null,
+    email       varchar(40) not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table books (
+    id    integer      not null,
+    price float(53)    not null,
+    stock integer      not null,
+    title varchar(40)  not null,
+    genre varchar(255) not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table book_author (
+    author_id integer not null,
+    book_id   integer not null
+) engine = InnoDB;
+
+create table customers (
+    id           integer     not null,
+    first_name   varchar(20) not null,
+    last_name    varchar(20) not null,
+    phone_number varchar(20) not null,
+    email        varchar(30) not null,
+    address      varchar(50) not null,
+    primary key (id)
+) engine = InnoDB;
+
+create table purchased_books (
+    id            integer not null,
+    book_id       integer,
+    customer_id   integer,
+    purchase_date date,
+    primary key (id)
+) engine = InnoDB;
+
+create table users (
+    id       integer      not null,
+    username varchar(20)  not null,
+    password varchar(100) not null,
+    roles    varchar(40)  not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+) engine = InnoDB;
+
+alter table book_author add constraint fk_book_author_author foreign key (author_id) references authors (id);
+alter table book_author add constraint fk_book_author_book foreign key (book_id) references books (id);
+alter table purchased_books add constraint fk_purchased_books_book foreign key (book_id) references books (id);
+alter table purchased_books add constraint fk_purchased_books_customer foreign key (customer_id) references customers (id);
+
+create table authors_seq (next_val bigint) engine = InnoDB;
+insert into authors_seq values (1);
+create table books_seq (next_val bigint) engine = InnoDB;
+insert into books_seq values (1);
+create table customers_seq (next_val bigint) engine = InnoDB;
+insert into customers_seq values (1);
+create table purchased_books_seq (next_val bigint) engine = InnoDB;
+insert into purchased_books_seq values (1);
+create table users_seq (next_val bigint) engine = InnoDB;
+insert into users_seq values (1);
@@ -0,0 +1,7 @@
+-- Optimistic-lock versions and last update times; together they make the ETag / Last-Modified
+-- of GET /books and /authors. Existing rows start at version 0, updated now.
+alter table books add column version bigint default 0 not null;
+alter table books add column updated_at datetime(6) default current_timestamp(6) not null;
+
+alter table authors add column version bigint default 0 not null;
+alter table authors add column updated_at datetime(6) default current_timestamp(6) not null;
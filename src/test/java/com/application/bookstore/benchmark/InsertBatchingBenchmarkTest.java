@@ -0,0 +1,128 @@
+package com.application.bookstore.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.IntFunction;
+
+// Compares inserts with the GenerationType.IDENTITY ids every entity used before (one INSERT per
+// persist, so hibernate.jdbc.batch_size is ignored) with the pooled sequence ids they use now.
+// Both run with the application's batching settings against their own H2 database; the two id
+// mappings live in benchmark/insert-batching-orm.xml, so the entities stay out of the app's scan.
+// Run with: mvn test -Pbenchmark -Dtest=InsertBatchingBenchmarkTest
+@Tag("benchmark")
+class InsertBatchingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertBatchingBenchmarkTest.class);
+
+    private static final int WARMUP_ROWS = 5_000;
+    private static final int MEASURED_ROWS = 50_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Test
+    void compare_identity_and_pooled_sequence_inserts() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:insert_batching;DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled")
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .build();
+
+        try (SessionFactory sessionFactory = new MetadataSources(registry)
+                .addResource("benchmark/insert-batching-orm.xml")
+                .buildMetadata()
+                .buildSessionFactory()) {
+            insertBooks(sessionFactory, IdentityBook::new, WARMUP_ROWS);
+            insertBooks(sessionFactory, SequenceBook::new, WARMUP_ROWS);
+
+            Statistics statistics = sessionFactory.getStatistics();
+
+            statistics.clear();
+            double identity = insertBooks(sessionFactory, IdentityBook::new, MEASURED_ROWS);
+            long identityStatements = statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            double sequence = insertBooks(sessionFactory, SequenceBook::new, MEASURED_ROWS);
+            long sequenceStatements = statistics.getPrepareStatementCount();
+
+            logger.info("IDENTITY ids (before):         {} rows/sec ({} statements)", String.format("%.0f", identity), identityStatements);
+            logger.info("Pooled sequence ids (after):   {} rows/sec ({} statements)", String.format("%.0f", sequence), sequenceStatements);
+            logger.info("Speed-up: {}x", String.format("%.2f", sequence / identity));
+
+            Assertions.assertTrue(sequenceStatements < identityStatements);
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    private double insertBooks(SessionFactory sessionFactory, IntFunction<Object> newBook, int rows) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                session.persist(newBook.apply(i));
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+            long elapsed = System.nanoTime() - start;
+
+            return rows / (elapsed / 1_000_000_000.0);
+        }
+    }
+
+    // same columns as books; ids mapped in insert-batching-orm.xml
+    public static class IdentityBook {
+
+        private Integer id;
+        private String title;
+        private double price;
+        private String genre;
+        private int stock;
+
+        protected IdentityBook() {
+        }
+
+        IdentityBook(int i) {
+            title = "Benchmark Book " + i;
+            price = 9.99;
+            genre = "Benchmark";
+            stock = 10;
+        }
+    }
+
+    public static class SequenceBook {
+
+        private Integer id;
+        private String title;
+        private double price;
+        private String genre;
+        private int stock;
+
+        protected SequenceBook() {
+        }
+
+        SequenceBook(int i) {
+            title = "Benchmark Book " + i;
+            price = 9.99;
+            genre = "Benchmark";
+            stock = 10;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.application.bookstore.benchmark;
+
+import com.application.bookstore.BookstoreApplication;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drives GET /books?limit=20 (one blocking JDBC round trip per request) from 1k to 10k concurrent
+// clients against the app started with platform request threads and then with the virtual-threads
+// profile. Connector and pool settings are identical; only the request thread model differs.
+// Run with: mvn test -Pbenchmark -Dtest=VirtualThreadLoadBenchmarkTest
+// 10k clients need about 25k open files (ulimit -n); pick smaller levels with -Dload.clients=1000,2000
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadBenchmarkTest.class);
+
+    private static final int[] CLIENT_LEVELS = Arrays.stream(System.getProperty("load.clients", "1000,5000,10000").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+    private static final int WARMUP_CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 10;
+
+    private static final int AUTHORS = 200;
+    private static final int BOOKS = 2_000;
+
+    @Test
+    void compare_platform_and_virtual_request_threads() throws Exception {
+        Map<Integer, Result> platform = runLevels(false);
+        Map<Integer, Result> virtual = runLevels(true);
+
+        logger.info("clients | platform req/s (failed) | virtual req/s (failed)");
+        for (int clients : CLIENT_LEVELS) {
+            logger.info("{} | {} ({}) | {} ({})", clients,
+                    String.format("%.0f", platform.get(clients).requestsPerSecond()), platform.get(clients).failed(),
+                    String.format("%.0f", virtual.get(clients).requestsPerSecond()), virtual.get(clients).failed());
+        }
+
+        for (int clients : CLIENT_LEVELS) {
+            Assertions.assertTrue(platform.get(clients).succeeded() > 0);
+            Assertions.assertTrue(virtual.get(clients).succeeded() > 0);
+        }
+    }
+
+    private Map<Integer, Result> runLevels(boolean virtualThreads) throws Exception {
+        final String mode = virtualThreads ? "virtual" : "platform";
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load_" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.application.bookstore=WARN",
+                "--logging.level.com.application.bookstore.benchmark=INFO",
+                // the connector and pool of the virtual-threads profile, for both modes
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=1000",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.datasource.hikari.connection-timeout=5000"));
+        if (virtualThreads) {
+            args.add("--spring.profiles.active=virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookstoreApplication.class)
+                .run(args.toArray(String[]::new))) {
+            seed(context.getBean(AuthorRepository.class), context.getBean(BookRepository.class));
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(clientThreads)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build();
+
+                drive(client, port, WARMUP_CLIENTS, clientThreads);
+
+                Map<Integer, Result> results = new LinkedHashMap<>();
+                for (int clients : CLIENT_LEVELS) {
+                    Result result = drive(client, port, clients, clientThreads);
+                    logger.info("{} threads, {} clients: {} req/s, {} failed", mode, clients,
+                            String.format("%.0f", result.requestsPerSecond()), result.failed());
+                    results.put(clients, result);
+                }
+                return results;
+            }
+        }
+    }
+
+    private Result drive(HttpClient client, int port, int clients, ExecutorService clientThreads) throws InterruptedException {
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int i = 0; i < clients; i++) {
+            clientThreads.submit(() -> {
+                try {
+                    start.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        if (getPage(client, port)) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        final long startedAt = System.nanoTime();
+        start.countDown();
+        done.await();
+        final long elapsed = System.nanoTime() - startedAt;
+
+        return new Result(succeeded.get(), failed.get(), elapsed);
+    }
+
+    private boolean getPage(HttpClient client, int port) throws InterruptedException {
+        final int afterId = ThreadLocalRandom.current().nextInt(BOOKS);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/api/book-store-service/v1/books?limit=20&afterId=" + afterId))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void seed(AuthorRepository authorRepository, BookRepository bookRepository) {
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = new Author();
+            author.setFirstName("First" + i);
+            author.setLastName("Last" + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setNationality("British");
+            authors.add(author);
+        }
+        authors = authorRepository.saveAll(authors);
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setPrice(9.99);
+            book.setGenre("Fiction");
+            book.setStock(10);
+            book.getAuthors().add(authors.get(i % AUTHORS));
+            books.add(book);
+        }
+        bookRepository.saveAll(books);
+    }
+
+    private record Result(long succeeded, long failed, long elapsedNanos) {
+
+        double requestsPerSecond() {
+            return succeeded / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.application.bookstore.cache;
+
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.CacheStatsDto;
+import com.application.bookstore.event.BookChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class BookDtoCacheTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private AtomicLong now;
+    private AtomicInteger loads;
+    private BookDtoCache bookDtoCache;
+
+    @BeforeEach
+    void beforeEachTest() {
+        now = new AtomicLong();
+        loads = new AtomicInteger();
+        bookDtoCache = new BookDtoCache(2, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    void should_load_once_and_then_hit() {
+        BookDto first = bookDtoCache.getOrLoad(1, ETAG, this::load);
+        BookDto second = bookDtoCache.getOrLoad(1, ETAG, this::load);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, loads.get());
+
+        CacheStatsDto stats = bookDtoCache.getStats();
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+        Assertions.assertEquals(0.5, stats.getHitRatio());
+    }
+
+    @Test
+    void should_evict_least_recently_used_entry_when_full() {
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+        bookDtoCache.getOrLoad(2, ETAG, this::load);
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+        bookDtoCache.getOrLoad(3, ETAG, this::load);
+
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+        bookDtoCache.getOrLoad(2, ETAG, this::load);
+
+        // 2 was evicted by 3 and reloaded (evicting 3); 1 stayed cached throughout
+        Assertions.assertEquals(4, loads.get());
+        Assertions.assertEquals(2, bookDtoCache.getStats().getSize());
+        Assertions.assertEquals(2, bookDtoCache.getStats().getEvictions());
+    }
+
+    @Test
+    void should_reload_expired_entry() {
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(1, bookDtoCache.getStats().getEvictions());
+    }
+
+    @Test
+    void should_reload_after_book_changed_event() {
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+        bookDtoCache.onBookChanged(BookChangedEvent.saved(1));
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void should_reload_entry_cached_at_older_version_before_book_changed_event() {
+        BookDto old = bookDtoCache.getOrLoad(1, ETAG, this::load);
+        // the change committed, its event has not reached the cache yet
+        BookDto current = bookDtoCache.getOrLoad(1, "\"v2\"", this::load);
+        BookDto cached = bookDtoCache.getOrLoad(1, "\"v2\"", this::load);
+
+        Assertions.assertNotSame(old, current);
+        Assertions.assertSame(current, cached);
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(2, bookDtoCache.getStats().getMisses());
+    }
+
+    @Test
+    void should_not_cache_value_loaded_while_book_was_invalidated() {
+        bookDtoCache.getOrLoad(1, ETAG, id -> {
+            bookDtoCache.invalidate(id);
+            return load(id);
+        });
+        bookDtoCache.getOrLoad(1, ETAG, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private BookDto load(int id) {
+        loads.incrementAndGet();
+        BookDto book = new BookDto();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        return book;
+    }
+}
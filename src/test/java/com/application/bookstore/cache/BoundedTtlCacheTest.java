@@ -0,0 +1,98 @@
+package com.application.bookstore.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class BoundedTtlCacheTest {
+
+    private AtomicLong now;
+    private BoundedTtlCache<String, String> cache;
+
+    @BeforeEach
+    void beforeEachTest() {
+        now = new AtomicLong();
+        cache = new BoundedTtlCache<>("test", 10, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    void should_invalidate_entries_matching_predicate() {
+        cache.put("a", "alice", cache.generation());
+        cache.put("b", "bob", cache.generation());
+
+        cache.invalidateIf(value -> value.startsWith("a"));
+
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals("bob", cache.get("b"));
+    }
+
+    @Test
+    void should_not_store_value_loaded_across_an_invalidation_of_its_key() {
+        final long generation = cache.generation();
+        cache.invalidate("a");
+
+        cache.put("a", "alice", generation);
+
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void should_store_value_loaded_across_an_invalidation_of_another_key() {
+        final long generation = cache.generation();
+        cache.invalidate("other");
+
+        cache.put("a", "alice", generation);
+
+        Assertions.assertEquals("alice", cache.get("a"));
+    }
+
+    @Test
+    void should_not_store_value_loaded_across_an_invalidation_matching_it() {
+        final long generation = cache.generation();
+        cache.invalidateIf(value -> value.startsWith("a"));
+
+        cache.put("a", "alice", generation);
+        cache.put("b", "bob", generation);
+
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals("bob", cache.get("b"));
+    }
+
+    @Test
+    void should_not_store_value_loaded_across_a_clear() {
+        final long generation = cache.generation();
+        cache.clear();
+
+        cache.put("a", "alice", generation);
+
+        Assertions.assertNull(cache.get("a"));
+    }
+
+    @Test
+    void should_not_store_value_loaded_before_a_forgotten_invalidation() {
+        final long generation = cache.generation();
+        cache.invalidate("other");
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.invalidate("another");
+
+        cache.put("a", "alice", generation);
+        cache.put("b", "bob", cache.generation());
+
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals("bob", cache.get("b"));
+    }
+
+    @Test
+    void should_count_expired_entry_as_miss_and_eviction() {
+        cache.put("a", "alice", cache.generation());
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        Assertions.assertNull(cache.get("a"));
+        Assertions.assertEquals(1, cache.getStats().getMisses());
+        Assertions.assertEquals(1, cache.getStats().getEvictions());
+    }
+}
@@ -0,0 +1,96 @@
+package com.application.bookstore.config;
+
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
+import com.application.bookstore.repository.AppUserRepository;
+import com.application.bookstore.service.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsIntegrationTest {
+
+    private static final String PROMETHEUS_URL = "/actuator/prometheus";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        appUserRepository.save(new AppUser("metrics_admin", passwordEncoder.encode("secret"), Set.of(Role.ADMIN)));
+        appUserRepository.save(new AppUser("metrics_user", passwordEncoder.encode("secret"), Set.of(Role.USER)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        appUserRepository.delete(appUserRepository.findByUsername("metrics_admin"));
+        appUserRepository.delete(appUserRepository.findByUsername("metrics_user"));
+    }
+
+    @Test
+    void should_time_public_service_methods() {
+        bookService.getAll();
+
+        Assertions.assertNotNull(meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tag("class", BookService.class.getName()).tag("method", "getAll").timer());
+    }
+
+    @Test
+    void should_not_time_mapping_and_validation_helpers() {
+        bookService.toDto(List.of());
+
+        Assertions.assertNull(meterRegistry.find(MetricsConfig.SERVICE_TIMER).tag("method", "toDto").timer());
+    }
+
+    @Test
+    void should_expose_service_repository_and_pool_metrics_to_prometheus() throws Exception {
+        bookService.getAll();
+
+        final String scrape = mockMvc.perform(MockMvcRequestBuilders.get(PROMETHEUS_URL).with(httpBasic("metrics_admin", "secret")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(scrape.contains("bookstore_service_seconds_count{"));
+        Assertions.assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count{"));
+        Assertions.assertTrue(scrape.contains("hikaricp_connections_active{"));
+    }
+
+    @Test
+    void should_restrict_prometheus_endpoint_to_admins() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(PROMETHEUS_URL).with(httpBasic("metrics_user", "secret")))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
@@ -0,0 +1,65 @@
+package com.application.bookstore.config;
+
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
+import com.application.bookstore.repository.AppUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Set;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecurityConfigIntegrationTest {
+
+    private static final String BOOKS_URL = "/api/book-store-service/v1/books";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        appUserRepository.save(new AppUser("export_admin", passwordEncoder.encode("secret"), Set.of(Role.ADMIN)));
+        appUserRepository.save(new AppUser("export_user", passwordEncoder.encode("secret"), Set.of(Role.USER)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        appUserRepository.delete(appUserRepository.findByUsername("export_admin"));
+        appUserRepository.delete(appUserRepository.findByUsername("export_user"));
+    }
+
+    @Test
+    void should_restrict_catalog_export_to_admins() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOKS_URL + "/export"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOKS_URL + "/export").with(httpBasic("export_user", "secret")))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOKS_URL + "/export").with(httpBasic("export_admin", "secret")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+    }
+
+    @Test
+    void should_keep_single_books_public() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOKS_URL + "/-1"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
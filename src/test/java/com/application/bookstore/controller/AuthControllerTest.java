@@ -0,0 +1,64 @@
+package com.application.bookstore.controller;
+
+import com.application.bookstore.dto.LoginRequestDto;
+import com.application.bookstore.dto.TokenDto;
+import com.application.bookstore.service.AuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(AuthController.class)
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @Test
+    void should_return_token_for_valid_credentials() throws Exception {
+        Mockito.when(authService.login(Mockito.any(LoginRequestDto.class)))
+                .thenReturn(new TokenDto("header.payload.signature", "Bearer", 900));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/book-store-service/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson("admin", "secret")))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.accessToken").value("header.payload.signature"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.expiresIn").value(900));
+    }
+
+    @Test
+    void should_return_unauthorized_for_bad_credentials() throws Exception {
+        Mockito.when(authService.login(Mockito.any(LoginRequestDto.class)))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/book-store-service/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson("admin", "wrong")))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Unauthorized"));
+    }
+
+    private static String toJson(String username, String password) throws Exception {
+        LoginRequestDto loginRequestDto = new LoginRequestDto();
+        loginRequestDto.setUsername(username);
+        loginRequestDto.setPassword(password);
+        return new ObjectMapper().writeValueAsString(loginRequestDto);
+    }
+}
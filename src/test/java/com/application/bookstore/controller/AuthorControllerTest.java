@@ -3,6 +3,7 @@ package com.application.bookstore.controller;
 import com.application.bookstore.dto.AuthorDto;
 import com.application.bookstore.dto.AuthorRequestDto;
 import com.application.bookstore.service.AuthorService;
+import com.application.bookstore.service.ResourceVersion;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,12 +19,15 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.Instant;
 import java.util.List;
 
 @AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(AuthorController.class)
 class AuthorControllerTest {
 
+    private static final String ETAG = "\"9a8b7c6d5e4f30211203f4e5d6c7b8a9\"";
+
 
     @Autowired
     private MockMvc mockMvc;
@@ -32,6 +37,7 @@ class AuthorControllerTest {
 
     @Test
     void should_return_all_authors() throws Exception {
+        Mockito.when(authorService.getCatalogVersion()).thenReturn(new ResourceVersion(ETAG, null));
         Mockito.when(authorService.getAll()).thenReturn(dummyAuthorDto());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/authors"))
@@ -42,7 +48,24 @@ class AuthorControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.[0].firstName").value("George"))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.[0].lastName").value("Orwell"))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.[0].email").value("george.orwell@email.com"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].nationality").value("British"));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].nationality").value("British"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, ETAG));
+    }
+
+    @Test
+    void should_return_not_modified_without_loading_unchanged_author() throws Exception {
+        Mockito.when(authorService.getVersion(1)).thenReturn(new ResourceVersion(ETAG, Instant.parse("2024-03-01T10:15:30Z")));
+        Mockito.when(authorService.getById(1)).thenReturn(dummyAuthorDto().getFirst());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/authors/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, ETAG));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/authors/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        Mockito.verify(authorService, Mockito.times(1)).getById(1);
     }
 
     @Test
@@ -1,35 +1,70 @@
 package com.application.bookstore.controller;
 
 import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.BookFacetsDto;
+import com.application.bookstore.dto.BookFilterDto;
+import com.application.bookstore.dto.BookFilterResultDto;
+import com.application.bookstore.dto.BookImportErrorDto;
+import com.application.bookstore.dto.BookImportResultDto;
+import com.application.bookstore.dto.BookPageDto;
 import com.application.bookstore.dto.BookRequestDto;
+import com.application.bookstore.dto.BookSearchResultDto;
+import com.application.bookstore.dto.BookSuggestionDto;
+import com.application.bookstore.dto.FacetCountDto;
+import com.application.bookstore.service.BookExportService;
+import com.application.bookstore.service.BookImportService;
+import com.application.bookstore.service.BookSearchService;
 import com.application.bookstore.service.BookService;
+import com.application.bookstore.service.ResourceVersion;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 @AutoConfigureMockMvc(addFilters = false)
 @WebMvcTest(BookController.class)
 class BookControllerTest {
+
+    private static final String ETAG = "\"5f2b8c0d9e1a4b7c3d6e8f0a1b2c3d4e\"";
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-03-01T10:15:30Z");
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockitoBean
     private BookService bookService;
 
+    @MockitoBean
+    private BookImportService bookImportService;
+
+    @MockitoBean
+    private BookExportService bookExportService;
+
+    @MockitoBean
+    private BookSearchService bookSearchService;
+
     @Test
     void should_return_all_books() throws Exception {
+        Mockito.when(bookService.getCatalogVersion()).thenReturn(new ResourceVersion(ETAG, null));
         Mockito.when(bookService.getAll()).thenReturn(dummyBookDto());
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books"))
@@ -40,7 +75,79 @@ class BookControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.[0].title").value("1984"))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.[0].price").value(12.99))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.[0].genre").value("Dystopian"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].stock").value(50));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].stock").value(50))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, ETAG));
+    }
+
+    @Test
+    void should_return_not_modified_for_unchanged_catalog() throws Exception {
+        Mockito.when(bookService.getCatalogVersion()).thenReturn(new ResourceVersion(ETAG, null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books")
+                        .header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.verify(bookService, Mockito.never()).getAll();
+    }
+
+    @Test
+    void should_return_book_with_etag_and_last_modified() throws Exception {
+        Mockito.when(bookService.getVersion(1)).thenReturn(new ResourceVersion(ETAG, LAST_MODIFIED));
+        Mockito.when(bookService.getById(Mockito.eq(1), Mockito.any())).thenReturn(dummyBookDto().getFirst());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("1984"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(MockMvcResultMatchers.header().dateValue(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED.toEpochMilli()))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void should_return_not_modified_without_loading_unchanged_book() throws Exception {
+        Mockito.when(bookService.getVersion(1)).thenReturn(new ResourceVersion(ETAG, LAST_MODIFIED));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, ETAG));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/1")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Mar 2024 10:15:30 GMT"))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        Mockito.verify(bookService, Mockito.never()).getById(Mockito.eq(1), Mockito.any());
+    }
+
+    @Test
+    void should_return_changed_book_for_stale_etag() throws Exception {
+        Mockito.when(bookService.getVersion(1)).thenReturn(new ResourceVersion(ETAG, LAST_MODIFIED));
+        Mockito.when(bookService.getById(Mockito.eq(1), Mockito.any())).thenReturn(dummyBookDto().getFirst());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0000\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void should_return_page_of_books() throws Exception {
+        BookPageDto page = new BookPageDto();
+        page.setBooks(dummyBookDto());
+        page.setNextCursor(2);
+        Mockito.when(bookService.getPageVersion(0, 2)).thenReturn(new ResourceVersion(ETAG, null));
+        Mockito.when(bookService.getPage(0, 2)).thenReturn(page);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books")
+                        .param("afterId", "0")
+                        .param("limit", "2"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.books.size()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.books[0].title").value("1984"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value(2))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, ETAG));
     }
 
     @Test
@@ -66,6 +173,122 @@ class BookControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.stock").value(50));
     }
 
+    @Test
+    void should_import_books_from_csv() throws Exception {
+        BookImportResultDto importResult = new BookImportResultDto();
+        importResult.setImported(1);
+        importResult.setFailed(1);
+        importResult.getErrors().add(new BookImportErrorDto(3, "title is required"));
+        Mockito.when(bookImportService.importCsv(Mockito.any())).thenReturn(importResult);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/book-store-service/v1/books/import")
+                        .contentType(BookController.TEXT_CSV_VALUE)
+                        .content("title,price,genre,stock,authorEmails\n1984,12.99,Dystopian,50,\n,1,x,1,\n"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(3));
+
+        Mockito.verify(bookImportService).importCsv(Mockito.any());
+        Mockito.verify(bookImportService, Mockito.never()).importNdjson(Mockito.any());
+    }
+
+    @Test
+    void should_filter_books() throws Exception {
+        BookFilterResultDto filterResult = new BookFilterResultDto();
+        filterResult.setBooks(dummyBookDto().subList(1, 2));
+        filterResult.setSize(20);
+        filterResult.setTotal(1);
+        filterResult.setTotalPages(1);
+        Mockito.when(bookService.filter(Mockito.any(BookFilterDto.class))).thenReturn(filterResult);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/filter")
+                        .param("genre", "Fantasy").param("maxPrice", "20").param("inStock", "true")
+                        .param("sort", "price").param("direction", "desc"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.books[0].title").value("Harry Potter"));
+
+        ArgumentCaptor<BookFilterDto> filter = ArgumentCaptor.forClass(BookFilterDto.class);
+        Mockito.verify(bookService).filter(filter.capture());
+        Assertions.assertEquals("Fantasy", filter.getValue().getGenre());
+        Assertions.assertEquals(20.0, filter.getValue().getMaxPrice());
+        Assertions.assertNull(filter.getValue().getMinPrice());
+        Assertions.assertTrue(filter.getValue().getInStock());
+        Assertions.assertEquals("desc", filter.getValue().getDirection());
+        Assertions.assertEquals(20, filter.getValue().getSize());
+    }
+
+    @Test
+    void should_search_books() throws Exception {
+        BookSearchResultDto searchResult = new BookSearchResultDto();
+        searchResult.setQuery("orwell");
+        searchResult.setTotal(1);
+        searchResult.setLimit(20);
+        searchResult.setBooks(dummyBookDto().subList(0, 1));
+        Mockito.when(bookSearchService.search("orwell", 0, 20)).thenReturn(searchResult);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/search").param("q", "orwell"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.books[0].title").value("1984"));
+    }
+
+    @Test
+    void should_autocomplete_books() throws Exception {
+        BookSuggestionDto suggestion = new BookSuggestionDto();
+        suggestion.setText("Harry Potter");
+        suggestion.setType("TITLE");
+        suggestion.setBooks(1);
+        Mockito.when(bookSearchService.autocomplete("hary", 10)).thenReturn(List.of(suggestion));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/autocomplete").param("q", "hary"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].text").value("Harry Potter"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].type").value("TITLE"));
+    }
+
+    @Test
+    void should_return_facets() throws Exception {
+        BookFacetsDto facets = new BookFacetsDto();
+        facets.setTotal(2);
+        facets.setInStock(2);
+        facets.setGenres(List.of(new FacetCountDto("Dystopian", 1), new FacetCountDto("Fantasy", 1)));
+        facets.setPriceRanges(List.of(new FacetCountDto("10-20", 2)));
+        Mockito.when(bookSearchService.getFacets()).thenReturn(facets);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/facets"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.genres[1].value").value("Fantasy"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.priceRanges[0].books").value(2));
+    }
+
+    @Test
+    void should_export_books_as_ndjson() throws Exception {
+        Mockito.when(bookExportService.exportNdjson(Mockito.any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/books/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        Assertions.assertEquals(Duration.ofMinutes(30).toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
     private static List<BookDto> dummyBookDto() {
         BookDto book1 = new BookDto();
         book1.setId(1);
@@ -0,0 +1,73 @@
+package com.application.bookstore.controller;
+
+import com.application.bookstore.cache.BookDtoCache;
+import com.application.bookstore.dto.CacheStatsDto;
+import com.application.bookstore.security.AuthenticationCache;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(CacheController.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookDtoCache bookDtoCache;
+
+    @MockitoBean
+    private AuthenticationCache authenticationCache;
+
+    @Test
+    void should_return_cache_statistics() throws Exception {
+        CacheStatsDto stats = new CacheStatsDto();
+        stats.setName("books");
+        stats.setSize(1);
+        stats.setMaxSize(10000);
+        stats.setHits(3);
+        stats.setMisses(1);
+        stats.setHitRatio(0.75);
+        Mockito.when(bookDtoCache.getStats()).thenReturn(stats);
+
+        CacheStatsDto authenticationStats = new CacheStatsDto();
+        authenticationStats.setName("authentication");
+        authenticationStats.setHits(9);
+        authenticationStats.setMisses(1);
+        authenticationStats.setHitRatio(0.9);
+        Mockito.when(authenticationCache.getStats()).thenReturn(authenticationStats);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/book-store-service/v1/caches"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].name").value("books"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].hits").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].hitRatio").value(0.75))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[1].name").value("authentication"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[1].hitRatio").value(0.9));
+    }
+
+    @Test
+    void should_clear_book_cache() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/book-store-service/v1/caches/books"))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Mockito.verify(bookDtoCache).clear();
+    }
+
+    @Test
+    void should_clear_authentication_cache() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/book-store-service/v1/caches/authentication"))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Mockito.verify(authenticationCache).clear();
+    }
+}
@@ -8,11 +8,13 @@ import com.application.bookstore.service.CustomerService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,6 +22,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.sql.SQLException;
 import java.util.List;
 
 @AutoConfigureMockMvc(addFilters = false)  // This disables all filters including security
@@ -220,6 +223,24 @@ class CustomerControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isConflict());
     }
 
+    @Test
+    void should_return_conflict_when_update_violates_email_constraint() throws Exception {
+        CustomerRequestDto updateDto = new CustomerRequestDto();
+        updateDto.setEmail("existing@email.com");
+
+        Mockito.when(customerService.update(Mockito.eq(1), Mockito.any(CustomerRequestDto.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException(
+                        "duplicate", new SQLException(), "customers.uk_customers_email")));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/book-store-service/v1/customers/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(updateDto)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Attribute Already Exists"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.reason").value("Customer already exists with this email"));
+    }
+
 
     @Test
     void should_return_not_found_when_updating_non_existing_customer() throws Exception {
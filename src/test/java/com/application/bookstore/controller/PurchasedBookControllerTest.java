@@ -40,6 +40,24 @@ class PurchasedBookControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.[0].bookId").value(1));
     }
 
+    @Test
+    void should_create_batch_of_purchased_books() throws Exception {
+
+        Mockito.when(purchasedBookService.createBatch(Mockito.any()))
+                .thenReturn(dummyPurchasedBookDto());
+
+        String requestJson = "{\"customerId\": 1, \"bookIds\": [1, 2]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/book-store-service/v1/purchase/batch")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[0].purchaseId").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.[1].purchaseId").value(2));
+    }
+
     @Test
     void should_create_new_purchased_book() throws Exception {
 
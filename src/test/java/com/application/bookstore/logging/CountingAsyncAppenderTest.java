@@ -0,0 +1,78 @@
+package com.application.bookstore.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CountingAsyncAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+    private ListAppender<ILoggingEvent> written;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        // events copy the MDC when queued
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        logger = context.getLogger("com.application.bookstore.service.PurchasedBookService");
+
+        written = new ListAppender<>();
+        written.setContext(context);
+        written.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+    }
+
+    @Test
+    void should_keep_every_event_with_the_prod_settings() {
+        CountingAsyncAppender async = start(0);
+
+        for (int i = 0; i < 100; i++) {
+            async.doAppend(event(Level.INFO, "Purchase created successfully"));
+        }
+        async.stop();
+
+        Assertions.assertEquals(0, async.getDiscardedCount());
+        Assertions.assertEquals(100, written.list.size());
+    }
+
+    @Test
+    void should_count_events_discarded_past_the_threshold() {
+        // a threshold above the queue size: every event is past it
+        CountingAsyncAppender async = start(17);
+
+        async.doAppend(event(Level.INFO, "Purchase created successfully"));
+        async.doAppend(event(Level.WARN, "Cannot create purchase"));
+        async.stop();
+
+        Assertions.assertEquals(1, async.getDiscardedCount());
+        Assertions.assertEquals(1, written.list.size());
+    }
+
+    private CountingAsyncAppender start(int discardingThreshold) {
+        CountingAsyncAppender async = new CountingAsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(16);
+        async.setDiscardingThreshold(discardingThreshold);
+        async.setMaxFlushTime(0);
+        async.addAppender(written);
+        async.start();
+        return async;
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+}
@@ -0,0 +1,71 @@
+package com.application.bookstore.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+class SamplingTurboFilterTest {
+
+    private SamplingTurboFilter filter;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("com.application.bookstore.service.BookService");
+
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setMarker(LogMarkers.SAMPLED_READ.getName());
+        filter.setRate(10);
+        filter.start();
+    }
+
+    @Test
+    void should_let_through_one_in_rate_marked_events() {
+        int passed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (decide(LogMarkers.SAMPLED_READ, "Fetching book with ID: {}") == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        Assertions.assertEquals(10, passed);
+    }
+
+    @Test
+    void should_not_touch_unmarked_or_other_marked_events() {
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(null, "Book created successfully"));
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(MarkerFactory.getMarker("OTHER"), "Book created successfully"));
+        }
+    }
+
+    @Test
+    void should_not_sample_level_checks() {
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(LogMarkers.SAMPLED_READ, null));
+        }
+    }
+
+    @Test
+    void should_not_start_without_marker() {
+        SamplingTurboFilter unconfigured = new SamplingTurboFilter();
+        unconfigured.setContext(new LoggerContext());
+        unconfigured.start();
+
+        Assertions.assertFalse(unconfigured.isStarted());
+        Assertions.assertEquals(FilterReply.NEUTRAL,
+                unconfigured.decide(LogMarkers.SAMPLED_READ, logger, Level.INFO, "Fetching all books", null, null));
+    }
+
+    private FilterReply decide(Marker marker, String format) {
+        return filter.decide(marker, logger, Level.INFO, format, null, null);
+    }
+}
@@ -0,0 +1,140 @@
+package com.application.bookstore.migration;
+
+import com.application.bookstore.exception.AttributeAlreadyExistsException;
+import com.application.bookstore.exception.UniqueConstraintViolations;
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.model.Role;
+import com.application.bookstore.repository.AppUserRepository;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+// Boots the application on a database created before migrations existed
+// (db/legacy/pre_flyway_schema.sql): baselined at V1, then V2 onwards, then Hibernate validation.
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + PreFlywaySchemaUpgradeTest.URL,
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        V1_1__Merge_duplicate_emails.MERGE_PROPERTY + "=true"})
+class PreFlywaySchemaUpgradeTest {
+
+    static final String URL = "jdbc:h2:mem:pre_flyway_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // runs before the context, so Flyway finds the legacy tables
+    @BeforeAll
+    static void createLegacySchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "SA", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("runscript from 'classpath:db/legacy/pre_flyway_schema.sql'");
+        }
+    }
+
+    @Test
+    void should_upgrade_legacy_database_to_current_schema() {
+        Assertions.assertEquals("1", flyway.info().applied()[0].getVersion().getVersion());
+        Assertions.assertEquals("5", flyway.info().current().getVersion().getVersion());
+    }
+
+    @Test
+    void should_continue_ids_after_the_largest_existing_one() {
+        Book book = new Book();
+        book.setTitle("Fahrenheit 451");
+        book.setPrice(9.99);
+        book.setGenre("Dystopian");
+        book.setStock(20);
+
+        Assertions.assertEquals(8, bookRepository.save(book).getId());
+
+        Author author = new Author();
+        author.setFirstName("Ray");
+        author.setLastName("Bradbury");
+        author.setEmail("ray.bradbury@email.com");
+        author.setNationality("American");
+
+        Assertions.assertEquals(3, authorRepository.save(author).getId());
+    }
+
+    @Test
+    void should_merge_duplicate_emails_into_the_lowest_id() {
+        Assertions.assertEquals(List.of(2), jdbcTemplate.queryForList(
+                "select id from authors where email = 'george.orwell@email.com'", Integer.class));
+        Assertions.assertEquals(List.of(1, 7), jdbcTemplate.queryForList(
+                "select book_id from book_author where author_id = 2 order by book_id", Integer.class));
+        Assertions.assertEquals(List.of(1), jdbcTemplate.queryForList(
+                "select id from customers where email = 'john.doe@email.com'", Integer.class));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "select customer_id from purchased_books where id = 1", Integer.class));
+    }
+
+    @Test
+    void should_stop_and_report_duplicate_emails_unless_merging_is_enabled() throws SQLException {
+        final String url = "jdbc:h2:mem:pre_flyway_no_merge_db;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        try (Connection connection = DriverManager.getConnection(url, "SA", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("runscript from 'classpath:db/legacy/pre_flyway_schema.sql'");
+        }
+
+        Flyway legacy = Flyway.configure()
+                .dataSource(url, "SA", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .javaMigrations(new V1_1__Merge_duplicate_emails(false))
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+
+        // Flyway wraps the migration's own exception
+        Throwable failure = Assertions.assertThrows(FlywayException.class, legacy::migrate);
+        while (failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        Assertions.assertTrue(failure.getMessage().contains("authors george.orwell@email.com: ids [2, 4]"), failure.getMessage());
+        Assertions.assertTrue(failure.getMessage().contains("customers john.doe@email.com: ids [1, 2]"), failure.getMessage());
+
+        try (Connection connection = DriverManager.getConnection(url, "SA", "");
+             Statement statement = connection.createStatement();
+             ResultSet authors = statement.executeQuery("select count(*) from authors")) {
+            authors.next();
+            Assertions.assertEquals(2, authors.getInt(1));
+        }
+    }
+
+    @Test
+    void should_recognize_duplicate_username_by_renamed_constraint() {
+        AppUser duplicate = new AppUser("admin", "password", Set.of(Role.USER));
+
+        Assertions.assertThrows(AttributeAlreadyExistsException.class, () ->
+                UniqueConstraintViolations.saveUnique(appUserRepository, duplicate, AppUser.UK_USERNAME, duplicate.getUsername()));
+    }
+}
@@ -0,0 +1,50 @@
+package com.application.bookstore.model;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@DataJpaTest
+class PooledSequenceGeneratorTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void should_use_configured_pooled_sequence_for_every_entity() {
+        for (Class<?> entity : List.of(Book.class, Author.class, Customer.class, PurchasedBook.class, AppUser.class)) {
+            final Generator generator = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getMappingMetamodel().getEntityDescriptor(entity).getGenerator();
+
+            PooledSequenceGenerator sequence = Assertions.assertInstanceOf(PooledSequenceGenerator.class, generator, entity.getName());
+            PooledOptimizer optimizer = Assertions.assertInstanceOf(PooledOptimizer.class, sequence.getOptimizer(), entity.getName());
+            Assertions.assertEquals(PooledSequenceGenerator.ALLOCATION_SIZE, optimizer.getIncrementSize(), entity.getName());
+        }
+    }
+
+    // only H2 runs in the build; the MySQL and PostgreSQL scripts are checked by text
+    @Test
+    void should_create_every_pooled_sequence_in_each_vendor_migration() throws Exception {
+        for (String vendor : List.of("h2", "mysql", "postgresql")) {
+            final String script = new ClassPathResource("db/migration/" + vendor + "/V1__create_schema.sql")
+                    .getContentAsString(StandardCharsets.UTF_8);
+
+            for (Class<?> entity : List.of(Book.class, Author.class, Customer.class, PurchasedBook.class, AppUser.class)) {
+                final String sequence = entity.getDeclaredField("id").getAnnotation(PooledSequence.class).value();
+                final String ddl = vendor.equals("mysql")
+                        ? "create table " + sequence + " (next_val bigint)"
+                        : "create sequence " + sequence + " start with 1 increment by " + PooledSequenceGenerator.ALLOCATION_SIZE;
+                Assertions.assertTrue(script.contains(ddl), vendor + " V1 should contain: " + ddl);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.application.bookstore.repository;
 
 import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 
 import javax.sql.DataSource;
 import java.util.List;
+import java.util.Set;
 
 @DataJpaTest
 @AutoConfigureMockMvc(addFilters = false)
@@ -21,13 +24,16 @@ class AppUserRepositoryTest {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void setUp() {
 
         AppUser admin = new AppUser();
         admin.setUsername("admin_user");
         admin.setPassword("admin123");
-        admin.setRoles("ADMIN");
+        admin.setRoles(Set.of(Role.ADMIN));
 
         appUserRepository.save(admin);
 
@@ -35,7 +41,7 @@ class AppUserRepositoryTest {
         AppUser user = new AppUser();
         user.setUsername("customer_user");
         user.setPassword("customer123");
-        user.setRoles("USER");
+        user.setRoles(Set.of(Role.USER));
 
         appUserRepository.save(user);
     }
@@ -55,4 +61,17 @@ class AppUserRepositoryTest {
         Assertions.assertEquals(2, result.size());
     }
 
+    @Test
+    void should_load_users_whose_stored_roles_include_names_that_are_no_longer_roles() {
+        // written before roles were an enum, when any uppercased name was stored
+        entityManager.createNativeQuery("insert into users (id, username, password, roles) values (-1, 'legacy_user', 'x', 'USER, MANAGER')")
+                .executeUpdate();
+
+        List<AppUser> result = appUserRepository.findAll();
+
+        Assertions.assertEquals(3, result.size());
+        AppUser legacy = appUserRepository.findByUsername("legacy_user");
+        Assertions.assertEquals(Set.of(Role.USER), legacy.getRoles());
+    }
+
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.application.bookstore.repository;
 
 import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,13 +16,19 @@ import javax.sql.DataSource;
 import java.util.List;
 
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureMockMvc(addFilters = false)
 class AuthorRepositoryTest {
 
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private DataSource dataSource;
 
@@ -55,4 +65,52 @@ class AuthorRepositoryTest {
         Assertions.assertEquals(2, result.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    void should_load_all_authors_with_books_in_a_single_statement() {
+        attachBooksToAllAuthors();
+        Statistics statistics = resetStatistics();
+
+        List<Author> result = authorRepository.findAllWithBooks();
+        result.forEach(author -> author.getBooks().forEach(Book::getTitle));
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(3, result.getFirst().getBooks().size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void should_batch_load_books_for_all_authors() {
+        attachBooksToAllAuthors();
+        Statistics statistics = resetStatistics();
+
+        List<Author> result = authorRepository.findAll();
+        result.forEach(author -> author.getBooks().forEach(Book::getTitle));
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private void attachBooksToAllAuthors() {
+        List<Author> authors = authorRepository.findAll();
+
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setPrice(9.99);
+            book.setGenre("Fiction");
+            book.setStock(10);
+            book.getAuthors().addAll(authors);
+            bookRepository.save(book);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+}
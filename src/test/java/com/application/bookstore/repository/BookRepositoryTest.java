@@ -1,24 +1,46 @@
 package com.application.bookstore.repository;
 
+import com.application.bookstore.model.Author;
 import com.application.bookstore.model.Book;
+import com.application.bookstore.service.BookExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureMockMvc(addFilters = false)
 class BookRepositoryTest {
 
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private DataSource dataSource;
 
@@ -55,4 +77,158 @@ class BookRepositoryTest {
         Assertions.assertEquals(2, result.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    void should_return_books_after_cursor_in_id_order() {
+        List<Book> firstPage = bookRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(1));
+        Assertions.assertEquals(1, firstPage.size());
+        Assertions.assertEquals("1984", firstPage.getFirst().getTitle());
+
+        List<Book> secondPage = bookRepository.findByIdGreaterThanOrderByIdAsc(firstPage.getFirst().getId(), Limit.of(1));
+        Assertions.assertEquals(1, secondPage.size());
+        Assertions.assertEquals("Harry Potter", secondPage.getFirst().getTitle());
+
+        List<Book> lastPage = bookRepository.findByIdGreaterThanOrderByIdAsc(secondPage.getFirst().getId(), Limit.of(1));
+        Assertions.assertTrue(lastPage.isEmpty());
+    }
+
+    @Test
+    void should_load_all_books_with_authors_in_a_single_statement() {
+        attachAuthorsToAdditionalBooks(10);
+        Statistics statistics = resetStatistics();
+
+        List<Book> result = bookRepository.findAllWithAuthors();
+        result.forEach(book -> book.getAuthors().forEach(Author::getFirstName));
+
+        Assertions.assertEquals(12, result.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void should_batch_load_authors_for_a_page_of_books() {
+        attachAuthorsToAdditionalBooks(10);
+        Statistics statistics = resetStatistics();
+
+        List<Book> result = bookRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(12));
+        result.forEach(book -> book.getAuthors().forEach(Author::getFirstName));
+
+        Assertions.assertEquals(12, result.size());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void should_load_single_book_with_authors_in_a_single_statement() {
+        int bookId = attachAuthorsToAdditionalBooks(1).getFirst().getId();
+        Statistics statistics = resetStatistics();
+
+        Book result = bookRepository.findWithAuthorsById(bookId).orElseThrow();
+
+        Assertions.assertEquals(2, result.getAuthors().size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void should_stream_export_rows_of_all_books_in_id_order() {
+        attachAuthorsToAdditionalBooks(3);
+
+        try (Stream<BookExportRow> rows = bookRepository.streamExportRows()) {
+            List<BookExportRow> result = rows.toList();
+
+            // two books without authors, three with two authors each
+            Assertions.assertEquals(8, result.size());
+            Assertions.assertEquals("1984", result.getFirst().getTitle());
+            Assertions.assertNull(result.getFirst().getAuthorId());
+            Assertions.assertEquals(result.get(6).getId(), result.getLast().getId());
+            Assertions.assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        }
+    }
+
+    @Test
+    void should_export_every_book_with_its_authors_in_a_single_statement() throws Exception {
+        attachAuthorsToAdditionalBooks(10);
+        Statistics statistics = resetStatistics();
+
+        // inside the test's transaction, as the export runs inside its own
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = new BookExportService(bookRepository, new ObjectMapper(), 4).exportNdjson(out);
+
+        Assertions.assertEquals(12, exported);
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getCollectionFetchCount());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, new ObjectMapper().readTree(lines[11]).get("author").size());
+    }
+
+    @Test
+    void should_filter_books_by_genre_price_range_and_stock() {
+        Book soldOut = new Book();
+        soldOut.setTitle("The Hobbit");
+        soldOut.setPrice(10.99);
+        soldOut.setGenre("Fantasy");
+        soldOut.setStock(0);
+        bookRepository.save(soldOut);
+
+        Specification<Book> fantasyUnder20 = Specification.allOf(BookSpecifications.hasGenre("Fantasy"),
+                BookSpecifications.priceAtLeast(10), BookSpecifications.priceAtMost(20));
+
+        Assertions.assertEquals(List.of("The Hobbit", "Harry Potter"),
+                titles(bookRepository.findAll(fantasyUnder20, Sort.by("price"))));
+        Assertions.assertEquals(List.of("Harry Potter"),
+                titles(bookRepository.findAll(fantasyUnder20.and(BookSpecifications.inStock(true)), Sort.by("price"))));
+        Assertions.assertEquals(List.of("The Hobbit"),
+                titles(bookRepository.findAll(BookSpecifications.inStock(false), Sort.by("price"))));
+    }
+
+    @Test
+    void should_filter_books_by_author_and_page_them() {
+        attachAuthorsToAdditionalBooks(3);
+        final int orwellId = authorRepository.findByEmail("george.orwell@email.com").getId();
+
+        Page<Book> firstPage = bookRepository.findAll(BookSpecifications.hasAuthor(orwellId),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "title")));
+
+        Assertions.assertEquals(3, firstPage.getTotalElements());
+        Assertions.assertEquals(List.of("Book 2", "Book 1"), titles(firstPage.getContent()));
+    }
+
+    private static List<String> titles(List<Book> books) {
+        return books.stream().map(Book::getTitle).toList();
+    }
+
+    private List<Book> attachAuthorsToAdditionalBooks(int count) {
+        Author orwell = new Author();
+        orwell.setFirstName("George");
+        orwell.setLastName("Orwell");
+        orwell.setEmail("george.orwell@email.com");
+        orwell.setNationality("British");
+
+        Author huxley = new Author();
+        huxley.setFirstName("Aldous");
+        huxley.setLastName("Huxley");
+        huxley.setEmail("aldous.huxley@email.com");
+        huxley.setNationality("British");
+
+        List<Author> authors = authorRepository.saveAll(List.of(orwell, huxley));
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setPrice(9.99);
+            book.setGenre("Fiction");
+            book.setStock(10);
+            book.getAuthors().addAll(authors);
+            books.add(bookRepository.save(book));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return books;
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+}
@@ -3,6 +3,9 @@ package com.application.bookstore.repository;
 import com.application.bookstore.model.Book;
 import com.application.bookstore.model.Customer;
 import com.application.bookstore.model.PurchasedBook;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,10 +16,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import javax.sql.DataSource;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureMockMvc(addFilters = false)
 class PurchasedBookRepositoryTest {
 
@@ -29,6 +33,9 @@ class PurchasedBookRepositoryTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private DataSource dataSource;
 
@@ -89,4 +96,31 @@ class PurchasedBookRepositoryTest {
         Assertions.assertFalse(result.isEmpty());
         Assertions.assertEquals(2, result.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_insert_purchases_in_jdbc_batches() {
+        Customer customer = customerRepository.findAll().getFirst();
+        Book book = bookRepository.findAll().getFirst();
+
+        List<PurchasedBook> purchases = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            PurchasedBook purchasedBook = new PurchasedBook();
+            purchasedBook.setCustomer(customer);
+            purchasedBook.setBook(book);
+            purchasedBook.setPurchaseDate(LocalDate.now());
+            purchases.add(purchasedBook);
+        }
+
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        purchasedBookRepository.saveAll(purchases);
+        entityManager.flush();
+
+        Assertions.assertEquals(40, statistics.getEntityInsertCount());
+        // one sequence call at most for the pooled block, one prepared insert for the batch
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "expected batched inserts but got " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
@@ -0,0 +1,223 @@
+package com.application.bookstore.repository;
+
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.model.Customer;
+import com.application.bookstore.model.PurchasedBook;
+import com.application.bookstore.model.Role;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Runs EXPLAIN on the SQL Hibernate actually issues for each keyed repository query and fails on
+// a table scan, so a query whose index is missing from the migrations is caught here. findAll*,
+// findAllWithAuthors/-Books, streamExportRows, streamIndexRows and getVersionTotals read every row on purpose and are not checked.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.application.bookstore.repository.QueryPlanTest$RecordingStatementInspector")
+class QueryPlanTest {
+
+    private static final String TABLE_SCAN = ".tableScan";
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private PurchasedBookRepository purchasedBookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Author author;
+    private Book book;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author();
+        author.setFirstName("George");
+        author.setLastName("Orwell");
+        author.setEmail("george.orwell@email.com");
+        author.setNationality("British");
+        authorRepository.save(author);
+
+        book = new Book();
+        book.setTitle("1984");
+        book.setPrice(12.99);
+        book.setGenre("Dystopian");
+        book.setStock(10);
+        book.getAuthors().add(author);
+        bookRepository.save(book);
+
+        customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("john.doe@email.com");
+        customer.setPhoneNumber("0123456789");
+        customer.setAddress("Nugegoda, Colombo");
+        customerRepository.save(customer);
+
+        PurchasedBook purchasedBook = new PurchasedBook();
+        purchasedBook.setCustomer(customer);
+        purchasedBook.setBook(book);
+        purchasedBook.setPurchaseDate(LocalDate.now());
+        purchasedBookRepository.save(purchasedBook);
+
+        appUserRepository.save(new AppUser("admin", "encoded_password", Set.of(Role.ADMIN)));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void author_find_by_email_uses_index() {
+        assertNoTableScan(() -> authorRepository.findByEmail(author.getEmail()), author.getEmail());
+    }
+
+    @Test
+    void author_find_by_email_in_uses_index() {
+        assertNoTableScan(() -> authorRepository.findByEmailIn(List.of(author.getEmail())), author.getEmail());
+    }
+
+    @Test
+    void author_find_with_books_by_id_uses_index() {
+        assertNoTableScan(() -> authorRepository.findWithBooksById(author.getId()), author.getId());
+    }
+
+    @Test
+    void book_find_with_authors_by_id_uses_index() {
+        assertNoTableScan(() -> bookRepository.findWithAuthorsById(book.getId()), book.getId());
+    }
+
+    @Test
+    void book_find_with_authors_by_id_in_uses_index() {
+        assertNoTableScan(() -> bookRepository.findWithAuthorsByIdIn(List.of(book.getId())), book.getId());
+    }
+
+    @Test
+    void book_find_index_rows_by_id_in_uses_index() {
+        assertNoTableScan(() -> bookRepository.findIndexRowsByIdIn(List.of(book.getId())), book.getId());
+    }
+
+    @Test
+    void book_keyset_page_uses_index() {
+        assertNoTableScan(() -> bookRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(10)), 0, 10);
+    }
+
+    @Test
+    void book_keyset_page_ids_use_index() {
+        assertNoTableScan(() -> bookRepository.findIdsAfter(0, Limit.of(10)), 0, 10);
+    }
+
+    @Test
+    void book_find_version_by_id_uses_index() {
+        assertNoTableScan(() -> bookRepository.findVersionById(book.getId()), book.getId());
+    }
+
+    @Test
+    void book_find_versions_by_id_range_uses_index() {
+        assertNoTableScan(() -> bookRepository.findVersionsByIdBetween(book.getId(), book.getId()), book.getId(), book.getId());
+    }
+
+    @Test
+    void author_find_version_by_id_uses_index() {
+        assertNoTableScan(() -> authorRepository.findVersionById(author.getId()), author.getId());
+    }
+
+    @Test
+    void book_filter_by_genre_and_price_range_uses_index() {
+        assertNoTableScan(() -> bookRepository.findAll(Specification.allOf(BookSpecifications.hasGenre("Dystopian"),
+                BookSpecifications.priceAtLeast(5), BookSpecifications.priceAtMost(20)), Sort.by("price")), "Dystopian", 5.0, 20.0);
+    }
+
+    @Test
+    void book_filter_in_stock_uses_index() {
+        assertNoTableScan(() -> bookRepository.findAll(BookSpecifications.inStock(false)), 0);
+    }
+
+    @Test
+    void book_filter_by_author_uses_index() {
+        assertNoTableScan(() -> bookRepository.findAll(BookSpecifications.hasAuthor(author.getId())), author.getId());
+    }
+
+    @Test
+    void book_decrement_stock_uses_index() {
+        assertNoTableScan(() -> bookRepository.decrementStock(book.getId(), 1), 1, book.getId(), 1);
+    }
+
+    @Test
+    void customer_find_by_email_uses_index() {
+        assertNoTableScan(() -> customerRepository.findByEmail(customer.getEmail()), customer.getEmail());
+    }
+
+    @Test
+    void app_user_find_by_username_uses_index() {
+        assertNoTableScan(() -> appUserRepository.findByUsername("admin"), "admin");
+    }
+
+    @Test
+    void books_of_author_are_loaded_by_index() {
+        Author loaded = entityManager.find(Author.class, author.getId());
+
+        assertNoTableScan(() -> loaded.getBooks().size(), author.getId());
+    }
+
+    @Test
+    void purchases_of_customer_are_loaded_by_index() {
+        Customer loaded = entityManager.find(Customer.class, customer.getId());
+
+        assertNoTableScan(() -> loaded.getPurchasedBooks().size(), customer.getId());
+    }
+
+    // explains the last statement the query issued, bound to the given parameters
+    private void assertNoTableScan(Runnable query, Object... parameters) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        query.run();
+        Assertions.assertFalse(RecordingStatementInspector.STATEMENTS.isEmpty(), "query issued no statement");
+
+        final String sql = RecordingStatementInspector.STATEMENTS.getLast();
+        final String plan = String.join("\n", jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+        }, (resultSet, rowNum) -> resultSet.getString(1)));
+
+        Assertions.assertFalse(plan.contains(TABLE_SCAN), () -> "full table scan in plan:\n" + plan);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.application.bookstore.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class AutocompleteTrieTest {
+
+    private AutocompleteTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new AutocompleteTrie();
+        trie.put(1, "Harry Potter and the Philosopher's Stone", List.of("Rowling"));
+        trie.put(2, "Harry Potter and the Chamber of Secrets", List.of("Rowling"));
+        trie.put(3, "Hard Times", List.of("Dickens"));
+        trie.put(4, "Harvest", List.of("Crace"));
+        trie.put(5, "Rowing Home", List.of("Smith"));
+        trie.put(6, "Hard Times", List.of("Dickens"));
+    }
+
+    @Test
+    void should_suggest_titles_and_authors_starting_with_prefix() {
+        Assertions.assertEquals(List.of("Hard Times", "Harvest", "Harry Potter and the Chamber of Secrets",
+                "Harry Potter and the Philosopher's Stone"), texts(trie.suggest("har", 10)));
+        Assertions.assertEquals(List.of("Rowling", "Rowing Home"), texts(trie.suggest("row", 10)));
+    }
+
+    @Test
+    void should_rank_by_number_of_books_and_count_duplicates_once() {
+        final List<AutocompleteTrie.Match> matches = trie.suggest("h", 10);
+
+        Assertions.assertEquals("Hard Times", matches.getFirst().text());
+        Assertions.assertEquals(2, matches.getFirst().books());
+        Assertions.assertEquals(1, matches.stream().filter(match -> match.text().equals("Hard Times")).count());
+    }
+
+    @Test
+    void should_tolerate_typos_after_exact_matches() {
+        final List<AutocompleteTrie.Match> matches = trie.suggest("hary pot", 10);
+
+        Assertions.assertEquals(List.of("Harry Potter and the Chamber of Secrets", "Harry Potter and the Philosopher's Stone"),
+                texts(matches));
+        Assertions.assertTrue(matches.stream().allMatch(match -> match.edits() == 1));
+
+        Assertions.assertEquals(List.of("Dickens"), texts(trie.suggest("dikens", 10)));
+    }
+
+    @Test
+    void should_not_fuzz_very_short_prefixes() {
+        Assertions.assertEquals(List.of(), texts(trie.suggest("xa", 10)));
+        Assertions.assertEquals(0, AutocompleteTrie.maxEdits("ab"));
+        Assertions.assertEquals(1, AutocompleteTrie.maxEdits("abcde"));
+        Assertions.assertEquals(2, AutocompleteTrie.maxEdits("abcdef"));
+    }
+
+    @Test
+    void should_ignore_case_accents_and_punctuation() {
+        trie.put(7, "Cien años de soledad", List.of("García Márquez"));
+
+        Assertions.assertEquals(List.of("Cien años de soledad"), texts(trie.suggest("CIEN ANOS", 10)));
+        Assertions.assertEquals(List.of("García Márquez"), texts(trie.suggest("garcia m", 10)));
+        Assertions.assertEquals("Harry Potter and the Philosopher's Stone",
+                texts(trie.suggest("harry potter and the philosopher s", 10)).getFirst());
+    }
+
+    @Test
+    void should_update_and_remove_books() {
+        trie.put(4, "Harvest Moon", List.of("Crace"));
+        Assertions.assertEquals(List.of("Harvest Moon"), texts(trie.suggest("harve", 10)));
+
+        trie.remove(6);
+        Assertions.assertEquals(1, trie.suggest("hard", 10).getFirst().books());
+
+        trie.remove(3);
+        trie.remove(1);
+        trie.remove(2);
+        Assertions.assertEquals(List.of("Harvest Moon"), texts(trie.suggest("har", 10)));
+        Assertions.assertEquals(List.of("Rowing Home"), texts(trie.suggest("row", 10)));
+        Assertions.assertEquals(2, trie.size());
+    }
+
+    @Test
+    void should_keep_only_the_requested_number_of_suggestions() {
+        for (int id = 100; id < 130; id++) {
+            trie.put(id, "Harbour " + id, List.of());
+        }
+
+        Assertions.assertEquals(3, trie.suggest("har", 3).size());
+        Assertions.assertEquals(AutocompleteTrie.MAX_SUGGESTIONS, trie.suggest("harbour", 50).size());
+    }
+
+    private static List<String> texts(List<AutocompleteTrie.Match> matches) {
+        return matches.stream().map(AutocompleteTrie.Match::text).toList();
+    }
+}
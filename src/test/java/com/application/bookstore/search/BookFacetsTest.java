@@ -0,0 +1,95 @@
+package com.application.bookstore.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class BookFacetsTest {
+
+    private BookFacets facets;
+
+    @BeforeEach
+    void setUp() {
+        facets = new BookFacets();
+        facets.put(1, "Dystopian", 12.99, 50);
+        facets.put(2, "Fantasy", 15.99, 0);
+        facets.put(3, "Fantasy", 9.99, 5);
+        facets.put(4, "Reference", 75.00, 1);
+    }
+
+    @Test
+    void should_count_books_per_genre_price_range_and_stock() {
+        final BookFacets.Counts counts = facets.counts();
+
+        Assertions.assertEquals(Map.of("Dystopian", 1L, "Fantasy", 2L, "Reference", 1L), counts.genres());
+        Assertions.assertArrayEquals(new long[]{1, 2, 0, 1}, counts.priceRanges());
+        Assertions.assertEquals(3, counts.inStock());
+        Assertions.assertEquals(4, counts.total());
+    }
+
+    @Test
+    void should_move_updated_book_between_buckets() {
+        facets.put(2, "Dystopian", 25.00, 3);
+
+        final BookFacets.Counts counts = facets.counts();
+        Assertions.assertEquals(Map.of("Dystopian", 2L, "Fantasy", 1L, "Reference", 1L), counts.genres());
+        Assertions.assertArrayEquals(new long[]{1, 1, 1, 1}, counts.priceRanges());
+        Assertions.assertEquals(4, counts.inStock());
+        Assertions.assertEquals(4, counts.total());
+    }
+
+    @Test
+    void should_drop_genre_when_last_book_is_removed() {
+        facets.remove(4);
+        facets.remove(4);
+
+        final BookFacets.Counts counts = facets.counts();
+        Assertions.assertFalse(counts.genres().containsKey("Reference"));
+        Assertions.assertEquals(3, counts.total());
+        Assertions.assertEquals(2, counts.inStock());
+    }
+
+    @Test
+    void should_put_price_bounds_in_the_upper_range() {
+        Assertions.assertEquals(0, BookFacets.priceRange(9.99));
+        Assertions.assertEquals(1, BookFacets.priceRange(10));
+        Assertions.assertEquals(2, BookFacets.priceRange(20));
+        Assertions.assertEquals(3, BookFacets.priceRange(50));
+    }
+
+    @Test
+    void should_sum_group_by_rows_and_compare_them_with_the_counts() {
+        final BookFacets.Counts actual = BookFacets.fromGroupByRows(List.of(
+                new Object[]{"Fantasy", 1, 1, 3L},
+                new Object[]{"Fantasy", 1, 0, 1L},
+                new Object[]{"Poetry", 0, 1, 2L}));
+
+        Assertions.assertEquals(Map.of("Fantasy", 4L, "Poetry", 2L), actual.genres());
+        Assertions.assertArrayEquals(new long[]{2, 4, 0, 0}, actual.priceRanges());
+        Assertions.assertEquals(5, actual.inStock());
+        Assertions.assertFalse(facets.counts().sameAs(actual));
+
+        final BookFacets.Counts same = BookFacets.fromGroupByRows(List.of(
+                new Object[]{"Dystopian", 1, 1, 1L},
+                new Object[]{"Fantasy", 1, 0, 1L},
+                new Object[]{"Fantasy", 0, 1, 1L},
+                new Object[]{"Reference", 3, 1, 1L}));
+        Assertions.assertTrue(facets.counts().sameAs(same));
+    }
+
+    @Test
+    void should_change_only_stock_of_a_book() {
+        facets.updateStock(2, 4);
+        facets.updateStock(7, 4);
+
+        final BookFacets.Counts counts = facets.counts();
+        Assertions.assertEquals(4, counts.inStock());
+        Assertions.assertEquals(4, counts.total());
+        Assertions.assertArrayEquals(new long[]{1, 2, 0, 1}, counts.priceRanges());
+        Assertions.assertEquals(Boolean.TRUE, facets.isInStock(2));
+        Assertions.assertNull(facets.isInStock(7));
+    }
+}
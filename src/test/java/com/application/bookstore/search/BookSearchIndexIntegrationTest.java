@@ -0,0 +1,232 @@
+package com.application.bookstore.search;
+
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.BookImportResultDto;
+import com.application.bookstore.dto.BookRequestDto;
+import com.application.bookstore.dto.PurchasedBookRequestDto;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.model.Customer;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.CustomerRepository;
+import com.application.bookstore.repository.PurchasedBookRepository;
+import com.application.bookstore.service.BookImportService;
+import com.application.bookstore.service.BookService;
+import com.application.bookstore.service.PurchasedBookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@SpringBootTest
+class BookSearchIndexIntegrationTest {
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PurchasedBookService purchasedBookService;
+
+    @Autowired
+    private PurchasedBookRepository purchasedBookRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author();
+        author.setFirstName("Ursula");
+        author.setLastName("Quillfeather");
+        author.setEmail("ursula.quillfeather@email.com");
+        author.setNationality("American");
+        author = authorRepository.save(author);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // through the service, so the index hears about it
+        bookRepository.findAll().stream()
+                .filter(book -> book.getTitle().toLowerCase().contains("zephyrine"))
+                .forEach(book -> bookService.delete(book.getId()));
+        authorRepository.delete(author);
+    }
+
+    @Test
+    void should_index_created_updated_and_deleted_books() {
+        final BookDto created = bookService.create(bookRequest("Zephyrine Gate"));
+        Assertions.assertEquals(List.of(created.getId()), ids("zephyrine gate"));
+
+        // update and attach map lazy authors, which needs the session the web request keeps open
+        transactionTemplate.executeWithoutResult(status -> bookService.update(created.getId(), bookRequest("Zephyrine Tower")));
+        Assertions.assertEquals(List.of(), ids("gate"));
+        Assertions.assertEquals(List.of(created.getId()), ids("zephyrine tower"));
+
+        transactionTemplate.executeWithoutResult(status -> bookService.attachAuthor(created.getId(), author.getId()));
+        Assertions.assertEquals(List.of(created.getId()), ids("quillfeather"));
+        Assertions.assertEquals(List.of("Zephyrine Tower"), suggestions("zephyrine t"));
+        Assertions.assertEquals(List.of("Quillfeather"), suggestions("quilfeath"));
+
+        bookService.delete(created.getId());
+        Assertions.assertEquals(List.of(), ids("zephyrine"));
+        Assertions.assertEquals(List.of(), suggestions("zephyrine"));
+    }
+
+    @Test
+    void should_index_every_book_of_an_import_after_its_chunk_commits() throws Exception {
+        final String csv = "title,price,genre,stock,authorEmails\n"
+                + "Zephyrine One,9.99,Fantasy,5," + author.getEmail() + "\n"
+                + "Zephyrine Two,9.99,Fantasy,5,\n"
+                + "Zephyrine Three,9.99,Fantasy,5,\n";
+
+        final BookImportResultDto result = bookImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(3, bookSearchIndex.search("zephyrine", 0, 10).total());
+        final int topHit = ids("zephyrine quillfeather").getFirst();
+        Assertions.assertEquals("Zephyrine One", bookRepository.findById(topHit).orElseThrow().getTitle());
+    }
+
+    @Test
+    void should_rebuild_from_database() {
+        Book book = new Book();
+        book.setTitle("Zephyrine Unseen");
+        book.setPrice(9.99);
+        book.setGenre("Fantasy");
+        book.setStock(5);
+        // written behind the index's back, so only a rebuild finds it
+        book = bookRepository.save(book);
+        Assertions.assertEquals(List.of(), ids("unseen"));
+
+        bookSearchIndex.rebuild();
+
+        Assertions.assertEquals(List.of(book.getId()), ids("zephyrine unseen"));
+    }
+
+    @Test
+    void should_keep_facets_in_step_and_reconcile_writes_that_bypassed_the_services() {
+        // other tests may have written behind the index's back; start from the database's counts
+        bookSearchIndex.reconcileFacets();
+        Assertions.assertFalse(bookSearchIndex.reconcileFacets());
+        final BookFacets.Counts before = bookSearchIndex.facets();
+
+        final BookDto created = bookService.create(bookRequest("Zephyrine Facets"));
+        BookFacets.Counts afterCreate = bookSearchIndex.facets();
+        Assertions.assertEquals(before.total() + 1, afterCreate.total());
+        Assertions.assertEquals(before.genres().getOrDefault("Fantasy", 0L) + 1, afterCreate.genres().get("Fantasy"));
+        Assertions.assertEquals(before.priceRanges()[1] + 1, afterCreate.priceRanges()[1]);
+        Assertions.assertFalse(bookSearchIndex.reconcileFacets());
+
+        Book unseen = bookRepository.findById(created.getId()).orElseThrow();
+        unseen.setGenre("Zephyrine Poetry");
+        unseen.setStock(0);
+        bookRepository.save(unseen);
+        Assertions.assertFalse(bookSearchIndex.facets().genres().containsKey("Zephyrine Poetry"));
+
+        Assertions.assertTrue(bookSearchIndex.reconcileFacets());
+        final BookFacets.Counts reconciled = bookSearchIndex.facets();
+        Assertions.assertEquals(1L, reconciled.genres().get("Zephyrine Poetry"));
+        Assertions.assertEquals(before.inStock(), reconciled.inStock());
+        // only the drifted book was reindexed, its tokens included
+        Assertions.assertEquals(List.of(created.getId()), ids("zephyrine poetry"));
+
+        // the drifted book's next change takes back what the database had, not its old share
+        bookService.delete(created.getId());
+        final BookFacets.Counts afterDelete = bookSearchIndex.facets();
+        Assertions.assertEquals(before.genres(), afterDelete.genres());
+        Assertions.assertEquals(before.inStock(), afterDelete.inStock());
+        Assertions.assertEquals(before.total(), afterDelete.total());
+        Assertions.assertFalse(bookSearchIndex.reconcileFacets());
+    }
+
+    @Test
+    void should_rebuild_facets_when_plain_sql_changed_stock_without_a_version() {
+        final BookDto created = bookService.create(bookRequest("Zephyrine Plain Sql"));
+        bookSearchIndex.reconcileFacets();
+        final long inStockBefore = bookSearchIndex.facets().inStock();
+
+        // keeps the version, so no reindex of changed books can find it
+        jdbcTemplate.update("update books set stock = 0 where id = ?", created.getId());
+        Assertions.assertEquals(inStockBefore, bookSearchIndex.facets().inStock());
+
+        Assertions.assertTrue(bookSearchIndex.reconcileFacets());
+        Assertions.assertEquals(inStockBefore - 1, bookSearchIndex.facets().inStock());
+        Assertions.assertFalse(bookSearchIndex.reconcileFacets());
+    }
+
+    @Test
+    void should_count_book_sold_out_by_a_batch_purchase_as_out_of_stock() {
+        BookRequestDto lastCopy = bookRequest("Zephyrine Last Copy");
+        lastCopy.setStock(1);
+        final BookDto created = bookService.create(lastCopy);
+        final long inStockBefore = bookSearchIndex.facets().inStock();
+
+        Customer customer = new Customer();
+        customer.setFirstName("Jane");
+        customer.setLastName("Doe");
+        customer.setEmail("jane.zephyrine@email.com");
+        customer.setPhoneNumber("0123456789");
+        customer.setAddress("Nugegoda, Colombo");
+        customer = customerRepository.save(customer);
+        try {
+            PurchasedBookRequestDto cart = new PurchasedBookRequestDto();
+            cart.setCustomerId(customer.getId());
+            cart.setBookIds(List.of(created.getId()));
+            // loads the book into its persistence context before the stock update
+            purchasedBookService.createBatch(cart);
+
+            Assertions.assertEquals(inStockBefore - 1, bookSearchIndex.facets().inStock());
+        } finally {
+            purchasedBookRepository.deleteAll();
+            customerRepository.delete(customer);
+        }
+    }
+
+    private List<Integer> ids(String query) {
+        return bookSearchIndex.search(query, 0, 10).hits().stream()
+                .map(BookTokenIndex.Hit::bookId)
+                .toList();
+    }
+
+    private List<String> suggestions(String query) {
+        return bookSearchIndex.suggest(query, 10).stream().map(AutocompleteTrie.Match::text).toList();
+    }
+
+    private static BookRequestDto bookRequest(String title) {
+        BookRequestDto request = new BookRequestDto();
+        request.setTitle(title);
+        request.setPrice(12.99);
+        request.setGenre("Fantasy");
+        request.setStock(10);
+        return request;
+    }
+}
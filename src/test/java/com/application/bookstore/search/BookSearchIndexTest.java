@@ -0,0 +1,235 @@
+package com.application.bookstore.search;
+
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.repository.BookIndexRow;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.BookStockRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class BookSearchIndexTest {
+
+    private static final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private BookRepository bookRepository;
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = Mockito.mock(BookRepository.class);
+        entityManager = Mockito.mock(EntityManager.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        bookSearchIndex = new BookSearchIndex(bookRepository, entityManager, transactionManager, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void should_drop_reload_older_than_the_indexed_version() {
+        // two commits on book 1 whose reloads finish in reverse order
+        reload(row(1, 2, "Zephyrine Tower", 5, null));
+        reload(row(1, 1, "Zephyrine Gate", 5, null));
+
+        Assertions.assertEquals(1, bookSearchIndex.search("tower", 0, 10).total());
+        Assertions.assertEquals(0, bookSearchIndex.search("gate", 0, 10).total());
+    }
+
+    @Test
+    void should_not_bring_back_book_deleted_after_its_reload_was_read() {
+        reload(row(1, 1, "Zephyrine Gate", 5, null));
+        reload();
+        reload(row(1, 1, "Zephyrine Gate", 5, null));
+
+        Assertions.assertEquals(0, bookSearchIndex.size());
+        Assertions.assertEquals(0, bookSearchIndex.facets().total());
+    }
+
+    @Test
+    void should_apply_author_rename_at_the_same_book_version() {
+        reload(row(1, 3, "Zephyrine Gate", 5, author(1, "Ursula", "Quillfeather")));
+        reload(row(1, 3, "Zephyrine Gate", 5, author(2, "Ursula", "Inkwell")));
+        reload(row(1, 3, "Zephyrine Gate", 5, author(1, "Ursula", "Quillfeather")));
+
+        Assertions.assertEquals(1, bookSearchIndex.search("inkwell", 0, 10).total());
+        Assertions.assertEquals(0, bookSearchIndex.search("quillfeather", 0, 10).total());
+    }
+
+    @Test
+    void should_update_only_facets_when_stock_alone_changed() {
+        reload(row(1, 1, "Zephyrine Gate", 1, null));
+        Mockito.clearInvocations(bookRepository);
+
+        reloadStock(stockRow(1, 2, 0));
+
+        Mockito.verify(bookRepository, Mockito.never()).findIndexRowsByIdIn(Mockito.any());
+        Assertions.assertEquals(0, bookSearchIndex.facets().inStock());
+        Assertions.assertEquals(1, bookSearchIndex.facets().total());
+        Assertions.assertEquals(1, bookSearchIndex.search("gate", 0, 10).total());
+    }
+
+    @Test
+    void should_keep_newer_stock_when_full_reload_was_read_before_a_purchase() {
+        reload(row(1, 1, "Zephyrine Gate", 1, null));
+        // the purchase at version 3 is applied before the rename at version 2
+        reloadStock(stockRow(1, 3, 0));
+        reload(row(1, 2, "Zephyrine Tower", 1, null));
+
+        Assertions.assertEquals(1, bookSearchIndex.search("tower", 0, 10).total());
+        Assertions.assertEquals(0, bookSearchIndex.facets().inStock());
+
+        // an older stock reload does not undo it either
+        reloadStock(stockRow(1, 2, 1));
+        Assertions.assertEquals(0, bookSearchIndex.facets().inStock());
+    }
+
+    @Test
+    void should_fully_reload_stock_change_of_book_not_indexed_yet() {
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of(row(1, 2, "Zephyrine Gate", 4, null)));
+
+        reloadStock(stockRow(1, 2, 4));
+
+        Assertions.assertEquals(1, bookSearchIndex.search("gate", 0, 10).total());
+        Assertions.assertEquals(1, bookSearchIndex.facets().inStock());
+    }
+
+    @Test
+    void should_read_changed_book_before_commit_and_apply_it_only_once_committed() {
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of(row(1, 1, "Zephyrine Gate", 5, null)));
+        final TransactionSynchronization pending = publishInTransaction(BookChangedEvent.saved(1));
+
+        pending.beforeCommit(false);
+        Assertions.assertEquals(0, bookSearchIndex.size());
+
+        // what commits is what was read before the commit; nothing is read again after it
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of());
+        pending.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertEquals(1, bookSearchIndex.search("gate", 0, 10).total());
+        Mockito.verify(bookRepository, Mockito.times(1)).findIndexRowsByIdIn(List.of(1));
+        // read on the committing transaction's connection, no second one from the pool
+        Mockito.verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void should_apply_nothing_read_before_a_rollback() {
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of(row(1, 1, "Zephyrine Gate", 5, null)));
+        final TransactionSynchronization pending = publishInTransaction(BookChangedEvent.saved(1));
+
+        pending.beforeCommit(false);
+        pending.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertEquals(0, bookSearchIndex.size());
+    }
+
+    @Test
+    void should_keep_the_newer_commit_when_an_older_one_applies_after_it() {
+        // A reads version 1 before it commits, B then commits version 2 and applies first
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of(row(1, 1, "Zephyrine Gate", 5, null)));
+        final TransactionSynchronization first = publishInTransaction(BookChangedEvent.saved(1));
+        first.beforeCommit(false);
+
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of(row(1, 2, "Zephyrine Tower", 5, null)));
+        final TransactionSynchronization second = publishInTransaction(BookChangedEvent.saved(1));
+        second.beforeCommit(false);
+        second.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        first.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        Assertions.assertEquals(1, bookSearchIndex.search("tower", 0, 10).total());
+        Assertions.assertEquals(0, bookSearchIndex.search("gate", 0, 10).total());
+    }
+
+    @Test
+    void should_read_stock_change_of_book_not_indexed_yet_in_full_before_commit() {
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of(row(1, 2, "Zephyrine Gate", 0, null)));
+        final TransactionSynchronization pending = publishInTransaction(BookChangedEvent.stockChanged(1));
+
+        pending.beforeCommit(false);
+        pending.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        Mockito.verify(bookRepository, Mockito.never()).findStockRowsByIdIn(Mockito.any());
+        Assertions.assertEquals(1, bookSearchIndex.search("gate", 0, 10).total());
+        Assertions.assertEquals(0, bookSearchIndex.facets().inStock());
+        Mockito.verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void should_prune_deleted_book_markers_after_one_more_reconcile_round() {
+        reload(row(1, 1, "Zephyrine Gate", 5, null));
+        reload();
+        Assertions.assertEquals(1, bookSearchIndex.tombstones());
+
+        TypedQuery<Object[]> groupBy = Mockito.mock();
+        Mockito.when(entityManager.createQuery(Mockito.anyString(), Mockito.eq(Object[].class))).thenReturn(groupBy);
+        Mockito.when(groupBy.getResultList()).thenReturn(List.of());
+
+        // the round right after the delete keeps the marker, the next one drops it
+        bookSearchIndex.reconcileFacets();
+        Assertions.assertEquals(1, bookSearchIndex.tombstones());
+        bookSearchIndex.reconcileFacets();
+        Assertions.assertEquals(0, bookSearchIndex.tombstones());
+    }
+
+    // the change as a service publishes it inside a transaction; returns the index's synchronization
+    private TransactionSynchronization publishInTransaction(BookChangedEvent event) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookSearchIndex.onBookChanged(event);
+            return TransactionSynchronizationManager.getSynchronizations().getFirst();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void reloadStock(BookStockRow... rows) {
+        Mockito.when(bookRepository.findStockRowsByIdIn(List.of(1))).thenReturn(List.of(rows));
+        bookSearchIndex.reindexStock(List.of(1));
+    }
+
+    private static BookStockRow stockRow(int id, long version, int stock) {
+        return projections.createProjection(BookStockRow.class, Map.of("id", id, "version", version, "stock", stock));
+    }
+
+    private void reload(BookIndexRow... rows) {
+        Mockito.when(bookRepository.findIndexRowsByIdIn(List.of(1))).thenReturn(List.of(rows));
+        bookSearchIndex.reindex(List.of(1));
+    }
+
+    private static BookIndexRow row(int id, long version, String title, int stock, Map<String, Object> author) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("version", version);
+        row.put("title", title);
+        row.put("genre", "Fantasy");
+        row.put("price", 12.99);
+        row.put("stock", stock);
+        if (author != null) {
+            row.putAll(author);
+        }
+        return projections.createProjection(BookIndexRow.class, row);
+    }
+
+    private static Map<String, Object> author(long version, String firstName, String lastName) {
+        return Map.of("authorVersion", version, "authorFirstName", firstName, "authorLastName", lastName);
+    }
+}
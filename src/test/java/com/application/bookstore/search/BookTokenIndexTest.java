@@ -0,0 +1,95 @@
+package com.application.bookstore.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class BookTokenIndexTest {
+
+    private BookTokenIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookTokenIndex();
+        index.put(1, "1984", "Dystopian", List.of("George Orwell"));
+        index.put(2, "Animal Farm", "Satire", List.of("George Orwell"));
+        index.put(3, "Cien años de soledad", "Magical Realism", List.of("Gabriel García Márquez"));
+        index.put(4, "Brave New World", "Dystopian", List.of("Aldous Huxley"));
+        index.put(5, "The Farm Animal Handbook", "Reference", List.of("Jane Doe"));
+    }
+
+    @Test
+    void should_find_books_by_title_genre_and_author() {
+        Assertions.assertEquals(List.of(1), ids(index.search("1984", 0, 10)));
+        Assertions.assertEquals(List.of(1, 4), ids(index.search("dystopian", 0, 10)));
+        Assertions.assertEquals(List.of(1, 2), ids(index.search("orwell", 0, 10)));
+    }
+
+    @Test
+    void should_ignore_case_and_accents() {
+        Assertions.assertEquals(List.of(3), ids(index.search("MARQUEZ", 0, 10)));
+        Assertions.assertEquals(List.of(3), ids(index.search("años", 0, 10)));
+        Assertions.assertEquals(List.of(3), ids(index.search("anos", 0, 10)));
+    }
+
+    @Test
+    void should_rank_books_matching_more_terms_first() {
+        final BookTokenIndex.SearchResult result = index.search("animal farm orwell", 0, 10);
+
+        // 2 matches all three terms, 5 has both title terms in a longer title, 1 only the author
+        Assertions.assertEquals(3, result.total());
+        Assertions.assertEquals(List.of(2, 5, 1), ids(result));
+        Assertions.assertTrue(result.hits().get(0).score() > result.hits().get(1).score());
+    }
+
+    @Test
+    void should_page_through_ranked_hits_and_report_total() {
+        final BookTokenIndex.SearchResult first = index.search("dystopian orwell", 0, 2);
+        final BookTokenIndex.SearchResult second = index.search("dystopian orwell", 2, 2);
+
+        Assertions.assertEquals(3, first.total());
+        Assertions.assertEquals(1, first.hits().getFirst().bookId());
+        Assertions.assertEquals(2, first.hits().size());
+        Assertions.assertEquals(1, second.hits().size());
+        Assertions.assertEquals(0, index.search("dystopian orwell", 3, 2).hits().size());
+    }
+
+    @Test
+    void should_replace_terms_of_updated_book() {
+        index.put(1, "Nineteen Eighty-Four", "Dystopian", List.of("George Orwell"));
+
+        Assertions.assertEquals(0, index.search("1984", 0, 10).total());
+        Assertions.assertEquals(List.of(1), ids(index.search("eighty", 0, 10)));
+        Assertions.assertEquals(5, index.size());
+    }
+
+    @Test
+    void should_forget_removed_book() {
+        index.remove(4);
+        index.remove(42);
+
+        Assertions.assertEquals(0, index.search("huxley", 0, 10).total());
+        Assertions.assertEquals(List.of(1), ids(index.search("dystopian", 0, 10)));
+        Assertions.assertEquals(4, index.size());
+    }
+
+    @Test
+    void should_keep_posting_lists_sorted_when_ids_arrive_out_of_order() {
+        index.put(0, "Orwell: A Life", "Biography", List.of("Bernard Crick"));
+
+        Assertions.assertEquals(List.of(0, 1, 2), ids(index.search("orwell", 0, 10)).stream().sorted().toList());
+        Assertions.assertEquals(3, index.search("orwell", 0, 10).total());
+    }
+
+    @Test
+    void should_return_nothing_for_unknown_or_empty_query() {
+        Assertions.assertEquals(0, index.search("tolkien", 0, 10).total());
+        Assertions.assertEquals(0, index.search("  --  ", 0, 10).total());
+    }
+
+    private static List<Integer> ids(BookTokenIndex.SearchResult result) {
+        return result.hits().stream().map(BookTokenIndex.Hit::bookId).toList();
+    }
+}
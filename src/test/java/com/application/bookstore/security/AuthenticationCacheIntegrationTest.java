@@ -0,0 +1,71 @@
+package com.application.bookstore.security;
+
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
+import com.application.bookstore.repository.AppUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Set;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthenticationCacheIntegrationTest {
+
+    private static final String CUSTOMERS_URL = "/api/book-store-service/v1/customers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @BeforeEach
+    void setUp() {
+        appUserRepository.save(new AppUser("cache_user", passwordEncoder.encode("secret"), Set.of(Role.USER)));
+        authenticationCache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        appUserRepository.delete(appUserRepository.findByUsername("cache_user"));
+    }
+
+    @Test
+    void should_skip_bcrypt_for_repeated_basic_auth_requests() throws Exception {
+        final long hitsBefore = authenticationCache.getStats().getHits();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMERS_URL).with(httpBasic("cache_user", "secret")))
+                    .andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+        }
+
+        Assertions.assertEquals(hitsBefore + 2, authenticationCache.getStats().getHits());
+    }
+
+    @Test
+    void should_reject_wrong_password_even_when_user_is_cached() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMERS_URL).with(httpBasic("cache_user", "secret")))
+                .andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMERS_URL).with(httpBasic("cache_user", "wrong")))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+}
@@ -0,0 +1,120 @@
+package com.application.bookstore.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CachingAuthenticationProviderTest {
+
+    private AuthenticationProvider delegate;
+    private AuthenticationCache authenticationCache;
+    private CachingAuthenticationProvider provider;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void beforeEachTest() {
+        delegate = Mockito.mock(AuthenticationProvider.class);
+        clock = new AtomicLong();
+        authenticationCache = new AuthenticationCache(100, Duration.ofMinutes(1), clock::get);
+        provider = new CachingAuthenticationProvider(delegate, authenticationCache);
+
+        Mockito.when(delegate.authenticate(Mockito.any())).thenAnswer(invocation -> {
+            Authentication authentication = invocation.getArgument(0);
+            if (!"secret".equals(authentication.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(authentication.getName(), null,
+                    AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        });
+    }
+
+    @Test
+    void should_serve_repeated_authentication_from_cache() {
+        Authentication first = provider.authenticate(credentials("admin", "secret"));
+        Authentication second = provider.authenticate(credentials("admin", "secret"));
+
+        Assertions.assertTrue(second.isAuthenticated());
+        Assertions.assertEquals("admin", second.getName());
+        Assertions.assertEquals(first.getAuthorities(), second.getAuthorities());
+        Assertions.assertNotSame(first, second);
+        Assertions.assertNull(second.getCredentials());
+
+        Mockito.verify(delegate, Mockito.times(1)).authenticate(Mockito.any());
+        Assertions.assertEquals(1, authenticationCache.getStats().getHits());
+        Assertions.assertEquals(0.5, authenticationCache.getStats().getHitRatio());
+    }
+
+    @Test
+    void should_never_cache_failed_authentication() {
+        provider.authenticate(credentials("admin", "secret"));
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("admin", "wrong")));
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("admin", "wrong")));
+
+        Mockito.verify(delegate, Mockito.times(3)).authenticate(Mockito.any());
+        Assertions.assertEquals(1, authenticationCache.getStats().getSize());
+    }
+
+    @Test
+    void should_authenticate_again_after_user_is_invalidated() {
+        provider.authenticate(credentials("admin", "secret"));
+        authenticationCache.invalidateUser("admin");
+        provider.authenticate(credentials("admin", "secret"));
+
+        Mockito.verify(delegate, Mockito.times(2)).authenticate(Mockito.any());
+    }
+
+    @Test
+    void should_authenticate_again_after_ttl_expires() {
+        provider.authenticate(credentials("admin", "secret"));
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        provider.authenticate(credentials("admin", "secret"));
+
+        Mockito.verify(delegate, Mockito.times(2)).authenticate(Mockito.any());
+    }
+
+    @Test
+    void should_not_cache_authentication_that_overlaps_an_invalidation() {
+        final long generation = authenticationCache.generation();
+        authenticationCache.invalidateUser("admin");
+
+        String key = authenticationCache.key("admin", "secret");
+        authenticationCache.put(key, "admin", credentials("admin", "secret"), generation);
+
+        Assertions.assertNull(authenticationCache.get(key));
+    }
+
+    @Test
+    void should_cache_authentication_that_overlaps_an_invalidation_of_another_user() {
+        final long generation = authenticationCache.generation();
+        authenticationCache.invalidateUser("someone-else");
+
+        String key = authenticationCache.key("admin", "secret");
+        authenticationCache.put(key, "admin", credentials("admin", "secret"), generation);
+
+        Assertions.assertNotNull(authenticationCache.get(key));
+    }
+
+    @Test
+    void should_key_on_username_and_password_without_storing_them() {
+        String key = authenticationCache.key("admin", "secret");
+
+        Assertions.assertEquals(key, authenticationCache.key("admin", "secret"));
+        Assertions.assertNotEquals(key, authenticationCache.key("admin", "secret2"));
+        Assertions.assertNotEquals(key, authenticationCache.key("admins", "ecret"));
+        Assertions.assertFalse(key.contains("secret"));
+    }
+
+    private static Authentication credentials(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
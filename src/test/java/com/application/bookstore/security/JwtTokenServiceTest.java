@@ -0,0 +1,122 @@
+package com.application.bookstore.security;
+
+import com.application.bookstore.dto.TokenDto;
+import com.application.bookstore.model.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.EnumSet;
+
+class JwtTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private JwtTokenService jwtTokenService;
+
+    @BeforeEach
+    void beforeEachTest() {
+        jwtTokenService = serviceAt(NOW);
+    }
+
+    @Test
+    void should_authenticate_issued_token_with_its_authorities() {
+        TokenDto token = jwtTokenService.issue(admin());
+
+        Authentication result = jwtTokenService.authenticate(token.getAccessToken());
+
+        Assertions.assertEquals("Bearer", token.getTokenType());
+        Assertions.assertEquals(900, token.getExpiresIn());
+        Assertions.assertTrue(result.isAuthenticated());
+        Assertions.assertEquals("admin", result.getName());
+        Assertions.assertEquals(Role.authoritiesOf(EnumSet.of(Role.USER, Role.ADMIN)), result.getAuthorities());
+    }
+
+    @Test
+    void should_reject_tampered_token() {
+        String token = jwtTokenService.issue(admin()).getAccessToken();
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin\",\"roles\":[\"ROLE_ADMIN\"],\"iat\":1,\"exp\":9999999999}".getBytes());
+
+        Assertions.assertThrows(BadCredentialsException.class,
+                () -> jwtTokenService.authenticate(parts[0] + "." + forgedPayload + "." + parts[2]));
+        Assertions.assertThrows(BadCredentialsException.class, () -> jwtTokenService.authenticate(token + "x"));
+        Assertions.assertThrows(BadCredentialsException.class, () -> jwtTokenService.authenticate("not-a-token"));
+    }
+
+    @Test
+    void should_reject_token_signed_with_another_key() {
+        JwtTokenService otherService = new JwtTokenService(new ObjectMapper(), "", Duration.ofMinutes(15),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = otherService.issue(admin()).getAccessToken();
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> jwtTokenService.authenticate(token));
+    }
+
+    @Test
+    void should_reject_expired_token() {
+        String token = jwtTokenService.issue(admin()).getAccessToken();
+
+        Assertions.assertDoesNotThrow(() -> serviceAt(NOW.plus(Duration.ofMinutes(14))).authenticate(token));
+        Assertions.assertThrows(CredentialsExpiredException.class,
+                () -> serviceAt(NOW.plus(Duration.ofMinutes(15))).authenticate(token));
+    }
+
+    @Test
+    void should_reject_tokens_issued_before_user_was_revoked() {
+        String token = jwtTokenService.issue(admin()).getAccessToken();
+
+        jwtTokenService.revokeUser("admin");
+
+        Assertions.assertThrows(CredentialsExpiredException.class, () -> jwtTokenService.authenticate(token));
+    }
+
+    @Test
+    void should_tell_tokens_before_and_after_revocation_apart_within_the_same_clock_tick() {
+        // the clock is fixed, so the old token, the revocation and the new login share one instant
+        String before = jwtTokenService.issue(admin()).getAccessToken();
+        jwtTokenService.revokeUser("admin");
+        String after = jwtTokenService.issue(admin()).getAccessToken();
+
+        Assertions.assertThrows(CredentialsExpiredException.class, () -> jwtTokenService.authenticate(before));
+        Assertions.assertEquals("admin", jwtTokenService.authenticate(after).getName());
+    }
+
+    @Test
+    void should_reject_token_with_unknown_role() {
+        String token = jwtTokenService.issue(UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ROOT"))).getAccessToken();
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> jwtTokenService.authenticate(token));
+    }
+
+    @Test
+    void should_reject_secret_shorter_than_256_bits() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new JwtTokenService(new ObjectMapper(), shortSecret, Duration.ofMinutes(15)));
+    }
+
+    private static JwtTokenService serviceAt(Instant instant) {
+        return new JwtTokenService(new ObjectMapper(), SECRET, Duration.ofMinutes(15), Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private static Authentication admin() {
+        return UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+    }
+}
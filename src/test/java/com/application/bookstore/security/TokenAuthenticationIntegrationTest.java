@@ -0,0 +1,115 @@
+package com.application.bookstore.security;
+
+import com.application.bookstore.dto.AppUserRequestDto;
+import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
+import com.application.bookstore.repository.AppUserRepository;
+import com.application.bookstore.service.AppUserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Map;
+import java.util.Set;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TokenAuthenticationIntegrationTest {
+
+    private static final String LOGIN_URL = "/api/book-store-service/v1/auth/login";
+    private static final String CUSTOMERS_URL = "/api/book-store-service/v1/customers";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        appUserRepository.save(new AppUser("token_user", passwordEncoder.encode("secret"), Set.of(Role.USER)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        AppUser user = appUserRepository.findByUsername("token_user");
+        if (user != null) {
+            appUserRepository.delete(user);
+        }
+    }
+
+    @Test
+    void should_authenticate_requests_with_issued_token_without_password_checks() throws Exception {
+        String token = login("token_user", "secret");
+        Mockito.clearInvocations(passwordEncoder);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMERS_URL).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+        }
+
+        Mockito.verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void should_reject_login_with_wrong_password() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(LOGIN_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson("token_user", "wrong")))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    void should_reject_invalid_token() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMERS_URL).header(HttpHeaders.AUTHORIZATION, "Bearer not.a.token"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+    }
+
+    @Test
+    void should_reject_token_after_password_change() throws Exception {
+        String token = login("token_user", "secret");
+
+        AppUserRequestDto request = new AppUserRequestDto();
+        request.setPassword("changed");
+        appUserService.update(appUserRepository.findByUsername("token_user").getId(), request);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMERS_URL).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    private String login(String username, String password) throws Exception {
+        String response = mockMvc.perform(MockMvcRequestBuilders.post(LOGIN_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson(username, password)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String token = (String) new ObjectMapper().readValue(response, Map.class).get("accessToken");
+        Assertions.assertNotNull(token);
+        return token;
+    }
+
+    private static String loginJson(String username, String password) throws Exception {
+        return new ObjectMapper().writeValueAsString(Map.of("username", username, "password", password));
+    }
+}
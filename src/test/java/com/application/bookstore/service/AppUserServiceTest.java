@@ -5,28 +5,40 @@ import com.application.bookstore.dto.AppUserRequestDto;
 import com.application.bookstore.exception.AttributeAlreadyExistsException;
 import com.application.bookstore.exception.ValidationException;
 import com.application.bookstore.model.AppUser;
+import com.application.bookstore.model.Role;
 import com.application.bookstore.repository.AppUserRepository;
+import com.application.bookstore.event.AppUserChangedEvent;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @AutoConfigureMockMvc(addFilters = false)
 class AppUserServiceTest {
 
     private AppUserRepository appUserRepository;
     private PasswordEncoder passwordEncoder;
+    private ApplicationEventPublisher eventPublisher;
     private AppUserService appUserService;
 
     @BeforeEach
     void beforeEachTest() {
         appUserRepository = Mockito.mock(AppUserRepository.class);
         passwordEncoder = Mockito.mock(PasswordEncoder.class);
-        appUserService = new AppUserService(appUserRepository, passwordEncoder);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        appUserService = new AppUserService(appUserRepository, passwordEncoder, eventPublisher);
     }
 
     @Test
@@ -66,11 +78,10 @@ class AppUserServiceTest {
         savedUser.setId(3);
         savedUser.setUsername("new_user");
         savedUser.setPassword("encoded_password");
-        savedUser.setRoles("USER");
+        savedUser.setRoles(Set.of(Role.USER));
 
-        Mockito.when(appUserRepository.findByUsername("new_user")).thenReturn(null);
         Mockito.when(passwordEncoder.encode("newpass123")).thenReturn("encoded_password");
-        Mockito.when(appUserRepository.save(Mockito.any(AppUser.class))).thenReturn(savedUser);
+        Mockito.when(appUserRepository.saveAndFlush(Mockito.any(AppUser.class))).thenReturn(savedUser);
 
         AppUserDto result = appUserService.create(request);
 
@@ -123,31 +134,93 @@ class AppUserServiceTest {
         request.setPassword("password123");
         request.setRoles("ADMIN");
 
-        AppUser existingUser = new AppUser();
-        existingUser.setId(1);
-        existingUser.setUsername("admin_user");
-        existingUser.setPassword("encoded_pass");
-        existingUser.setRoles("ADMIN");
-
-        Mockito.when(appUserRepository.findByUsername("admin_user")).thenReturn(existingUser);
+        Mockito.when(appUserRepository.saveAndFlush(Mockito.any(AppUser.class))).thenThrow(new DataIntegrityViolationException(
+                "duplicate", new ConstraintViolationException("duplicate", new SQLException(), "users." + AppUser.UK_USERNAME)));
 
         Assertions.assertThrows(AttributeAlreadyExistsException.class, () -> {
             appUserService.create(request);
         });
     }
 
+    @Test
+    void should_publish_user_changed_event_when_user_is_updated() {
+        AppUser admin = dummyUsers().getFirst();
+        Mockito.when(appUserRepository.findById(1)).thenReturn(Optional.of(admin));
+        Mockito.when(appUserRepository.saveAndFlush(Mockito.any(AppUser.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(passwordEncoder.encode("new_password")).thenReturn("encoded_new_password");
+
+        AppUserRequestDto request = new AppUserRequestDto();
+        request.setUsername("root");
+        request.setPassword("new_password");
+
+        appUserService.update(1, request);
+
+        Mockito.verify(eventPublisher).publishEvent(Mockito.<AppUserChangedEvent>argThat(event -> event.getUsername().equals("admin")));
+    }
+
+    @Test
+    void should_publish_user_changed_event_when_user_is_deleted() {
+        AppUser user = dummyUsers().get(1);
+        Mockito.when(appUserRepository.findById(2)).thenReturn(Optional.of(user));
+
+        appUserService.delete(2);
+
+        Mockito.verify(appUserRepository).delete(user);
+        Mockito.verify(eventPublisher).publishEvent(Mockito.<AppUserChangedEvent>argThat(event -> event.getUsername().equals("user")));
+    }
+
+    @Test
+    void should_normalize_roles_when_creating_user() {
+        AppUserRequestDto request = new AppUserRequestDto();
+        request.setUsername("new_admin");
+        request.setPassword("newpass123");
+        request.setRoles(" admin , user,ADMIN ");
+
+        Mockito.when(appUserRepository.saveAndFlush(Mockito.any(AppUser.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppUserDto result = appUserService.create(request);
+
+        Assertions.assertEquals("USER,ADMIN", result.getRoles());
+    }
+
+    @Test
+    void should_throw_validation_exception_when_role_is_unknown() {
+        AppUserRequestDto request = new AppUserRequestDto();
+        request.setUsername("test_user");
+        request.setPassword("password123");
+        request.setRoles("USER,ROOT");
+
+        Assertions.assertThrows(ValidationException.class, () -> appUserService.create(request));
+    }
+
+    @Test
+    void should_load_user_details_with_shared_authorities() {
+        AppUser admin = dummyUsers().getFirst();
+        admin.setRoles(Set.of(Role.ADMIN, Role.USER));
+        Mockito.when(appUserRepository.findByUsername("admin")).thenReturn(admin);
+
+        UserDetails first = appUserService.loadUserByUsername("admin");
+        UserDetails second = appUserService.loadUserByUsername("admin");
+
+        Assertions.assertEquals("admin", first.getUsername());
+        Assertions.assertEquals("encoded_admin_password", first.getPassword());
+        Assertions.assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                first.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        Assertions.assertSame(first.getAuthorities(), second.getAuthorities());
+    }
+
     private static List<AppUser> dummyUsers() {
         AppUser admin = new AppUser();
         admin.setId(1);
         admin.setUsername("admin");
         admin.setPassword("encoded_admin_password");
-        admin.setRoles("ADMIN");
+        admin.setRoles(Set.of(Role.ADMIN));
 
         AppUser user = new AppUser();
         user.setId(2);
         user.setUsername("user");
         user.setPassword("encoded_user_password");
-        user.setRoles("USER");
+        user.setRoles(Set.of(Role.USER));
 
         return List.of(admin, user);
     }
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 
@@ -23,7 +24,7 @@ class AuthorServiceTest {
     @BeforeEach
     void beforeEachTest() {
         authorRepository = Mockito.mock(AuthorRepository.class);
-        authorService = new AuthorService(authorRepository, bookRepository);
+        authorService = new AuthorService(authorRepository, bookRepository, Mockito.mock(ApplicationEventPublisher.class));
     }
 
     @Test
@@ -34,7 +35,7 @@ class AuthorServiceTest {
 
     @Test
     void should_return_all_authors() {
-        Mockito.when(authorRepository.findAll()).thenReturn(dummyAuthors());
+        Mockito.when(authorRepository.findAllWithBooks()).thenReturn(dummyAuthors());
 
         List<AuthorDto> result = authorService.getAll();
 
@@ -63,7 +64,7 @@ class AuthorServiceTest {
         savedAuthor.setEmail("george.orwell@email.com");
         savedAuthor.setNationality("British");
 
-        Mockito.when(authorRepository.save(Mockito.any(Author.class))).thenReturn(savedAuthor);
+        Mockito.when(authorRepository.saveAndFlush(Mockito.any(Author.class))).thenReturn(savedAuthor);
 
         AuthorDto result = authorService.create(request);
 
@@ -0,0 +1,87 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.repository.BookExportRow;
+import com.application.bookstore.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class BookExportServiceTest {
+
+    private static final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    private BookRepository bookRepository;
+    private BookExportService bookExportService;
+
+    @BeforeEach
+    void beforeEachTest() {
+        bookRepository = Mockito.mock(BookRepository.class);
+        bookExportService = new BookExportService(bookRepository, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void should_write_one_json_document_per_line() throws Exception {
+        Mockito.when(bookRepository.streamExportRows()).thenReturn(dummyBooks(3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = bookExportService.exportNdjson(out);
+
+        Assertions.assertEquals(3, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(3, lines.length);
+
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        Assertions.assertEquals(1, first.get("id").asInt());
+        Assertions.assertEquals("Book 1", first.get("title").asText());
+        Assertions.assertEquals(0, first.get("author").size());
+        Assertions.assertEquals("Book 3", new ObjectMapper().readTree(lines[2]).get("title").asText());
+    }
+
+    @Test
+    void should_write_the_author_rows_of_a_book_into_one_document_and_close_the_stream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Mockito.when(bookRepository.streamExportRows()).thenReturn(Stream.of(
+                row(1, 10, "Ursula"), row(1, 11, "Ada"), row(2, null, null), row(3, 10, "Ursula"))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = bookExportService.exportNdjson(out);
+
+        Assertions.assertEquals(3, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        Assertions.assertEquals(2, first.get("author").size());
+        Assertions.assertEquals("Ada", first.get("author").get(1).get("firstName").asText());
+        Assertions.assertEquals(0, new ObjectMapper().readTree(lines[1]).get("author").size());
+        Assertions.assertEquals(1, new ObjectMapper().readTree(lines[2]).get("author").size());
+        Assertions.assertTrue(closed.get());
+    }
+
+    private static Stream<BookExportRow> dummyBooks(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> row(i, null, null));
+    }
+
+    private static BookExportRow row(int id, Integer authorId, String authorFirstName) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("title", "Book " + id);
+        row.put("price", 9.99);
+        row.put("genre", "Fiction");
+        row.put("stock", 10);
+        row.put("authorId", authorId);
+        row.put("authorFirstName", authorFirstName);
+        return projections.createProjection(BookExportRow.class, row);
+    }
+}
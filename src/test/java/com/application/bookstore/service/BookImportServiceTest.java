@@ -0,0 +1,209 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.BookImportResultDto;
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BookImportServiceTest {
+    private BookRepository bookRepository;
+    private AuthorRepository authorRepository;
+    private EntityManager entityManager;
+    private ApplicationEventPublisher eventPublisher;
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void beforeEachTest() {
+        bookRepository = Mockito.mock(BookRepository.class);
+        authorRepository = Mockito.mock(AuthorRepository.class);
+        entityManager = Mockito.mock(EntityManager.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+        BookService bookService = new BookService(bookRepository, authorRepository, null, null, eventPublisher);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+
+        bookImportService = new BookImportService(bookRepository, authorRepository, bookService, transactionTemplate,
+                entityManager, eventPublisher, new ObjectMapper(), 2);
+
+        AtomicInteger ids = new AtomicInteger();
+        Mockito.when(bookRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            books.forEach(book -> book.setId(ids.incrementAndGet()));
+            return books;
+        });
+    }
+
+    @Test
+    void should_import_csv_rows_with_quoted_fields_and_authors() throws Exception {
+        Mockito.when(authorRepository.findByEmailIn(Mockito.anyCollection())).thenReturn(List.of(dummyAuthor()));
+
+        BookImportResultDto result = bookImportService.importCsv(body("""
+                title,price,genre,stock,authorEmails
+                "Cats, Dogs and ""Others\""",12.99,Fantasy,5,george@example.com
+                1984,9.5,Dystopian,10,
+                """));
+
+        Assertions.assertEquals(2, result.getImported());
+        Assertions.assertEquals(0, result.getFailed());
+
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.captor();
+        Mockito.verify(bookRepository).saveAll(saved.capture());
+        Assertions.assertEquals("Cats, Dogs and \"Others\"", saved.getValue().getFirst().getTitle());
+        Assertions.assertEquals(1, saved.getValue().getFirst().getAuthors().size());
+        Assertions.assertTrue(saved.getValue().get(1).getAuthors().isEmpty());
+
+        Mockito.verify(entityManager).flush();
+        Mockito.verify(entityManager).clear();
+        Mockito.verify(eventPublisher, Mockito.times(2)).publishEvent(Mockito.any(BookChangedEvent.class));
+    }
+
+    @Test
+    void should_report_invalid_csv_rows_and_import_the_rest() throws Exception {
+        Mockito.when(authorRepository.findByEmailIn(Mockito.anyCollection())).thenReturn(List.of());
+
+        BookImportResultDto result = bookImportService.importCsv(body("""
+                title,price,genre,stock,authorEmails
+                1984,abc,Dystopian,10,
+                ,9.5,Dystopian,10,
+                Dune,9.5,Science Fiction,10,unknown@example.com
+                Emma,7.25,Romance,3,
+                Ulysses,8.0,Modernist,2,not-an-email
+                """));
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(4, result.getFailed());
+        Assertions.assertEquals(List.of(2L, 3L, 4L, 6L), result.getErrors().stream().map(e -> e.getLine()).sorted().toList());
+        Assertions.assertEquals("title is required", result.getErrors().stream()
+                .filter(e -> e.getLine() == 3).findFirst().orElseThrow().getReason());
+    }
+
+    @Test
+    void should_import_ndjson_in_chunks_and_report_malformed_lines() throws Exception {
+        BookImportResultDto result = bookImportService.importNdjson(body("""
+                {"title":"1984","price":9.5,"genre":"Dystopian","stock":10}
+                {"title":"Dune","price":11.0,"genre":"Science Fiction","stock":4}
+                {"title":
+                {"title":"Emma","price":7.25,"genre":"Romance","stock":3}
+                """));
+
+        Assertions.assertEquals(3, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(3L, result.getErrors().getFirst().getLine());
+
+        // chunk size 2 -> two transactions, each flushed and cleared
+        Mockito.verify(bookRepository, Mockito.times(2)).saveAll(Mockito.anyList());
+        Mockito.verify(entityManager, Mockito.times(2)).clear();
+        Mockito.verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void should_report_null_ndjson_line_as_failed_row() throws Exception {
+        BookImportResultDto result = bookImportService.importNdjson(body("""
+                null
+                {"title":"Emma","price":7.25,"genre":"Romance","stock":3}
+                """));
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        Assertions.assertEquals(1L, result.getErrors().getFirst().getLine());
+    }
+
+    @Test
+    void should_import_quoted_csv_field_spanning_lines_as_one_row() throws Exception {
+        BookImportResultDto result = bookImportService.importCsv(body("""
+                title,price,genre,stock,authorEmails
+                "Cats
+                and Dogs",12.99,Fantasy,5,
+                "Unclosed,9.5,Dystopian,10,
+                """));
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(1, result.getFailed());
+        // the open quote reaches the end of the body; reported at the line the record starts on
+        Assertions.assertEquals(4L, result.getErrors().getFirst().getLine());
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.captor();
+        Mockito.verify(bookRepository).saveAll(saved.capture());
+        Assertions.assertEquals("Cats\nand Dogs", saved.getValue().getFirst().getTitle());
+    }
+
+    @Test
+    void should_reject_non_finite_price_and_too_long_title_per_row() throws Exception {
+        BookImportResultDto result = bookImportService.importCsv(body("""
+                title,price,genre,stock,authorEmails
+                1984,NaN,Dystopian,10,
+                Dune,Infinity,Science Fiction,10,
+                %s,9.5,Dystopian,10,
+                Emma,7.25,Romance,3,
+                """.formatted("T".repeat(41))));
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(List.of(2L, 3L, 4L), result.getErrors().stream().map(e -> e.getLine()).sorted().toList());
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.captor();
+        Mockito.verify(bookRepository, Mockito.times(2)).saveAll(saved.capture());
+        Assertions.assertEquals(List.of("Emma"), saved.getAllValues().stream().flatMap(List::stream).map(Book::getTitle).toList());
+    }
+
+    @Test
+    void should_match_author_emails_ignoring_case_and_add_each_author_once() throws Exception {
+        Mockito.when(authorRepository.findByEmailIn(Mockito.anyCollection())).thenReturn(List.of(dummyAuthor()));
+
+        BookImportResultDto result = bookImportService.importCsv(body("""
+                title,price,genre,stock,authorEmails
+                Animal Farm,8.5,Satire,4,George@Example.com;george@example.com
+                """));
+
+        Assertions.assertEquals(1, result.getImported());
+        Assertions.assertEquals(0, result.getFailed());
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.captor();
+        Mockito.verify(bookRepository).saveAll(saved.capture());
+        Assertions.assertEquals(1, saved.getValue().getFirst().getAuthors().size());
+    }
+
+    @Test
+    void should_fail_whole_chunk_when_its_transaction_rolls_back() throws Exception {
+        Mockito.when(bookRepository.saveAll(Mockito.anyList())).thenThrow(
+                new IllegalStateException("could not execute statement [insert into books (genre,price,stock,title,id) values (?,?,?,?,?)]"));
+
+        BookImportResultDto result = bookImportService.importNdjson(body("""
+                {"title":"1984","price":9.5,"genre":"Dystopian","stock":10}
+                {"title":"Dune","price":11.0,"genre":"Science Fiction","stock":4}
+                """));
+
+        Assertions.assertEquals(0, result.getImported());
+        Assertions.assertEquals(2, result.getFailed());
+        // the cause is logged, not sent back
+        Assertions.assertTrue(result.getErrors().stream().allMatch(e -> e.getReason().equals("chunk rolled back")));
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Author dummyAuthor() {
+        Author author = new Author();
+        author.setId(1);
+        author.setFirstName("George");
+        author.setLastName("Orwell");
+        author.setEmail("george@example.com");
+        return author;
+    }
+}
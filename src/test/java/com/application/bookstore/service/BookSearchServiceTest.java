@@ -0,0 +1,127 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.BookFacetsDto;
+import com.application.bookstore.dto.BookSearchResultDto;
+import com.application.bookstore.dto.BookSuggestionDto;
+import com.application.bookstore.dto.FacetCountDto;
+import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.search.AutocompleteTrie;
+import com.application.bookstore.search.BookFacets;
+import com.application.bookstore.search.BookSearchIndex;
+import com.application.bookstore.search.BookTokenIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+
+class BookSearchServiceTest {
+    private BookSearchIndex bookSearchIndex;
+    private BookRepository bookRepository;
+    private BookSearchService bookSearchService;
+
+    @BeforeEach
+    void beforeEachTest() {
+        bookSearchIndex = Mockito.mock(BookSearchIndex.class);
+        bookRepository = Mockito.mock(BookRepository.class);
+
+        BookService bookService = new BookService(bookRepository, null, null, null, null);
+        bookSearchService = new BookSearchService(bookSearchIndex, bookRepository, bookService);
+    }
+
+    @Test
+    void should_return_books_in_rank_order_with_total() {
+        Mockito.when(bookSearchIndex.search("orwell", 0, 2)).thenReturn(new BookTokenIndex.SearchResult(3, List.of(
+                new BookTokenIndex.Hit(2, 2.5f), new BookTokenIndex.Hit(1, 1.5f))));
+        Mockito.when(bookRepository.findWithAuthorsByIdIn(List.of(2, 1))).thenReturn(List.of(book(1, "1984"), book(2, "Animal Farm")));
+
+        BookSearchResultDto result = bookSearchService.search("orwell", 0, 2);
+
+        Assertions.assertEquals(3, result.getTotal());
+        Assertions.assertEquals("orwell", result.getQuery());
+        Assertions.assertEquals(List.of("Animal Farm", "1984"), result.getBooks().stream().map(b -> b.getTitle()).toList());
+    }
+
+    @Test
+    void should_skip_books_deleted_after_ranking() {
+        Mockito.when(bookSearchIndex.search("orwell", 0, 2)).thenReturn(new BookTokenIndex.SearchResult(2, List.of(
+                new BookTokenIndex.Hit(2, 2.5f), new BookTokenIndex.Hit(1, 1.5f))));
+        Mockito.when(bookRepository.findWithAuthorsByIdIn(List.of(2, 1))).thenReturn(List.of(book(1, "1984")));
+
+        BookSearchResultDto result = bookSearchService.search("orwell", 0, 2);
+
+        Assertions.assertEquals(1, result.getBooks().size());
+        Assertions.assertEquals("1984", result.getBooks().getFirst().getTitle());
+    }
+
+    @Test
+    void should_not_query_database_without_hits() {
+        Mockito.when(bookSearchIndex.search("tolkien", 0, 20)).thenReturn(new BookTokenIndex.SearchResult(0, List.of()));
+
+        BookSearchResultDto result = bookSearchService.search("tolkien", 0, 20);
+
+        Assertions.assertTrue(result.getBooks().isEmpty());
+        Mockito.verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void should_throw_exception_when_search_is_invalid() {
+        Assertions.assertThrows(ValidationException.class, () -> bookSearchService.search(" ", 0, 20));
+        Assertions.assertThrows(ValidationException.class, () -> bookSearchService.search("orwell", 0, 0));
+        Assertions.assertThrows(ValidationException.class, () -> bookSearchService.search("orwell", -1, 20));
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookSearchService.search("orwell", BookSearchService.MAX_SEARCH_WINDOW, 20));
+        Mockito.verifyNoInteractions(bookSearchIndex);
+    }
+
+    @Test
+    void should_return_suggestions_from_index() {
+        Mockito.when(bookSearchIndex.suggest("orwel", 5)).thenReturn(List.of(
+                new AutocompleteTrie.Match("Orwell", AutocompleteTrie.Kind.AUTHOR, 2, 1)));
+
+        List<BookSuggestionDto> result = bookSearchService.autocomplete("orwel", 5);
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals("Orwell", result.getFirst().getText());
+        Assertions.assertEquals("AUTHOR", result.getFirst().getType());
+        Assertions.assertEquals(2, result.getFirst().getBooks());
+        Mockito.verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void should_throw_exception_when_autocomplete_is_invalid() {
+        Assertions.assertThrows(ValidationException.class, () -> bookSearchService.autocomplete("", 5));
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookSearchService.autocomplete("orwel", AutocompleteTrie.MAX_SUGGESTIONS + 1));
+        Mockito.verifyNoInteractions(bookSearchIndex);
+    }
+
+    @Test
+    void should_return_facets_with_genres_by_descending_count() {
+        Mockito.when(bookSearchIndex.facets()).thenReturn(new BookFacets.Counts(
+                Map.of("Satire", 1L, "Fantasy", 3L, "Dystopian", 1L), new long[]{1, 3, 1, 0}, 4, 5));
+
+        BookFacetsDto result = bookSearchService.getFacets();
+
+        Assertions.assertEquals(5, result.getTotal());
+        Assertions.assertEquals(4, result.getInStock());
+        Assertions.assertEquals(List.of("Fantasy", "Dystopian", "Satire"),
+                result.getGenres().stream().map(FacetCountDto::getValue).toList());
+        Assertions.assertEquals(BookFacets.PRICE_RANGES, result.getPriceRanges().stream().map(FacetCountDto::getValue).toList());
+        Assertions.assertEquals(3, result.getPriceRanges().get(1).getBooks());
+    }
+
+    private static Book book(int id, String title) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setPrice(12.99);
+        book.setGenre("Satire");
+        book.setStock(10);
+        return book;
+    }
+}
@@ -1,16 +1,38 @@
 package com.application.bookstore.service;
+import com.application.bookstore.cache.BookDtoCache;
+import com.application.bookstore.dto.AuthorRequestDto;
 import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.BookFilterDto;
+import com.application.bookstore.dto.BookFilterResultDto;
+import com.application.bookstore.dto.BookPageDto;
 import com.application.bookstore.dto.BookRequestDto;
+import com.application.bookstore.dto.BookWithNewAuthorDto;
+import com.application.bookstore.event.BookChangedEvent;
+import com.application.bookstore.exception.ValidationException;
+import com.application.bookstore.model.Author;
 import com.application.bookstore.model.Book;
 import com.application.bookstore.repository.AuthorRepository;
 import com.application.bookstore.repository.BookRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @AutoConfigureMockMvc(addFilters = false)
 class BookServiceTest {
@@ -18,11 +40,14 @@ class BookServiceTest {
     private AuthorRepository authorRepository;
     private BookService bookService;
     private AuthorService authorService;
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void beforeEachTest() {
         bookRepository = Mockito.mock(BookRepository.class);
-        bookService = new BookService(bookRepository, authorRepository,authorService);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        bookService = new BookService(bookRepository, authorRepository, authorService,
+                new BookDtoCache(100, Duration.ofMinutes(5)), eventPublisher);
     }
 
     @Test
@@ -33,7 +58,7 @@ class BookServiceTest {
 
     @Test
     void should_return_all_books() {
-        Mockito.when(bookRepository.findAll()).thenReturn(dummyBooks());
+        Mockito.when(bookRepository.findAllWithAuthors()).thenReturn(dummyBooks());
 
         List<BookDto> result = bookService.getAll();
 
@@ -47,6 +72,79 @@ class BookServiceTest {
         Assertions.assertEquals(50, result.getFirst().getStock());
     }
 
+    @Test
+    void should_return_page_of_books_with_next_cursor() {
+        Mockito.when(bookRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(2))).thenReturn(dummyBooks());
+
+        BookPageDto result = bookService.getPage(0, 1);
+
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(1, result.getBooks().size());
+        Assertions.assertEquals("1984", result.getBooks().getFirst().getTitle());
+        Assertions.assertEquals(1, result.getNextCursor());
+    }
+
+    @Test
+    void should_return_last_page_of_books_without_next_cursor() {
+        Mockito.when(bookRepository.findByIdGreaterThanOrderByIdAsc(0, Limit.of(3))).thenReturn(dummyBooks());
+
+        BookPageDto result = bookService.getPage(0, 2);
+
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(2, result.getBooks().size());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void should_throw_validation_exception_when_page_limit_is_out_of_range() {
+        Assertions.assertThrows(ValidationException.class, () -> bookService.getPage(0, 0));
+        Assertions.assertThrows(ValidationException.class, () -> bookService.getPage(0, BookService.MAX_PAGE_LIMIT + 1));
+    }
+
+    @Test
+    void should_serve_repeated_get_by_id_from_cache() {
+        Mockito.when(bookRepository.findWithAuthorsById(1)).thenReturn(Optional.of(dummyBooks().getFirst()));
+
+        final ResourceVersion version = new ResourceVersion("\"v1\"", Instant.EPOCH);
+        BookDto first = bookService.getById(1, version);
+        BookDto second = bookService.getById(1, version);
+
+        Assertions.assertEquals("1984", first.getTitle());
+        Assertions.assertSame(first, second);
+        Mockito.verify(bookRepository, Mockito.times(1)).findWithAuthorsById(1);
+    }
+
+    @Test
+    void should_reload_cached_book_when_its_version_changed() {
+        Mockito.when(bookRepository.findWithAuthorsById(1)).thenReturn(Optional.of(dummyBooks().getFirst()));
+
+        BookDto first = bookService.getById(1, new ResourceVersion("\"v1\"", Instant.EPOCH));
+        BookDto second = bookService.getById(1, new ResourceVersion("\"v2\"", Instant.EPOCH));
+
+        Assertions.assertNotSame(first, second);
+        Mockito.verify(bookRepository, Mockito.times(2)).findWithAuthorsById(1);
+    }
+
+    @Test
+    void should_publish_book_changed_event_when_book_is_updated() {
+        BookRequestDto request = new BookRequestDto();
+        request.setTitle("Nineteen Eighty-Four");
+        request.setPrice(13.99);
+        request.setGenre("Dystopian");
+        request.setStock(40);
+
+        Book existingBook = dummyBooks().getFirst();
+        Mockito.when(bookRepository.findById(1)).thenReturn(Optional.of(existingBook));
+        Mockito.when(bookRepository.save(existingBook)).thenReturn(existingBook);
+
+        bookService.update(1, request);
+
+        Mockito.verify(eventPublisher).publishEvent(Mockito.argThat((Object event) ->
+                event instanceof BookChangedEvent bookChangedEvent
+                        && bookChangedEvent.getBookId() == 1
+                        && bookChangedEvent.getType() == BookChangedEvent.Type.SAVED));
+    }
+
     @Test
     void should_create_new_book() {
         BookRequestDto request = new BookRequestDto();
@@ -74,6 +172,106 @@ class BookServiceTest {
         Assertions.assertEquals(50, result.getStock());
     }
 
+    @Test
+    void should_return_filtered_page_sorted_with_id_as_tie_breaker() {
+        BookFilterDto filter = new BookFilterDto();
+        filter.setGenre("Fantasy");
+        filter.setMaxPrice(20.0);
+        filter.setInStock(true);
+        filter.setSort("price");
+        filter.setDirection("desc");
+        filter.setSize(2);
+        Mockito.when(bookRepository.findAll(Mockito.<Specification<Book>>any(), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(dummyBooks(), invocation.getArgument(1), 5));
+
+        BookFilterResultDto result = bookService.filter(filter);
+
+        Assertions.assertEquals(2, result.getBooks().size());
+        Assertions.assertEquals(5, result.getTotal());
+        Assertions.assertEquals(3, result.getTotalPages());
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(bookRepository).findAll(Mockito.<Specification<Book>>any(), pageable.capture());
+        Assertions.assertEquals(Sort.by(Sort.Direction.DESC, "price", "id"), pageable.getValue().getSort());
+        Assertions.assertEquals(2, pageable.getValue().getPageSize());
+    }
+
+    @Test
+    void should_throw_validation_exception_when_filter_is_invalid() {
+        BookFilterDto unknownSort = new BookFilterDto();
+        unknownSort.setSort("stock");
+        Assertions.assertThrows(ValidationException.class, () -> bookService.filter(unknownSort));
+
+        BookFilterDto invertedRange = new BookFilterDto();
+        invertedRange.setMinPrice(20.0);
+        invertedRange.setMaxPrice(10.0);
+        Assertions.assertThrows(ValidationException.class, () -> bookService.filter(invertedRange));
+
+        BookFilterDto oversizedPage = new BookFilterDto();
+        oversizedPage.setSize(BookService.MAX_PAGE_LIMIT + 1);
+        Assertions.assertThrows(ValidationException.class, () -> bookService.filter(oversizedPage));
+
+        Mockito.verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void should_create_book_with_new_author_without_looking_up_email() {
+        useAuthorService();
+        Mockito.when(authorRepository.saveAndFlush(Mockito.any(Author.class))).thenAnswer(invocation -> {
+            Author author = invocation.getArgument(0);
+            author.setId(7);
+            return author;
+        });
+        Mockito.when(bookRepository.save(Mockito.any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookService.createBookWithNewAuthor(bookWithNewAuthor());
+
+        Mockito.verify(bookRepository).save(Mockito.argThat((Book book) -> book.getAuthors().getFirst().getId() == 7));
+        Mockito.verify(authorRepository, Mockito.never()).findByEmail(Mockito.anyString());
+    }
+
+    @Test
+    void should_attach_existing_author_when_email_constraint_is_violated() {
+        useAuthorService();
+        Author existing = new Author();
+        existing.setId(3);
+        existing.setEmail("ursula.leguin@email.com");
+        Mockito.when(authorRepository.saveAndFlush(Mockito.any(Author.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), Author.UK_EMAIL)));
+        Mockito.when(authorRepository.findByEmail("ursula.leguin@email.com")).thenReturn(existing);
+        Mockito.when(bookRepository.save(Mockito.any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookService.createBookWithNewAuthor(bookWithNewAuthor());
+
+        Mockito.verify(bookRepository).save(Mockito.argThat((Book book) -> book.getAuthors().getFirst() == existing));
+    }
+
+    private void useAuthorService() {
+        authorRepository = Mockito.mock(AuthorRepository.class);
+        authorService = new AuthorService(authorRepository, bookRepository, eventPublisher);
+        bookService = new BookService(bookRepository, authorRepository, authorService,
+                new BookDtoCache(100, Duration.ofMinutes(5)), eventPublisher);
+    }
+
+    private static BookWithNewAuthorDto bookWithNewAuthor() {
+        BookRequestDto book = new BookRequestDto();
+        book.setTitle("The Dispossessed");
+        book.setPrice(15.99);
+        book.setGenre("Science Fiction");
+        book.setStock(20);
+
+        AuthorRequestDto author = new AuthorRequestDto();
+        author.setFirstName("Ursula");
+        author.setLastName("Le Guin");
+        author.setEmail("ursula.leguin@email.com");
+        author.setNationality("American");
+
+        BookWithNewAuthorDto request = new BookWithNewAuthorDto();
+        request.setBook(book);
+        request.setAuthor(author);
+        return request;
+    }
+
     private static List<Book> dummyBooks() {
         Book book1 = new Book();
         book1.setId(1);
@@ -3,14 +3,18 @@ package com.application.bookstore.service;
 
 import com.application.bookstore.dto.CustomerDto;
 import com.application.bookstore.dto.CustomerRequestDto;
+import com.application.bookstore.exception.AttributeAlreadyExistsException;
 import com.application.bookstore.model.Customer;
 import com.application.bookstore.repository.CustomerRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.util.List;
 
 @AutoConfigureMockMvc(addFilters = false)
@@ -77,7 +81,7 @@ class CustomerServiceTest {
         savedCustomer.setAddress("Nugegoda, Colombo");
 
 
-        Mockito.when(customerRepository.save(Mockito.any(Customer.class))).thenReturn(savedCustomer);
+        Mockito.when(customerRepository.saveAndFlush(Mockito.any(Customer.class))).thenReturn(savedCustomer);
 
         CustomerDto result = customerService.create(request);
 
@@ -91,6 +95,38 @@ class CustomerServiceTest {
         Assertions.assertEquals("Nugegoda, Colombo", result.getAddress());
     }
 
+    @Test
+    void should_throw_attribute_already_exists_when_email_constraint_is_violated() {
+        CustomerRequestDto request = new CustomerRequestDto();
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        request.setEmail("john.doe@email.com");
+        request.setPhoneNumber("0123456789");
+        request.setAddress("Nugegoda, Colombo");
+
+        Mockito.when(customerRepository.saveAndFlush(Mockito.any(Customer.class))).thenThrow(new DataIntegrityViolationException(
+                "duplicate", new ConstraintViolationException("duplicate", new SQLException(), "PUBLIC.UK_CUSTOMERS_EMAIL_INDEX_6")));
+
+        AttributeAlreadyExistsException exception = Assertions.assertThrows(AttributeAlreadyExistsException.class,
+                () -> customerService.create(request));
+        Assertions.assertEquals("Customer already exists with email: john.doe@email.com", exception.getMessage());
+    }
+
+    @Test
+    void should_rethrow_violation_of_other_constraints() {
+        CustomerRequestDto request = new CustomerRequestDto();
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        request.setEmail("john.doe@email.com");
+        request.setPhoneNumber("0123456789");
+        request.setAddress("Nugegoda, Colombo");
+
+        Mockito.when(customerRepository.saveAndFlush(Mockito.any(Customer.class))).thenThrow(new DataIntegrityViolationException(
+                "not null", new ConstraintViolationException("not null", new SQLException(), null)));
+
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> customerService.create(request));
+    }
+
     private static List<Customer> dummyCustomer() {
 
         Customer john = new Customer();
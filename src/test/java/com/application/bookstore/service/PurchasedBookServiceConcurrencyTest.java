@@ -0,0 +1,168 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.PurchasedBookDto;
+import com.application.bookstore.dto.PurchasedBookRequestDto;
+import com.application.bookstore.exception.OutOfStockException;
+import com.application.bookstore.model.Book;
+import com.application.bookstore.model.Customer;
+import com.application.bookstore.repository.BookRepository;
+import com.application.bookstore.repository.CustomerRepository;
+import com.application.bookstore.repository.PurchasedBookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class PurchasedBookServiceConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 250;
+    private static final int PURCHASE_ATTEMPTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PurchasedBookService purchasedBookService;
+
+    @Autowired
+    private PurchasedBookRepository purchasedBookRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private static final int CARTS = 400;
+
+    private Customer customer;
+    private Book book;
+    private Book otherBook;
+
+    @BeforeEach
+    void setUp() {
+        Customer newCustomer = new Customer();
+        newCustomer.setFirstName("Jane");
+        newCustomer.setLastName("Doe");
+        newCustomer.setEmail("jane.doe@email.com");
+        newCustomer.setPhoneNumber("0123456789");
+        newCustomer.setAddress("Nugegoda, Colombo");
+        customer = customerRepository.save(newCustomer);
+
+        Book newBook = new Book();
+        newBook.setTitle("1984");
+        newBook.setPrice(12.99);
+        newBook.setGenre("Dystopian");
+        newBook.setStock(INITIAL_STOCK);
+        book = bookRepository.save(newBook);
+
+        Book newOtherBook = new Book();
+        newOtherBook.setTitle("Animal Farm");
+        newOtherBook.setPrice(9.99);
+        newOtherBook.setGenre("Satire");
+        newOtherBook.setStock(CARTS);
+        otherBook = bookRepository.save(newOtherBook);
+    }
+
+    @AfterEach
+    void tearDown() {
+        purchasedBookRepository.deleteAll();
+        bookRepository.deleteById(book.getId());
+        bookRepository.deleteById(otherBook.getId());
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    void should_never_oversell_or_lose_a_decrement_under_concurrent_purchases() throws Exception {
+        AtomicInteger purchased = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < PURCHASE_ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        purchasedBookService.create(purchaseRequest());
+                        purchased.incrementAndGet();
+                    } catch (OutOfStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(INITIAL_STOCK, purchased.get());
+        Assertions.assertEquals(PURCHASE_ATTEMPTS - INITIAL_STOCK, rejected.get());
+        Assertions.assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getStock());
+        Assertions.assertEquals(INITIAL_STOCK, purchasedBookRepository.count());
+    }
+
+    @Test
+    void should_not_deadlock_carts_holding_the_same_books_in_opposite_order() throws Exception {
+        book.setStock(CARTS);
+        book = bookRepository.save(book);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CARTS; i++) {
+                final List<Integer> cart = i % 2 == 0
+                        ? List.of(book.getId(), otherBook.getId())
+                        : List.of(otherBook.getId(), book.getId());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    purchasedBookService.createBatch(batchRequest(cart));
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            // a lock wait timeout or deadlock in any cart surfaces here
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getStock());
+        Assertions.assertEquals(0, bookRepository.findById(otherBook.getId()).orElseThrow().getStock());
+        Assertions.assertEquals(2L * CARTS, purchasedBookRepository.count());
+    }
+
+    private PurchasedBookRequestDto batchRequest(List<Integer> bookIds) {
+        PurchasedBookRequestDto request = new PurchasedBookRequestDto();
+        request.setCustomerId(customer.getId());
+        request.setBookIds(bookIds);
+        return request;
+    }
+
+    private PurchasedBookDto purchaseRequest() {
+        PurchasedBookDto request = new PurchasedBookDto();
+        request.setCustomerId(customer.getId());
+        request.setBookId(book.getId());
+        return request;
+    }
+}
@@ -1,5 +1,8 @@
 package com.application.bookstore.service;
 import com.application.bookstore.dto.PurchasedBookDto;
+import com.application.bookstore.dto.PurchasedBookRequestDto;
+import com.application.bookstore.exception.OutOfStockException;
+import com.application.bookstore.exception.ValidationException;
 import com.application.bookstore.model.Book;
 import com.application.bookstore.model.Customer;
 import com.application.bookstore.model.PurchasedBook;
@@ -10,9 +13,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,7 +34,8 @@ class PurchasedBookServiceTest {
         purchasedBookRepository = Mockito.mock(PurchasedBookRepository.class);
         customerRepository = Mockito.mock(CustomerRepository.class);
         bookRepository = Mockito.mock(BookRepository.class);
-        purchasedBookService = new PurchasedBookService(purchasedBookRepository, customerRepository, bookRepository);
+        purchasedBookService = new PurchasedBookService(purchasedBookRepository, customerRepository, bookRepository,
+                Mockito.mock(ApplicationEventPublisher.class));
     }
 
     @Test
@@ -75,6 +82,7 @@ class PurchasedBookServiceTest {
         book.setTitle("1984");
         book.setPrice(12.99);
         Mockito.when(bookRepository.findById(1)).thenReturn(Optional.of(book));
+        Mockito.when(bookRepository.decrementStock(1, 1)).thenReturn(1);
 
         // Mock saved purchased book
         PurchasedBook savedPurchasedBook = new PurchasedBook();
@@ -94,6 +102,79 @@ class PurchasedBookServiceTest {
         Assertions.assertEquals(1, result.getBookId());
     }
 
+    @Test
+    void should_throw_out_of_stock_exception_when_book_has_no_stock() {
+        PurchasedBookDto request = new PurchasedBookDto();
+        request.setCustomerId(1);
+        request.setBookId(1);
+
+        Customer customer = new Customer();
+        customer.setId(1);
+        Mockito.when(customerRepository.findById(1)).thenReturn(Optional.of(customer));
+        Mockito.when(bookRepository.decrementStock(1, 1)).thenReturn(0);
+        Mockito.when(bookRepository.existsById(1)).thenReturn(true);
+
+        Assertions.assertThrows(OutOfStockException.class, () -> purchasedBookService.create(request));
+        Mockito.verify(purchasedBookRepository, Mockito.never()).save(Mockito.any(PurchasedBook.class));
+    }
+
+    @Test
+    void should_create_batch_of_purchased_books() {
+        PurchasedBookRequestDto request = new PurchasedBookRequestDto();
+        request.setCustomerId(1);
+        request.setBookIds(List.of(1, 2, 1));
+
+        List<PurchasedBook> purchases = dummyPurchasedBooks();
+        Customer customer = purchases.getFirst().getCustomer();
+        Book book1 = purchases.get(0).getBook();
+        Book book2 = purchases.get(1).getBook();
+
+        Mockito.when(customerRepository.findById(1)).thenReturn(Optional.of(customer));
+        Mockito.when(bookRepository.findAllById(Mockito.anyIterable())).thenReturn(List.of(book1, book2));
+        Mockito.when(bookRepository.decrementStock(1, 2)).thenReturn(1);
+        Mockito.when(bookRepository.decrementStock(2, 1)).thenReturn(1);
+        Mockito.when(purchasedBookRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<PurchasedBookDto> result = purchasedBookService.createBatch(request);
+
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(1, result.get(0).getBookId());
+        Assertions.assertEquals(2, result.get(1).getBookId());
+        Assertions.assertEquals(1, result.get(2).getBookId());
+        Mockito.verify(bookRepository, Mockito.times(1)).findAllById(Mockito.anyIterable());
+    }
+
+    @Test
+    void should_reject_whole_batch_when_one_book_is_out_of_stock() {
+        PurchasedBookRequestDto request = new PurchasedBookRequestDto();
+        request.setCustomerId(1);
+        request.setBookIds(List.of(1, 2));
+
+        List<PurchasedBook> purchases = dummyPurchasedBooks();
+        Mockito.when(customerRepository.findById(1)).thenReturn(Optional.of(purchases.getFirst().getCustomer()));
+        Mockito.when(bookRepository.findAllById(Mockito.anyIterable()))
+                .thenReturn(List.of(purchases.get(0).getBook(), purchases.get(1).getBook()));
+        Mockito.when(bookRepository.decrementStock(1, 1)).thenReturn(1);
+        Mockito.when(bookRepository.decrementStock(2, 1)).thenReturn(0);
+
+        Assertions.assertThrows(OutOfStockException.class, () -> purchasedBookService.createBatch(request));
+        Mockito.verify(purchasedBookRepository, Mockito.never()).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    void should_reject_batch_with_null_book_id_or_too_many_lines() {
+        PurchasedBookRequestDto request = new PurchasedBookRequestDto();
+        request.setCustomerId(1);
+        request.setBookIds(Arrays.asList(1, null));
+
+        Assertions.assertThrows(ValidationException.class, () -> purchasedBookService.createBatch(request));
+
+        request.setBookIds(Collections.nCopies(PurchasedBookService.MAX_CART_LINES + 1, 1));
+        Assertions.assertThrows(ValidationException.class, () -> purchasedBookService.createBatch(request));
+
+        Mockito.verifyNoInteractions(customerRepository, bookRepository, purchasedBookRepository);
+    }
+
     private static List<PurchasedBook> dummyPurchasedBooks() {
         // Create customer
         Customer customer = new Customer();
@@ -0,0 +1,142 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.AuthorDto;
+import com.application.bookstore.dto.BookDto;
+import com.application.bookstore.dto.BookRequestDto;
+import com.application.bookstore.model.Author;
+import com.application.bookstore.repository.AuthorRepository;
+import com.application.bookstore.repository.BookRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class ResourceVersionIntegrationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Author author;
+    private BookDto book;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author();
+        author.setFirstName("Octavia");
+        author.setLastName("Butler");
+        author.setEmail("octavia.butler@email.com");
+        author.setNationality("American");
+        author = authorRepository.save(author);
+
+        book = bookService.create(bookRequest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (bookRepository.existsById(book.getId())) {
+            bookService.delete(book.getId());
+        }
+        authorRepository.deleteById(author.getId());
+    }
+
+    @Test
+    void should_keep_versions_of_unchanged_resources() {
+        Assertions.assertEquals(bookService.getVersion(book.getId()), bookService.getVersion(book.getId()));
+        Assertions.assertEquals(authorService.getVersion(author.getId()), authorService.getVersion(author.getId()));
+        Assertions.assertEquals(bookService.getCatalogVersion(), bookService.getCatalogVersion());
+        Assertions.assertEquals(bookService.getPageVersion(book.getId() - 1, 1), bookService.getPageVersion(book.getId() - 1, 1));
+        Assertions.assertTrue(bookService.getVersion(book.getId()).etag().matches("\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void should_change_book_and_author_versions_when_author_is_attached() {
+        final ResourceVersion bookBefore = bookService.getVersion(book.getId());
+        final ResourceVersion authorBefore = authorService.getVersion(author.getId());
+
+        // attach maps lazy authors, which needs the session the web request keeps open
+        transactionTemplate.executeWithoutResult(status -> bookService.attachAuthor(book.getId(), author.getId()));
+
+        final ResourceVersion bookAfter = bookService.getVersion(book.getId());
+        Assertions.assertNotEquals(bookBefore.etag(), bookAfter.etag());
+        Assertions.assertTrue(bookAfter.lastModified().isAfter(bookBefore.lastModified()));
+        Assertions.assertNotEquals(authorBefore.etag(), authorService.getVersion(author.getId()).etag());
+    }
+
+    @Test
+    void should_change_book_version_when_embedded_author_is_updated() {
+        transactionTemplate.executeWithoutResult(status -> bookService.attachAuthor(book.getId(), author.getId()));
+        final ResourceVersion before = bookService.getVersion(book.getId());
+
+        AuthorDto update = new AuthorDto();
+        update.setFirstName("Octavia E.");
+        update.setLastName("Butler");
+        update.setEmail(author.getEmail());
+        update.setNationality("American");
+        transactionTemplate.executeWithoutResult(status -> authorService.update(author.getId(), update));
+
+        Assertions.assertNotEquals(before.etag(), bookService.getVersion(book.getId()).etag());
+    }
+
+    @Test
+    void should_change_versions_when_stock_is_decremented() {
+        transactionTemplate.executeWithoutResult(status -> bookService.attachAuthor(book.getId(), author.getId()));
+        final ResourceVersion bookBefore = bookService.getVersion(book.getId());
+        final ResourceVersion authorBefore = authorService.getVersion(author.getId());
+        final ResourceVersion pageBefore = bookService.getPageVersion(book.getId() - 1, 1);
+        final ResourceVersion catalogBefore = bookService.getCatalogVersion();
+
+        transactionTemplate.executeWithoutResult(status -> bookRepository.decrementStock(book.getId(), 1));
+
+        Assertions.assertNotEquals(bookBefore.etag(), bookService.getVersion(book.getId()).etag());
+        Assertions.assertNotEquals(authorBefore.etag(), authorService.getVersion(author.getId()).etag());
+        Assertions.assertNotEquals(pageBefore.etag(), bookService.getPageVersion(book.getId() - 1, 1).etag());
+        Assertions.assertNotEquals(catalogBefore.etag(), bookService.getCatalogVersion().etag());
+    }
+
+    @Test
+    void should_change_catalog_versions_when_book_is_created_or_deleted() {
+        final ResourceVersion books = bookService.getCatalogVersion();
+        final ResourceVersion authors = authorService.getCatalogVersion();
+
+        final BookDto created = bookService.create(bookRequest());
+        final ResourceVersion booksAfterCreate = bookService.getCatalogVersion();
+        Assertions.assertNotEquals(books.etag(), booksAfterCreate.etag());
+        Assertions.assertNotEquals(authors.etag(), authorService.getCatalogVersion().etag());
+        Assertions.assertNull(booksAfterCreate.lastModified());
+
+        bookService.delete(created.getId());
+        Assertions.assertNotEquals(booksAfterCreate.etag(), bookService.getCatalogVersion().etag());
+    }
+
+    @Test
+    void should_throw_for_version_of_missing_resources() {
+        Assertions.assertThrows(EntityNotFoundException.class, () -> bookService.getVersion(-1));
+        Assertions.assertThrows(EntityNotFoundException.class, () -> authorService.getVersion(-1));
+    }
+
+    private static BookRequestDto bookRequest() {
+        BookRequestDto request = new BookRequestDto();
+        request.setTitle("Kindred");
+        request.setPrice(14.99);
+        request.setGenre("Science Fiction");
+        request.setStock(10);
+        return request;
+    }
+}
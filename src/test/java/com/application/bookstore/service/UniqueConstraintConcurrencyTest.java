@@ -0,0 +1,123 @@
+package com.application.bookstore.service;
+
+import com.application.bookstore.dto.AppUserRequestDto;
+import com.application.bookstore.dto.CustomerRequestDto;
+import com.application.bookstore.exception.AttributeAlreadyExistsException;
+import com.application.bookstore.repository.AppUserRepository;
+import com.application.bookstore.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class UniqueConstraintConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int SIGNUP_ATTEMPTS = 64;
+
+    private static final String EMAIL = "race.condition@email.com";
+    private static final String USERNAME = "race_user";
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private AppUserService appUserService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAll(customerRepository.findAll().stream()
+                .filter(customer -> EMAIL.equals(customer.getEmail())).toList());
+        appUserRepository.deleteAll(appUserRepository.findAll().stream()
+                .filter(user -> USERNAME.equals(user.getUsername())).toList());
+    }
+
+    @Test
+    void should_create_exactly_one_customer_under_concurrent_signups_with_same_email() throws Exception {
+        final int[] outcome = signUpConcurrently(() -> customerService.create(customerRequest()));
+
+        Assertions.assertEquals(1, outcome[0]);
+        Assertions.assertEquals(SIGNUP_ATTEMPTS - 1, outcome[1]);
+        Assertions.assertEquals(1, customerRepository.findAll().stream()
+                .filter(customer -> EMAIL.equals(customer.getEmail())).count());
+    }
+
+    @Test
+    void should_create_exactly_one_user_under_concurrent_signups_with_same_username() throws Exception {
+        final int[] outcome = signUpConcurrently(() -> appUserService.create(appUserRequest()));
+
+        Assertions.assertEquals(1, outcome[0]);
+        Assertions.assertEquals(SIGNUP_ATTEMPTS - 1, outcome[1]);
+        Assertions.assertEquals(1, appUserRepository.findAll().stream()
+                .filter(user -> USERNAME.equals(user.getUsername())).count());
+    }
+
+    // returns {created, rejected as already existing}
+    private int[] signUpConcurrently(Callable<?> signUp) throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < SIGNUP_ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        signUp.call();
+                        created.incrementAndGet();
+                    } catch (AttributeAlreadyExistsException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new int[]{created.get(), rejected.get()};
+    }
+
+    private static CustomerRequestDto customerRequest() {
+        CustomerRequestDto request = new CustomerRequestDto();
+        request.setFirstName("Race");
+        request.setLastName("Condition");
+        request.setEmail(EMAIL);
+        request.setPhoneNumber("0123456789");
+        request.setAddress("Nugegoda, Colombo");
+        return request;
+    }
+
+    private static AppUserRequestDto appUserRequest() {
+        AppUserRequestDto request = new AppUserRequestDto();
+        request.setUsername(USERNAME);
+        request.setPassword("password123");
+        request.setRoles("USER");
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.application.bookstore.validation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class EmailValidatorTest {
+
+    private static final List<String> VALID = List.of(
+            "george.orwell@example.com",
+            "a@b",
+            "first+tag@example.co.uk",
+            "under_score-dash.dot@x",
+            "UPPER123@EXAMPLE.COM",
+            "a@b@c",
+            "a@ spaced domain",
+            "a@@");
+
+    private static final List<String> INVALID = List.of(
+            "",
+            "@",
+            "@example.com",
+            "plainaddress",
+            "george@",
+            "geo rge@example.com",
+            "george!@example.com",
+            "jörg@example.com",
+            "george@example.com\n",
+            "george@exa\rmple.com",
+            "george@example .com",
+            "george\n@example.com");
+
+    @Test
+    void should_accept_valid_emails() {
+        VALID.forEach(email -> Assertions.assertTrue(EmailValidator.isValid(email), email));
+    }
+
+    @Test
+    void should_reject_invalid_emails() {
+        INVALID.forEach(email -> Assertions.assertFalse(EmailValidator.isValid(email), email));
+        Assertions.assertFalse(EmailValidator.isValid(null));
+    }
+
+    @Test
+    void should_agree_with_the_email_pattern() {
+        for (String email : VALID) {
+            Assertions.assertEquals(EmailValidator.EMAIL_PATTERN.matcher(email).matches(), EmailValidator.isValid(email), email);
+        }
+        for (String email : INVALID) {
+            Assertions.assertEquals(EmailValidator.EMAIL_PATTERN.matcher(email).matches(), EmailValidator.isValid(email), email);
+        }
+    }
+}
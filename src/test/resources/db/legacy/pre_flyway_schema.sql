@@ -0,0 +1,71 @@
+-- Schema as ddl-auto created it before migrations existed: IDENTITY ids, no id sequences,
+-- a generated name on the username constraint. Not picked up by Flyway (outside its locations).
+
+create table authors (
+    id          integer generated by default as identity,
+    first_name  varchar(20) not null,
+    last_name   varchar(20) not null,
+    nationality varchar(20) not null,
+    email       varchar(40) not null,
+    primary key (id)
+);
+
+create table books (
+    id    integer generated by default as identity,
+    price float(53)    not null,
+    stock integer      not null,
+    title varchar(40)  not null,
+    genre varchar(255) not null,
+    primary key (id)
+);
+
+create table book_author (
+    author_id integer not null,
+    book_id   integer not null
+);
+
+create table customers (
+    id           integer generated by default as identity,
+    first_name   varchar(20) not null,
+    last_name    varchar(20) not null,
+    phone_number varchar(20) not null,
+    email        varchar(30) not null,
+    address      varchar(50) not null,
+    primary key (id)
+);
+
+create table purchased_books (
+    id            integer generated by default as identity,
+    book_id       integer,
+    customer_id   integer,
+    purchase_date date,
+    primary key (id)
+);
+
+create table users (
+    id       integer generated by default as identity,
+    username varchar(20)  not null,
+    password varchar(100) not null,
+    roles    varchar(40)  not null,
+    primary key (id),
+    constraint UKr43af9ap4edm43mmtq01oddj6 unique (username)
+);
+
+alter table book_author add constraint FKbjqhp85wjv8vpr0beygh6jsgo foreign key (author_id) references authors;
+alter table book_author add constraint FKhuh7nq7od1ga5vidgy2mhvm0g foreign key (book_id) references books;
+alter table purchased_books add constraint FKqhv4r4ykptw3h4b3p7w1kpn0e foreign key (book_id) references books;
+alter table purchased_books add constraint FK9ldqmv2cfmsjvs3xj3u5jcsbv foreign key (customer_id) references customers;
+
+insert into books (id, title, price, genre, stock) values (1, '1984', 12.99, 'Dystopian', 50);
+insert into books (id, title, price, genre, stock) values (7, 'Brave New World', 10.99, 'Dystopian', 30);
+insert into users (id, username, password, roles) values (3, 'admin', 'secret', 'ADMIN');
+
+-- duplicate emails, merged before V2 adds the unique constraints
+insert into authors (id, first_name, last_name, nationality, email) values (2, 'George', 'Orwell', 'British', 'george.orwell@email.com');
+insert into authors (id, first_name, last_name, nationality, email) values (4, 'George', 'Orwell', 'British', 'george.orwell@email.com');
+insert into book_author (author_id, book_id) values (2, 1);
+insert into book_author (author_id, book_id) values (4, 1);
+insert into book_author (author_id, book_id) values (4, 7);
+insert into customers (id, first_name, last_name, phone_number, email, address) values (1, 'John', 'Doe', '0771234567', 'john.doe@email.com', 'Colombo');
+insert into customers (id, first_name, last_name, phone_number, email, address) values (2, 'John', 'Doe', '0771234567', 'john.doe@email.com', 'Colombo');
+insert into purchased_books (id, book_id, customer_id, purchase_date) values (1, 7, 2, date '2024-01-15');